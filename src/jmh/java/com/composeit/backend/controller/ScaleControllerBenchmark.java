@@ -0,0 +1,77 @@
+package com.composeit.backend.controller;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.composeit.backend.common.Constants;
+import com.composeit.backend.dto.ChordsRequest;
+import com.composeit.backend.dto.ScaleProfileResponse;
+import com.composeit.backend.dto.ScalesRequest;
+import com.composeit.backend.dto.SemitonesRequest;
+import com.composeit.backend.scaleservice.ScaleService;
+import com.composeit.backend.scaleservice.models.Quality;
+import com.composeit.backend.scaleservice.models.ScaleProfile;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.Validation;
+
+/**
+ * Controller calls through to JSON bytes, without the servlet stack: what a request costs once
+ * it has been deserialized and validated. The cached endpoints are measured both on their
+ * stored-body path and on the full DTO-plus-Jackson path they take on a cache miss.
+ */
+@State(Scope.Benchmark)
+public class ScaleControllerBenchmark {
+    private ScaleService scaleService;
+    private ObjectMapper objectMapper;
+    private ScaleController controller;
+
+    private SemitonesRequest profileRequest;
+    private ScalesRequest scalesRequest;
+    private ChordsRequest chordsRequest;
+
+    @Setup
+    public void setUp() {
+        scaleService = new ScaleService();
+        objectMapper = new ObjectMapper();
+        controller = new ScaleController(scaleService, objectMapper,
+                Validation.buildDefaultValidatorFactory().getValidator());
+
+        profileRequest = new SemitonesRequest();
+        profileRequest.setTonic(Constants.E_FLAT);
+        profileRequest.setQuality(Quality.MAJOR);
+
+        scalesRequest = new ScalesRequest();
+        scalesRequest.setSemitones(List.of(Constants.C, Constants.E, Constants.G));
+        scalesRequest.setAdvanced(true);
+
+        chordsRequest = new ChordsRequest();
+        chordsRequest.setChords(List.of("C", "F", "G", "Am"));
+        chordsRequest.setAdvanced(true);
+    }
+
+    @Benchmark
+    public byte[] cachedProfile() {
+        return controller.getScaleProfile(profileRequest, null, null).getBody();
+    }
+
+    @Benchmark
+    public byte[] uncachedProfile() throws Exception {
+        ScaleProfile profile = scaleService.getScaleProfile(profileRequest.getTonic(), profileRequest.getQuality());
+        return objectMapper.writeValueAsBytes(new ScaleProfileResponse(profile));
+    }
+
+    @Benchmark
+    public byte[] scalesFromSemitones() throws Exception {
+        return objectMapper.writeValueAsBytes(controller.getScales(scalesRequest, null, null).getBody());
+    }
+
+    @Benchmark
+    public byte[] scalesFromChords() throws Exception {
+        return objectMapper.writeValueAsBytes(controller.getScalesFromChords(chordsRequest, null, null).getBody());
+    }
+}
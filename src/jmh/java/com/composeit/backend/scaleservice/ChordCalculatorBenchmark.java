@@ -0,0 +1,34 @@
+package com.composeit.backend.scaleservice;
+
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.composeit.backend.scaleservice.models.Quality;
+
+@State(Scope.Benchmark)
+public class ChordCalculatorBenchmark {
+    @Param({"C", "F#m", "Bb°", "Cmaj7", "Am/C", "Dbdim7/Fb", "H"})
+    public String chord;
+
+    private ChordCalculator chordCalculator;
+
+    @Setup
+    public void setUp() {
+        chordCalculator = new ChordCalculator(new ScalePatternCalculator());
+    }
+
+    @Benchmark
+    public Map.Entry<String, Quality> parseChord() {
+        return chordCalculator.parseChord(chord);
+    }
+
+    @Benchmark
+    public int parseChordCode() {
+        return ChordCode.parse(chord);
+    }
+}
@@ -0,0 +1,83 @@
+package com.composeit.backend.scaleservice;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.composeit.backend.common.Constants;
+import com.composeit.backend.scaleservice.models.Quality;
+import com.composeit.backend.scaleservice.models.ScaleProfile;
+
+/**
+ * The ScaleCalculator entry points behind each /api endpoint.
+ * Run with ./gradlew jmh; modes and the GC profiler are configured in build.gradle.
+ *
+ * Inputs live in separate states, so each benchmark only runs over the parameters it uses.
+ */
+@State(Scope.Benchmark)
+public class ScaleCalculatorBenchmark {
+    // Diatonic chords of C major, so chord lists of any length still match at least one scale
+    private static final List<String> C_MAJOR_CHORDS = List.of("C", "Dm", "Em", "F", "G", "Am", "B°");
+
+    private final ScaleCalculator scaleCalculator = new ScaleCalculator();
+
+    @State(Scope.Benchmark)
+    public static class SemitonesInput {
+        @Param({"1", "3", "5", "7"})
+        public int size;
+
+        @Param({"false", "true"})
+        public boolean advanced;
+
+        List<String> semitones;
+
+        @Setup
+        public void setUp() {
+            semitones = new ScalePatternCalculator().getSemitonesFromScale(Constants.C, Quality.MAJOR).subList(0, size);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ChordsInput {
+        @Param({"1", "2", "4", "8", "16", "32"})
+        public int size;
+
+        @Param({"false", "true"})
+        public boolean advanced;
+
+        List<String> chords;
+
+        @Setup
+        public void setUp() {
+            chords = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                chords.add(C_MAJOR_CHORDS.get(i % C_MAJOR_CHORDS.size()));
+            }
+        }
+    }
+
+    @Benchmark
+    public List<String> semitonesFromScale() {
+        return scaleCalculator.getSemitonesFromScale(Constants.B_FLAT, Quality.DORIAN);
+    }
+
+    @Benchmark
+    public List<String> scaleFromSemitones(SemitonesInput input) {
+        return scaleCalculator.getScaleFromSemitones(input.semitones, input.advanced);
+    }
+
+    @Benchmark
+    public List<String> scaleFromChords(ChordsInput input) {
+        return scaleCalculator.getScaleFromChords(input.chords, input.advanced);
+    }
+
+    @Benchmark
+    public ScaleProfile scaleProfile() {
+        return scaleCalculator.getScaleProfile(Constants.E_FLAT, Quality.HARMONIC_MINOR);
+    }
+}
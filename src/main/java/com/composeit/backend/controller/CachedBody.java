@@ -0,0 +1,87 @@
+package com.composeit.backend.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * A response body, JSON or CBOR, serialized once together with a strong ETag derived from its bytes.
+ *
+ * Endpoints whose output is a pure function of their input keep one of these per input and
+ * write the stored bytes directly, skipping DTO construction and Jackson on every later request.
+ * The same endpoints can answer in the compact CBOR encoding, whose bodies are cached the same way
+ * under their own content type; every response varies by Accept for that reason.
+ */
+final class CachedBody {
+    private final byte[] body;
+    private final String eTag;
+    private final MediaType contentType;
+
+    private CachedBody(byte[] body, MediaType contentType) {
+        this.body = body;
+        this.eTag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+        this.contentType = contentType;
+    }
+
+    static CachedBody of(ObjectMapper objectMapper, Object response) {
+        return of(objectMapper, response, MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * Serializes a response with the given mapper, which must write the given content type.
+     */
+    static CachedBody of(ObjectMapper objectMapper, Object response, MediaType contentType) {
+        try {
+            return new CachedBody(objectMapper.writeValueAsBytes(response), contentType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + response.getClass().getSimpleName(), e);
+        }
+    }
+
+    byte[] getBody() {
+        return body;
+    }
+
+    String getETag() {
+        return eTag;
+    }
+
+    /**
+     * Answers with 304 Not Modified if the If-None-Match header lists this body's ETag,
+     * otherwise writes the stored bytes with the given status.
+     */
+    ResponseEntity<byte[]> toResponse(HttpStatus status, String ifNoneMatch) {
+        if (status == HttpStatus.OK && matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).header(HttpHeaders.VARY, HttpHeaders.ACCEPT).build();
+        }
+        return ResponseEntity.status(status)
+                .eTag(eTag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .contentType(contentType)
+                .body(body);
+    }
+
+    /**
+     * If-None-Match holds "*" or a comma-separated list of entity tags, compared weakly (RFC 9110 13.1.2).
+     */
+    private boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,84 +1,662 @@
 package com.composeit.backend.controller;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.composeit.backend.dto.*;
+import com.composeit.backend.scaleservice.ChordTransposer;
 import com.composeit.backend.scaleservice.ScaleService;
+import com.composeit.backend.scaleservice.models.AudioAnalysis;
+import com.composeit.backend.scaleservice.models.GeneratedProgression;
+import com.composeit.backend.scaleservice.models.IdentifiedChord;
+import com.composeit.backend.scaleservice.models.KeySegment;
+import com.composeit.backend.scaleservice.models.LocatedProgression;
+import com.composeit.backend.scaleservice.models.MidiAnalysis;
+import com.composeit.backend.scaleservice.models.Quality;
+import com.composeit.backend.scaleservice.models.RankedKey;
+import com.composeit.backend.scaleservice.models.RankedScale;
 import com.composeit.backend.scaleservice.models.ScaleProfile;
+import com.composeit.backend.scaleservice.models.VoiceLeading;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api")
 public class ScaleController {
 
+    // One request can cover every (tonic, quality) key: 12 tonics x 12 qualities
+    private static final int MAX_BATCH_SIZE = 144;
+    // Far above any real song; guards the buffer the upload is read into
+    private static final int MAX_MIDI_BYTES = 16 * 1024 * 1024;
+    // A memory-mapped buffer is at most 2 GiB; this allows over an hour of 48 kHz 24-bit stereo
+    private static final long MAX_AUDIO_BYTES = 1024L * 1024 * 1024;
+
     private final ScaleService scaleService;
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper cborMapper;
+    private final Validator validator;
+
+    // Serialized bodies for the endpoints that are pure functions of (tonic, quality) or the advanced flag
+    private final Map<Quality, ConcurrentMap<String, CachedBody>> semitonesBodies = bodiesByQuality();
+    private final Map<Quality, ConcurrentMap<String, CachedBody>> chordsBodies = bodiesByQuality();
+    private final Map<Quality, ConcurrentMap<String, CachedBody>> profileBodies = bodiesByQuality();
+    private final ConcurrentMap<Boolean, CachedBody> qualitiesBodies = new ConcurrentHashMap<>();
+
+    // The same bodies in the compact CBOR encoding
+    private final Map<Quality, ConcurrentMap<String, CachedBody>> compactSemitonesBodies = bodiesByQuality();
+    private final Map<Quality, ConcurrentMap<String, CachedBody>> compactChordsBodies = bodiesByQuality();
+    private final Map<Quality, ConcurrentMap<String, CachedBody>> compactProfileBodies = bodiesByQuality();
+    private final ConcurrentMap<Boolean, CachedBody> compactQualitiesBodies = new ConcurrentHashMap<>();
+
+    private final CachedBody emptySemitonesBody;
+    private final CachedBody emptyChordsBody;
+    private final CachedBody emptyProfileBody;
+    private final CachedBody emptyCompactSemitonesBody;
+    private final CachedBody emptyCompactChordsBody;
+    private final CachedBody emptyCompactProfileBody;
 
-    public ScaleController(ScaleService scaleService) {
+    public ScaleController(ScaleService scaleService, ObjectMapper objectMapper, Validator validator) {
         this.scaleService = scaleService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        // Shares the JSON mapper's configuration, so both encodings carry the same fields
+        this.cborMapper = objectMapper.copyWith(new CBORFactory());
+        this.emptySemitonesBody = CachedBody.of(objectMapper, new SemitonesResponse(List.of()));
+        this.emptyChordsBody = CachedBody.of(objectMapper, new ChordsResponse(List.of()));
+        this.emptyProfileBody = CachedBody.of(objectMapper, new ScaleProfileResponse());
+        this.emptyCompactSemitonesBody = cborBody(new CompactSemitonesResponse(List.of()));
+        this.emptyCompactChordsBody = cborBody(new ChordsResponse(List.of()));
+        this.emptyCompactProfileBody = cborBody(new ScaleProfileResponse());
     }
 
     @PostMapping("/semitones")
-    public ResponseEntity<SemitonesResponse> getSemitones(@Valid @RequestBody SemitonesRequest request) {
+    public ResponseEntity<byte[]> getSemitones(@Valid @RequestBody SemitonesRequest request,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        if (acceptsCbor(accept)) {
+            try {
+                Quality quality = request.getQuality();
+                CachedBody body = compactSemitonesBodies.get(quality).computeIfAbsent(request.getTonic(),
+                        tonic -> cborBody(new CompactSemitonesResponse(scaleService.getSemitones(tonic, quality))));
+                return body.toResponse(HttpStatus.OK, ifNoneMatch);
+            } catch (IllegalArgumentException e) {
+                return emptyCompactSemitonesBody.toResponse(HttpStatus.BAD_REQUEST, null);
+            }
+        }
     	try {
-            List<String> semitones = scaleService.getSemitones(request.getTonic(), request.getQuality());
-            return ResponseEntity.ok(new SemitonesResponse(semitones));
+            Quality quality = request.getQuality();
+            CachedBody body = semitonesBodies.get(quality).computeIfAbsent(request.getTonic(),
+                    tonic -> CachedBody.of(objectMapper, new SemitonesResponse(scaleService.getSemitones(tonic, quality))));
+            return body.toResponse(HttpStatus.OK, ifNoneMatch);
         } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body(new SemitonesResponse(List.of()));
+            return emptySemitonesBody.toResponse(HttpStatus.BAD_REQUEST, null);
         }
     }
 
+    /**
+     * Answers with one ScalesResponse, or with Accept: application/x-ndjson streams each match as its
+     * own {"scale": ...} line, flushed as it is produced and stopping after {@code limit} lines if given.
+     * With Accept: application/cbor the response is a CompactScalesResponse.
+     */
     @PostMapping("/scales-from-semitones")
-    public ResponseEntity<ScalesResponse> getScales(@Valid @RequestBody ScalesRequest request) {
+    public ResponseEntity<?> getScales(@Valid @RequestBody ScalesRequest request,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        if (acceptsNdjson(accept)) {
+            return streamScales(() -> scaleService.streamScalesFromSemitones(request.getSemitones(), request.isAdvanced()), limit);
+        }
     	try {
             List<String> scales = scaleService.getScalesFromSemitones(request.getSemitones(), request.isAdvanced());
+            if (acceptsCbor(accept)) {
+                return ResponseEntity.ok().contentType(MediaType.APPLICATION_CBOR).body(new CompactScalesResponse(scales));
+            }
             return ResponseEntity.ok(new ScalesResponse(scales));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(new ScalesResponse(List.of()));
         }
     }
 
+    /**
+     * Chord names are not given ids, so the CBOR body holds the same ChordsResponse as the JSON one.
+     */
     @PostMapping("/chords")
-    public ResponseEntity<ChordsResponse> getChords(@Valid @RequestBody SemitonesRequest request) {
+    public ResponseEntity<byte[]> getChords(@Valid @RequestBody SemitonesRequest request,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        if (acceptsCbor(accept)) {
+            try {
+                Quality quality = request.getQuality();
+                CachedBody body = compactChordsBodies.get(quality).computeIfAbsent(request.getTonic(),
+                        tonic -> cborBody(new ChordsResponse(scaleService.getChords(tonic, quality))));
+                return body.toResponse(HttpStatus.OK, ifNoneMatch);
+            } catch (IllegalArgumentException e) {
+                return emptyCompactChordsBody.toResponse(HttpStatus.BAD_REQUEST, null);
+            }
+        }
         try {
-            List<String> chords = scaleService.getChords(request.getTonic(), request.getQuality());
-            return ResponseEntity.ok(new ChordsResponse(chords));
+            Quality quality = request.getQuality();
+            CachedBody body = chordsBodies.get(quality).computeIfAbsent(request.getTonic(),
+                    tonic -> CachedBody.of(objectMapper, new ChordsResponse(scaleService.getChords(tonic, quality))));
+            return body.toResponse(HttpStatus.OK, ifNoneMatch);
         } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body(new ChordsResponse(List.of()));
+            return emptyChordsBody.toResponse(HttpStatus.BAD_REQUEST, null);
         }
     }
 
+    /**
+     * Same response modes as getScales.
+     */
     @PostMapping("/scales-from-chords")
-    public ResponseEntity<ScalesResponse> getScalesFromChords(@Valid @RequestBody ChordsRequest request) {
+    public ResponseEntity<?> getScalesFromChords(@Valid @RequestBody ChordsRequest request,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        if (acceptsNdjson(accept)) {
+            return streamScales(() -> scaleService.streamScalesFromChords(request.getChords(), request.isAdvanced()), limit);
+        }
         try {
             List<String> scales = scaleService.getScalesFromChords(request.getChords(), request.isAdvanced());
+            if (acceptsCbor(accept)) {
+                return ResponseEntity.ok().contentType(MediaType.APPLICATION_CBOR).body(new CompactScalesResponse(scales));
+            }
             return ResponseEntity.ok(new ScalesResponse(scales));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(new ScalesResponse(List.of()));
         }
     }
 
+    /**
+     * Every key the chords fit as a progression, with its roman numeral reading in each.
+     */
+    @PostMapping("/locate-progression")
+    public ResponseEntity<LocatedProgressionsResponse> locateProgression(@Valid @RequestBody ChordsRequest request) {
+        try {
+            List<LocatedProgression> keys = scaleService.locateProgression(request.getChords(), request.isAdvanced());
+            return ResponseEntity.ok(new LocatedProgressionsResponse(keys));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new LocatedProgressionsResponse(List.of()));
+        }
+    }
+
+    /**
+     * Transposes a list of chord symbols; symbols that do not parse come back unchanged.
+     */
+    @PostMapping(value = "/transpose", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ChordsResponse> transposeChords(@Valid @RequestBody TransposeRequest request) {
+        try {
+            List<String> chords = scaleService.transposeChords(request.getChords(), request.getSemitones(),
+                    request.getKey(), request.getFrom());
+            return ResponseEntity.ok(new ChordsResponse(chords));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ChordsResponse(List.of()));
+        }
+    }
+
+    /**
+     * Transposes a plain-text chord chart, streaming it through a line at a time, so charts of any
+     * size are never held in memory. Lyrics and anything else that is not a chord pass through.
+     */
+    @PostMapping(value = "/transpose", consumes = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<StreamingResponseBody> transposeChart(InputStream chart,
+            @RequestParam(required = false) Integer semitones,
+            @RequestParam(required = false) String key,
+            @RequestParam(required = false) String from) {
+        ChordTransposer transposer;
+        try {
+            transposer = scaleService.createTransposer(semitones, key, from);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            transposer.transpose(new InputStreamReader(chart, StandardCharsets.UTF_8), writer);
+        };
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "plain", StandardCharsets.UTF_8))
+                .body(body);
+    }
+
+    /**
+     * Voices a progression with the least total voice movement, within a MIDI note range.
+     */
+    @PostMapping("/voice-leading")
+    public ResponseEntity<VoiceLeadingResponse> leadVoices(@Valid @RequestBody VoiceLeadingRequest request) {
+        try {
+            VoiceLeading leading = scaleService.leadVoices(request.getChords(), request.getLow(), request.getHigh(),
+                    request.getVoices());
+            return ResponseEntity.ok(new VoiceLeadingResponse(leading.getVoicings(), leading.getMovement()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new VoiceLeadingResponse(List.of(), 0));
+        }
+    }
+
+    /**
+     * Names the chords a set of notes can be read as over its bass, best first. Every (pitch-class set,
+     * bass) pair is tabled at startup, so this is cheap enough to call on each key press of a MIDI keyboard.
+     */
+    @PostMapping("/identify-chord")
+    public ResponseEntity<IdentifiedChordsResponse> identifyChord(@Valid @RequestBody IdentifyChordRequest request) {
+        List<IdentifiedChord> chords = scaleService.identifyChord(request.getNotes(), request.getBass());
+        return ResponseEntity.ok(new IdentifiedChordsResponse(chords));
+    }
+
+    /**
+     * Reads an uploaded Standard MIDI File and returns its key and the chord of each bar. The file is
+     * read in one pass with its tracks folded in parallel; see MidiAnalyzer.
+     */
+    @PostMapping(value = "/analyze-midi",
+            consumes = {"audio/midi", "audio/x-midi", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<MidiAnalysisResponse> analyzeMidi(InputStream file,
+            @RequestParam(defaultValue = "false") boolean advanced) throws IOException {
+        byte[] bytes = file.readNBytes(MAX_MIDI_BYTES + 1);
+        if (bytes.length > MAX_MIDI_BYTES) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        try {
+            MidiAnalysis analysis = scaleService.analyzeMidi(ByteBuffer.wrap(bytes), advanced);
+            return ResponseEntity.ok(new MidiAnalysisResponse(analysis.getKey(), analysis.getBars()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MidiAnalysisResponse(null, List.of()));
+        }
+    }
+
+    /**
+     * Reads an uploaded PCM WAV recording and returns its key and a timeline of its chords. The upload
+     * is spooled to a temporary file and memory-mapped, so the samples are never copied onto the heap.
+     */
+    @PostMapping(value = "/analyze-audio",
+            consumes = {"audio/wav", "audio/x-wav", "audio/wave", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<AudioAnalysisResponse> analyzeAudio(InputStream file,
+            @RequestParam(defaultValue = "false") boolean advanced) throws IOException {
+        Path upload = Files.createTempFile("composeit-audio-", ".wav");
+        try {
+            if (!copyAtMost(file, upload, MAX_AUDIO_BYTES)) {
+                return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+            }
+            try (FileChannel channel = FileChannel.open(upload, StandardOpenOption.READ)) {
+                MappedByteBuffer samples = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                AudioAnalysis analysis = scaleService.analyzeAudio(samples, advanced);
+                return ResponseEntity.ok(new AudioAnalysisResponse(analysis.getKey(), analysis.getChords()));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(new AudioAnalysisResponse(null, List.of()));
+            }
+        } finally {
+            Files.deleteIfExists(upload);
+        }
+    }
+
+    // Copies the stream to the file, stopping and returning false once it passes limit bytes
+    private static boolean copyAtMost(InputStream in, Path file, long limit) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long total = 0;
+        try (OutputStream out = Files.newOutputStream(file)) {
+            for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                total += read;
+                if (total > limit) {
+                    return false;
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+        return true;
+    }
+
+    @PostMapping("/key-segments")
+    public ResponseEntity<KeySegmentsResponse> getKeySegments(@Valid @RequestBody KeySegmentsRequest request) {
+        try {
+            List<KeySegment> segments = scaleService.trackKeys(request.getChords(), request.getWindowSize(), request.isAdvanced());
+            return ResponseEntity.ok(new KeySegmentsResponse(segments));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new KeySegmentsResponse(List.of()));
+        }
+    }
+
+    /**
+     * Partial-match search: every scale scored against the input notes, best first. Cheap enough to
+     * call on each keystroke, since scoring is a few popcounts per scale.
+     */
+    @PostMapping("/scales-ranked")
+    public ResponseEntity<RankedScalesResponse> getRankedScales(@Valid @RequestBody RankedScalesRequest request) {
+        try {
+            List<RankedScale> scales = scaleService.rankScales(request.getSemitones(), request.getWeights(),
+                    request.getLimit(), request.isAdvanced());
+            return ResponseEntity.ok(new RankedScalesResponse(scales));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new RankedScalesResponse(List.of()));
+        }
+    }
+
+    /**
+     * Key finding on weighted note data: every key ranked by how well its Krumhansl-Schmuckler profile
+     * correlates with the total duration of each note.
+     */
+    @PostMapping("/find-key")
+    public ResponseEntity<RankedKeysResponse> findKeys(@Valid @RequestBody FindKeyRequest request) {
+        try {
+            List<RankedKey> keys = scaleService.findKeys(request.getDurations(), request.getLimit(), request.isAdvanced());
+            return ResponseEntity.ok(new RankedKeysResponse(keys));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new RankedKeysResponse(List.of()));
+        }
+    }
+
+    /**
+     * Progressions over the scale's diatonic chords, ranked, enumerated or sampled from a weighted
+     * transition matrix and capped at the request's limit. With Accept: application/x-ndjson each
+     * progression is streamed as its own line as it is generated, so a long enumeration can be read
+     * (or abandoned) while it runs.
+     */
+    @PostMapping("/progressions")
+    public ResponseEntity<?> getProgressions(@Valid @RequestBody ProgressionsRequest request,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        try {
+            Stream<GeneratedProgression> progressions = scaleService.generateProgressions(request.getTonic(),
+                    request.getQuality(), request.getLength(), request.getLimit(), request.getOrder(),
+                    request.isCadence(), request.getSeed());
+            if (acceptsNdjson(accept)) {
+                return ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .body(ndjsonValues(progressions));
+            }
+            return ResponseEntity.ok(new ProgressionsResponse(progressions.toList()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ProgressionsResponse(List.of()));
+        }
+    }
+
     @PostMapping("/profile")
-    public ResponseEntity<ScaleProfileResponse> getScaleProfile(@Valid @RequestBody SemitonesRequest request) {
+    public ResponseEntity<byte[]> getScaleProfile(@Valid @RequestBody SemitonesRequest request,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        if (acceptsCbor(accept)) {
+            try {
+                CachedBody body = compactProfileBody(request.getTonic(), request.getQuality());
+                if (body == null) {
+                    return emptyCompactProfileBody.toResponse(HttpStatus.BAD_REQUEST, null);
+                }
+                return body.toResponse(HttpStatus.OK, ifNoneMatch);
+            } catch (IllegalArgumentException e) {
+                return emptyCompactProfileBody.toResponse(HttpStatus.BAD_REQUEST, null);
+            }
+        }
+        try {
+            CachedBody body = profileBody(request.getTonic(), request.getQuality());
+            if (body == null) {
+                return emptyProfileBody.toResponse(HttpStatus.BAD_REQUEST, null);
+            }
+            return body.toResponse(HttpStatus.OK, ifNoneMatch);
+        } catch (IllegalArgumentException e) {
+            return emptyProfileBody.toResponse(HttpStatus.BAD_REQUEST, null);
+        }
+    }
+
+    /**
+     * Profiles for many (tonic, quality) pairs in one request, streamed back as a JSON array in request order.
+     * Each item is converted and validated on its own; an invalid item, such as an unknown quality, gets an
+     * "error" in place of its "profile" instead of failing the whole batch.
+     */
+    @PostMapping("/batch/profile")
+    public ResponseEntity<StreamingResponseBody> getScaleProfiles(@RequestBody List<JsonNode> items) {
+        if (items.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> out.write(objectMapper.writeValueAsBytes(
+                            Map.of("error", "A batch can have at most " + MAX_BATCH_SIZE + " items"))));
+        }
+
+        StreamingResponseBody body = out -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+            generator.writeStartArray();
+            for (JsonNode item : items) {
+                writeProfileItem(generator, item);
+            }
+            generator.writeEndArray();
+            generator.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    private void writeProfileItem(JsonGenerator generator, JsonNode item) throws IOException {
+        generator.writeStartObject();
+        if (item == null || item.isNull()) {
+            generator.writeStringField("error", "Item must not be null");
+            generator.writeEndObject();
+            return;
+        }
+
+        SemitonesRequest request;
+        try {
+            request = objectMapper.treeToValue(item, SemitonesRequest.class);
+        } catch (JsonProcessingException e) {
+            generator.writeStringField("error", "Item must have a string tonic and a known quality");
+            generator.writeEndObject();
+            return;
+        }
+
+        generator.writeStringField("tonic", request.getTonic());
+        generator.writeStringField("quality", request.getQuality() == null ? null : request.getQuality().name());
+
+        String error = validationError(request);
+        CachedBody body = null;
+        if (error == null) {
+            try {
+                body = profileBody(request.getTonic(), request.getQuality());
+                if (body == null) {
+                    error = "No profile for " + request.getTonic() + " " + request.getQuality().name();
+                }
+            } catch (IllegalArgumentException e) {
+                error = "Invalid scale";
+            }
+        }
+
+        if (error != null) {
+            generator.writeStringField("error", error);
+        } else {
+            generator.writeFieldName("profile");
+            generator.writeRawValue(new String(body.getBody(), StandardCharsets.UTF_8));
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * NDJSON is opt-in: it is only chosen when the Accept header names it, never for a wildcard,
+     * so existing clients keep getting a single JSON body.
+     */
+    private static boolean acceptsNdjson(String accept) {
+        return acceptsExactly(accept, MediaType.APPLICATION_NDJSON);
+    }
+
+    /**
+     * Whether the Accept header names the media type itself, not through a wildcard. A header that
+     * does not parse names nothing, so the client gets the default JSON rather than an error.
+     */
+    private static boolean acceptsExactly(String accept, MediaType wanted) {
+        if (accept == null) {
+            return false;
+        }
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.equalsTypeAndSubtype(wanted)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ResponseEntity<StreamingResponseBody> streamScales(Supplier<Stream<String>> search, Integer limit) {
+        if (limit != null && limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
         try {
-            ScaleProfile profile = scaleService.getScaleProfile(request.getTonic(), request.getQuality());
-            return ResponseEntity.ok(new ScaleProfileResponse(profile));
+            Stream<String> scales = search.get();
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(ndjsonLines(limit == null ? scales : scales.limit(limit)));
         } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private StreamingResponseBody ndjsonLines(Stream<String> scales) {
+        return out -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+            Iterator<String> iterator = scales.iterator();
+            while (iterator.hasNext()) {
+                generator.writeStartObject();
+                generator.writeStringField("scale", iterator.next());
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                generator.flush();
+            }
+        };
+    }
+
+    private StreamingResponseBody ndjsonValues(Stream<?> values) {
+        return out -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+            Iterator<?> iterator = values.iterator();
+            while (iterator.hasNext()) {
+                objectMapper.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                generator.flush();
+            }
+        };
+    }
+
+    /**
+     * Returns the constraint messages of an invalid request joined in a stable order, or null if it is valid.
+     */
+    private String validationError(SemitonesRequest request) {
+        Set<ConstraintViolation<SemitonesRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        Set<String> messages = new TreeSet<>();
+        for (ConstraintViolation<SemitonesRequest> violation : violations) {
+            messages.add(violation.getMessage());
+        }
+        return String.join("; ", messages);
+    }
+
+    // A null profile is not cached, so callers can answer it as a bad request
+    private CachedBody profileBody(String tonic, Quality quality) {
+        return profileBodies.get(quality).computeIfAbsent(tonic, key -> {
+            ScaleProfile profile = scaleService.getScaleProfile(key, quality);
+            return profile == null ? null : CachedBody.of(objectMapper, new ScaleProfileResponse(profile));
+        });
+    }
+
+    @PostMapping("/custom-profile")
+    public ResponseEntity<ScaleProfileResponse> getCustomScaleProfile(@Valid @RequestBody CustomProfileRequest request) {
+        ScaleProfile profile = scaleService.getCustomScaleProfile(request.getTonic(), request.getScale());
+        if (profile == null) {
             return ResponseEntity.badRequest().body(new ScaleProfileResponse());
         }
+        return ResponseEntity.ok(new ScaleProfileResponse(profile));
+    }
+
+    /**
+     * The user-defined scales loaded at startup, in definition file order. Their names are accepted by
+     * /custom-profile and appear in advanced-mode search results, but not as a Quality.
+     */
+    @GetMapping("/custom-qualities")
+    public ResponseEntity<QualitiesResponse> getCustomQualities() {
+        return ResponseEntity.ok(scaleService.getCustomQualities());
     }
 
     @GetMapping("/qualities")
-    public ResponseEntity<QualitiesResponse> getQualities(
-            @RequestParam(defaultValue = "false") boolean advanced) {
-        return ResponseEntity.ok(scaleService.getQualities(advanced));
+    public ResponseEntity<byte[]> getQualities(
+            @RequestParam(defaultValue = "false") boolean advanced,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        CachedBody body = acceptsCbor(accept)
+                ? compactQualitiesBodies.computeIfAbsent(advanced, flag -> cborBody(scaleService.getQualities(flag)))
+                : qualitiesBodies.computeIfAbsent(advanced, flag -> CachedBody.of(objectMapper, scaleService.getQualities(flag)));
+        return body.toResponse(HttpStatus.OK, ifNoneMatch);
+    }
+
+    /**
+     * The tables that decode the ids in compact responses (see WireIds). Negotiated like any other
+     * response, so a CBOR client can fetch them in CBOR.
+     */
+    @GetMapping("/ids")
+    public ResponseEntity<WireIdsResponse> getWireIds() {
+        return ResponseEntity.ok(new WireIdsResponse());
+    }
+
+    /**
+     * The compact CBOR encoding is opt-in like NDJSON: it is only chosen when the Accept header names it,
+     * so JSON clients, and clients sending a wildcard, see no change.
+     */
+    private static boolean acceptsCbor(String accept) {
+        return acceptsExactly(accept, MediaType.APPLICATION_CBOR);
+    }
+
+    private CachedBody cborBody(Object response) {
+        return CachedBody.of(cborMapper, response, MediaType.APPLICATION_CBOR);
+    }
+
+    // Like profileBody, a null profile is not cached
+    private CachedBody compactProfileBody(String tonic, Quality quality) {
+        return compactProfileBodies.get(quality).computeIfAbsent(tonic, key -> {
+            ScaleProfile profile = scaleService.getScaleProfile(key, quality);
+            return profile == null ? null : cborBody(new CompactScaleProfileResponse(profile));
+        });
+    }
+
+    private static Map<Quality, ConcurrentMap<String, CachedBody>> bodiesByQuality() {
+        Map<Quality, ConcurrentMap<String, CachedBody>> bodies = new EnumMap<>(Quality.class);
+        for (Quality quality : Quality.values()) {
+            bodies.put(quality, new ConcurrentHashMap<>());
+        }
+        return bodies;
     }
 }
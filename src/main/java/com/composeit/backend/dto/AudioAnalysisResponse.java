@@ -0,0 +1,31 @@
+package com.composeit.backend.dto;
+
+import java.util.List;
+
+import com.composeit.backend.scaleservice.models.ChordSpan;
+
+public class AudioAnalysisResponse {
+    private String key;
+    private List<ChordSpan> chords;
+
+    public AudioAnalysisResponse(String key, List<ChordSpan> chords) {
+        this.key = key;
+        this.chords = chords;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public List<ChordSpan> getChords() {
+        return chords;
+    }
+
+    public void setChords(List<ChordSpan> chords) {
+        this.chords = chords;
+    }
+}
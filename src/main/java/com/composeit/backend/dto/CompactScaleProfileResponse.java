@@ -0,0 +1,109 @@
+package com.composeit.backend.dto;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.composeit.backend.scaleservice.models.ScaleProfile;
+
+/**
+ * ScaleProfileResponse in the compact encoding. The tonic, semitones and interval notes are WireIds note ids,
+ * the quality a quality id and the related scales scale ids (null where the profile has none). Chord names
+ * and positions stay strings, and scaleDegrees is left out since it repeats semitones numbered from 1.
+ */
+public class CompactScaleProfileResponse {
+    private int tonic;
+    private Integer quality;
+    private int[] semitones;
+    private Map<String, String> chords;
+    private Map<String, Integer> intervals;
+    private Integer relativeScale;
+    private Integer parallelScale;
+    private List<List<String>> commonProgressions;
+    private String mode;
+
+    public CompactScaleProfileResponse(ScaleProfile profile) {
+        this.tonic = WireIds.noteId(profile.getTonic());
+        this.quality = WireIds.qualityId(profile.getQuality());
+        this.semitones = WireIds.noteIds(profile.getSemitones());
+        this.chords = profile.getChords();
+        this.intervals = new LinkedHashMap<>();
+        profile.getIntervals().forEach((name, note) -> intervals.put(name, WireIds.noteId(note)));
+        this.relativeScale = WireIds.scaleId(profile.getRelativeScale());
+        this.parallelScale = WireIds.scaleId(profile.getParallelScale());
+        this.commonProgressions = profile.getCommonProgressions();
+        this.mode = profile.getMode();
+    }
+
+    public int getTonic() {
+        return tonic;
+    }
+
+    public void setTonic(int tonic) {
+        this.tonic = tonic;
+    }
+
+    public Integer getQuality() {
+        return quality;
+    }
+
+    public void setQuality(Integer quality) {
+        this.quality = quality;
+    }
+
+    public int[] getSemitones() {
+        return semitones;
+    }
+
+    public void setSemitones(int[] semitones) {
+        this.semitones = semitones;
+    }
+
+    public Map<String, String> getChords() {
+        return chords;
+    }
+
+    public void setChords(Map<String, String> chords) {
+        this.chords = chords;
+    }
+
+    public Map<String, Integer> getIntervals() {
+        return intervals;
+    }
+
+    public void setIntervals(Map<String, Integer> intervals) {
+        this.intervals = intervals;
+    }
+
+    public Integer getRelativeScale() {
+        return relativeScale;
+    }
+
+    public void setRelativeScale(Integer relativeScale) {
+        this.relativeScale = relativeScale;
+    }
+
+    public Integer getParallelScale() {
+        return parallelScale;
+    }
+
+    public void setParallelScale(Integer parallelScale) {
+        this.parallelScale = parallelScale;
+    }
+
+    public List<List<String>> getCommonProgressions() {
+        return commonProgressions;
+    }
+
+    public void setCommonProgressions(List<List<String>> commonProgressions) {
+        this.commonProgressions = commonProgressions;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+}
@@ -0,0 +1,46 @@
+package com.composeit.backend.dto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * ScalesResponse in the compact encoding, with each scale as its WireIds scale id. User-defined scales
+ * have no id and are listed by name in customScales instead.
+ */
+public class CompactScalesResponse {
+    private int[] scales;
+    private List<String> customScales;
+
+    public CompactScalesResponse(List<String> scales) {
+        int[] ids = new int[scales.size()];
+        int count = 0;
+        List<String> custom = new ArrayList<>();
+        for (String scale : scales) {
+            Integer id = WireIds.scaleId(scale);
+            if (id != null) {
+                ids[count++] = id;
+            } else {
+                custom.add(scale);
+            }
+        }
+        this.scales = count == ids.length ? ids : Arrays.copyOf(ids, count);
+        this.customScales = custom;
+    }
+
+    public int[] getScales() {
+        return scales;
+    }
+
+    public void setScales(int[] scales) {
+        this.scales = scales;
+    }
+
+    public List<String> getCustomScales() {
+        return customScales;
+    }
+
+    public void setCustomScales(List<String> customScales) {
+        this.customScales = customScales;
+    }
+}
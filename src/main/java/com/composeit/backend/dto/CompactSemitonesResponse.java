@@ -0,0 +1,22 @@
+package com.composeit.backend.dto;
+
+import java.util.List;
+
+/**
+ * SemitonesResponse in the compact encoding, with each note as its WireIds note id.
+ */
+public class CompactSemitonesResponse {
+    private int[] semitones;
+
+    public CompactSemitonesResponse(List<String> semitones) {
+        this.semitones = WireIds.noteIds(semitones);
+    }
+
+    public int[] getSemitones() {
+        return semitones;
+    }
+
+    public void setSemitones(int[] semitones) {
+        this.semitones = semitones;
+    }
+}
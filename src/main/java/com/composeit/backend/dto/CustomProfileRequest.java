@@ -0,0 +1,32 @@
+package com.composeit.backend.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+
+public class CustomProfileRequest {
+    @NotEmpty(message = "Tonic must not be empty")
+    @Pattern(
+        regexp = "^(C|C#|Db|D|D#|Eb|E|F|F#|Gb|G|G#|Ab|A|A#|Bb|B)$",
+        message = "Tonic must be a valid note"
+    )
+    private String tonic;
+
+    @NotEmpty(message = "Scale must not be empty")
+    private String scale;
+
+    public String getTonic() {
+        return tonic;
+    }
+
+    public void setTonic(String tonic) {
+        this.tonic = tonic;
+    }
+
+    public String getScale() {
+        return scale;
+    }
+
+    public void setScale(String scale) {
+        this.scale = scale;
+    }
+}
@@ -0,0 +1,43 @@
+package com.composeit.backend.dto;
+
+import java.util.Map;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+
+public class FindKeyRequest {
+    // Total duration per note spelling, in any unit; spellings of one pitch class add up
+    @NotEmpty(message = "Durations must not be empty")
+    private Map<String, Double> durations;
+
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Max(value = 144, message = "Limit must be at most 144")
+    private int limit = 10;
+
+    private boolean advanced = false;
+
+    public Map<String, Double> getDurations() {
+        return durations;
+    }
+
+    public void setDurations(Map<String, Double> durations) {
+        this.durations = durations;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    public boolean isAdvanced() {
+        return advanced;
+    }
+
+    public void setAdvanced(boolean advanced) {
+        this.advanced = advanced;
+    }
+}
@@ -0,0 +1,21 @@
+package com.composeit.backend.dto;
+
+import java.util.List;
+
+import com.composeit.backend.scaleservice.models.IdentifiedChord;
+
+public class IdentifiedChordsResponse {
+    private List<IdentifiedChord> chords;
+
+    public IdentifiedChordsResponse(List<IdentifiedChord> chords) {
+        this.chords = chords;
+    }
+
+    public List<IdentifiedChord> getChords() {
+        return chords;
+    }
+
+    public void setChords(List<IdentifiedChord> chords) {
+        this.chords = chords;
+    }
+}
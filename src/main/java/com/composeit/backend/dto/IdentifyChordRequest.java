@@ -0,0 +1,31 @@
+package com.composeit.backend.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+public class IdentifyChordRequest {
+    @NotEmpty(message = "Notes must not be empty")
+    @Size(max = 128, message = "At most 128 notes can be identified at once")
+    private List<String> notes;
+
+    // The bass note; the first note is the bass if it is not given
+    private String bass;
+
+    public List<String> getNotes() {
+        return notes;
+    }
+
+    public void setNotes(List<String> notes) {
+        this.notes = notes;
+    }
+
+    public String getBass() {
+        return bass;
+    }
+
+    public void setBass(String bass) {
+        this.bass = bass;
+    }
+}
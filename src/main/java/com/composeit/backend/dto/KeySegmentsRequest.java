@@ -0,0 +1,42 @@
+package com.composeit.backend.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+
+public class KeySegmentsRequest {
+    @NotEmpty(message = "Chords must not be empty")
+    private List<String> chords;
+
+    @Min(value = 1, message = "Window size must be at least 1")
+    @Max(value = 64, message = "Window size must be at most 64")
+    private int windowSize = 4;
+
+    private boolean advanced = false;
+
+    public List<String> getChords() {
+        return chords;
+    }
+
+    public void setChords(List<String> chords) {
+        this.chords = chords;
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public void setWindowSize(int windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    public boolean isAdvanced() {
+        return advanced;
+    }
+
+    public void setAdvanced(boolean advanced) {
+        this.advanced = advanced;
+    }
+}
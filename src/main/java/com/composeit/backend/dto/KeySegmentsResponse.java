@@ -0,0 +1,21 @@
+package com.composeit.backend.dto;
+
+import java.util.List;
+
+import com.composeit.backend.scaleservice.models.KeySegment;
+
+public class KeySegmentsResponse {
+    private List<KeySegment> segments;
+
+    public KeySegmentsResponse(List<KeySegment> segments) {
+        this.segments = segments;
+    }
+
+    public List<KeySegment> getSegments() {
+        return segments;
+    }
+
+    public void setSegments(List<KeySegment> segments) {
+        this.segments = segments;
+    }
+}
@@ -0,0 +1,21 @@
+package com.composeit.backend.dto;
+
+import java.util.List;
+
+import com.composeit.backend.scaleservice.models.LocatedProgression;
+
+public class LocatedProgressionsResponse {
+    private List<LocatedProgression> keys;
+
+    public LocatedProgressionsResponse(List<LocatedProgression> keys) {
+        this.keys = keys;
+    }
+
+    public List<LocatedProgression> getKeys() {
+        return keys;
+    }
+
+    public void setKeys(List<LocatedProgression> keys) {
+        this.keys = keys;
+    }
+}
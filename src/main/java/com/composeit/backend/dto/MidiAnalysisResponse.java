@@ -0,0 +1,31 @@
+package com.composeit.backend.dto;
+
+import java.util.List;
+
+import com.composeit.backend.scaleservice.models.BarChord;
+
+public class MidiAnalysisResponse {
+    private String key;
+    private List<BarChord> bars;
+
+    public MidiAnalysisResponse(String key, List<BarChord> bars) {
+        this.key = key;
+        this.bars = bars;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public List<BarChord> getBars() {
+        return bars;
+    }
+
+    public void setBars(List<BarChord> bars) {
+        this.bars = bars;
+    }
+}
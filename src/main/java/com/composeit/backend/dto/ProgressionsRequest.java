@@ -0,0 +1,96 @@
+package com.composeit.backend.dto;
+
+import com.composeit.backend.scaleservice.models.ProgressionOrder;
+import com.composeit.backend.scaleservice.models.Quality;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+
+public class ProgressionsRequest {
+    @NotEmpty(message = "Tonic must not be empty")
+    @Pattern(
+        regexp = "^(C|C#|Db|D|D#|Eb|E|F|F#|Gb|G|G#|Ab|A|A#|Bb|B)$",
+        message = "Tonic must be a valid note"
+    )
+    private String tonic;
+
+    @NotNull(message = "Quality must not be null")
+    private Quality quality;
+
+    @Min(value = 1, message = "Length must be at least 1")
+    @Max(value = 12, message = "Length must be at most 12")
+    private int length = 4;
+
+    // Caps every order, including a streamed enumeration
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Max(value = 10000, message = "Limit must be at most 10000")
+    private int limit = 20;
+
+    @NotNull(message = "Order must not be null")
+    private ProgressionOrder order = ProgressionOrder.RANKED;
+
+    // Only return progressions ending in an authentic (V-I) or plagal (IV-I) cadence
+    private boolean cadence = false;
+
+    // Seed for SAMPLED, so the same request gives the same samples
+    private long seed = 0;
+
+    public String getTonic() {
+        return tonic;
+    }
+
+    public void setTonic(String tonic) {
+        this.tonic = tonic;
+    }
+
+    public Quality getQuality() {
+        return quality;
+    }
+
+    public void setQuality(Quality quality) {
+        this.quality = quality;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public void setLength(int length) {
+        this.length = length;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    public ProgressionOrder getOrder() {
+        return order;
+    }
+
+    public void setOrder(ProgressionOrder order) {
+        this.order = order;
+    }
+
+    public boolean isCadence() {
+        return cadence;
+    }
+
+    public void setCadence(boolean cadence) {
+        this.cadence = cadence;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+}
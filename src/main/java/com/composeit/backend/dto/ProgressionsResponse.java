@@ -0,0 +1,21 @@
+package com.composeit.backend.dto;
+
+import java.util.List;
+
+import com.composeit.backend.scaleservice.models.GeneratedProgression;
+
+public class ProgressionsResponse {
+    private List<GeneratedProgression> progressions;
+
+    public ProgressionsResponse(List<GeneratedProgression> progressions) {
+        this.progressions = progressions;
+    }
+
+    public List<GeneratedProgression> getProgressions() {
+        return progressions;
+    }
+
+    public void setProgressions(List<GeneratedProgression> progressions) {
+        this.progressions = progressions;
+    }
+}
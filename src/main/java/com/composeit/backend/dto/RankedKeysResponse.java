@@ -0,0 +1,21 @@
+package com.composeit.backend.dto;
+
+import java.util.List;
+
+import com.composeit.backend.scaleservice.models.RankedKey;
+
+public class RankedKeysResponse {
+    private List<RankedKey> keys;
+
+    public RankedKeysResponse(List<RankedKey> keys) {
+        this.keys = keys;
+    }
+
+    public List<RankedKey> getKeys() {
+        return keys;
+    }
+
+    public void setKeys(List<RankedKey> keys) {
+        this.keys = keys;
+    }
+}
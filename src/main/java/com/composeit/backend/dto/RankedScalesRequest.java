@@ -0,0 +1,54 @@
+package com.composeit.backend.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+
+public class RankedScalesRequest {
+    @NotEmpty(message = "Semitones must not be empty")
+    private List<String> semitones;
+
+    // Optional weight per note spelling; notes without one weigh 1.0
+    private Map<String, Double> weights;
+
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Max(value = 144, message = "Limit must be at most 144")
+    private int limit = 10;
+
+    private boolean advanced = false;
+
+    public List<String> getSemitones() {
+        return semitones;
+    }
+
+    public void setSemitones(List<String> semitones) {
+        this.semitones = semitones;
+    }
+
+    public Map<String, Double> getWeights() {
+        return weights;
+    }
+
+    public void setWeights(Map<String, Double> weights) {
+        this.weights = weights;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    public boolean isAdvanced() {
+        return advanced;
+    }
+
+    public void setAdvanced(boolean advanced) {
+        this.advanced = advanced;
+    }
+}
@@ -0,0 +1,21 @@
+package com.composeit.backend.dto;
+
+import java.util.List;
+
+import com.composeit.backend.scaleservice.models.RankedScale;
+
+public class RankedScalesResponse {
+    private List<RankedScale> scales;
+
+    public RankedScalesResponse(List<RankedScale> scales) {
+        this.scales = scales;
+    }
+
+    public List<RankedScale> getScales() {
+        return scales;
+    }
+
+    public void setScales(List<RankedScale> scales) {
+        this.scales = scales;
+    }
+}
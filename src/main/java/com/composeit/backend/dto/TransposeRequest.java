@@ -0,0 +1,50 @@
+package com.composeit.backend.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+
+public class TransposeRequest {
+    @NotEmpty(message = "Chords must not be empty")
+    private List<String> chords;
+
+    // Either an interval in semitones, or a target key like "Bb" or "F#m"
+    private Integer semitones;
+
+    private String key;
+
+    // The key the chords are in; defaults to the first chord
+    private String from;
+
+    public List<String> getChords() {
+        return chords;
+    }
+
+    public void setChords(List<String> chords) {
+        this.chords = chords;
+    }
+
+    public Integer getSemitones() {
+        return semitones;
+    }
+
+    public void setSemitones(Integer semitones) {
+        this.semitones = semitones;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public void setFrom(String from) {
+        this.from = from;
+    }
+}
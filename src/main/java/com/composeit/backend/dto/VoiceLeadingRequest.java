@@ -0,0 +1,59 @@
+package com.composeit.backend.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+public class VoiceLeadingRequest {
+    @NotEmpty(message = "Chords must not be empty")
+    @Size(max = 1000, message = "At most 1000 chords can be voiced at once")
+    private List<String> chords;
+
+    // Lowest and highest MIDI notes a voice may use; the defaults span C3 to G5
+    @Min(value = 0, message = "Low must be a MIDI note")
+    @Max(value = 127, message = "Low must be a MIDI note")
+    private int low = 48;
+
+    @Min(value = 0, message = "High must be a MIDI note")
+    @Max(value = 127, message = "High must be a MIDI note")
+    private int high = 79;
+
+    @Min(value = 3, message = "Voices must be at least 3")
+    @Max(value = 6, message = "Voices must be at most 6")
+    private int voices = 4;
+
+    public List<String> getChords() {
+        return chords;
+    }
+
+    public void setChords(List<String> chords) {
+        this.chords = chords;
+    }
+
+    public int getLow() {
+        return low;
+    }
+
+    public void setLow(int low) {
+        this.low = low;
+    }
+
+    public int getHigh() {
+        return high;
+    }
+
+    public void setHigh(int high) {
+        this.high = high;
+    }
+
+    public int getVoices() {
+        return voices;
+    }
+
+    public void setVoices(int voices) {
+        this.voices = voices;
+    }
+}
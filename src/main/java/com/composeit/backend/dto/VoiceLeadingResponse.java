@@ -0,0 +1,31 @@
+package com.composeit.backend.dto;
+
+import java.util.List;
+
+import com.composeit.backend.scaleservice.models.Voicing;
+
+public class VoiceLeadingResponse {
+    private List<Voicing> voicings;
+    private int movement;
+
+    public VoiceLeadingResponse(List<Voicing> voicings, int movement) {
+        this.voicings = voicings;
+        this.movement = movement;
+    }
+
+    public List<Voicing> getVoicings() {
+        return voicings;
+    }
+
+    public void setVoicings(List<Voicing> voicings) {
+        this.voicings = voicings;
+    }
+
+    public int getMovement() {
+        return movement;
+    }
+
+    public void setMovement(int movement) {
+        this.movement = movement;
+    }
+}
@@ -0,0 +1,59 @@
+package com.composeit.backend.dto;
+
+import java.util.List;
+
+import com.composeit.backend.scaleservice.models.Note;
+import com.composeit.backend.scaleservice.models.Quality;
+
+/**
+ * Small integer ids for notes, qualities and scales in the compact CBOR responses.
+ *
+ * A note's id is its Note ordinal, so every spelling keeps its own id ("C#" and "Db" differ); a quality's
+ * id is its Quality ordinal; a scale's id is {@code note id * QUALITY_COUNT + quality id}, spelled tonic
+ * first. The tables to decode them are served by GET /api/ids.
+ */
+public final class WireIds {
+    public static final int QUALITY_COUNT = Quality.values().length;
+
+    private WireIds() {
+    }
+
+    /**
+     * Returns the id of a note spelling, or -1 if it is not a note.
+     */
+    public static int noteId(String note) {
+        Note parsed = Note.fromName(note);
+        return parsed == null ? -1 : parsed.ordinal();
+    }
+
+    public static int[] noteIds(List<String> notes) {
+        int[] ids = new int[notes.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = noteId(notes.get(i));
+        }
+        return ids;
+    }
+
+    public static Integer qualityId(Quality quality) {
+        return quality == null ? null : quality.ordinal();
+    }
+
+    /**
+     * Returns the id of a scale name such as "Db MAJOR", or null if it is not a built-in quality on a known tonic.
+     */
+    public static Integer scaleId(String scale) {
+        if (scale == null) {
+            return null;
+        }
+        int separator = scale.indexOf(' ');
+        Note tonic = separator < 0 ? null : Note.fromName(scale.substring(0, separator));
+        if (tonic == null) {
+            return null;
+        }
+        try {
+            return tonic.ordinal() * QUALITY_COUNT + Quality.valueOf(scale.substring(separator + 1)).ordinal();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.composeit.backend.dto;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.composeit.backend.scaleservice.models.Note;
+import com.composeit.backend.scaleservice.models.Quality;
+
+/**
+ * The tables that decode WireIds: note names by note id and quality names by quality id.
+ */
+public class WireIdsResponse {
+    private List<String> notes;
+    private List<String> qualities;
+
+    public WireIdsResponse() {
+        this.notes = Arrays.stream(Note.values()).map(Note::getName).toList();
+        this.qualities = Arrays.stream(Quality.values()).map(Quality::name).toList();
+    }
+
+    public List<String> getNotes() {
+        return notes;
+    }
+
+    public void setNotes(List<String> notes) {
+        this.notes = notes;
+    }
+
+    public List<String> getQualities() {
+        return qualities;
+    }
+
+    public void setQualities(List<String> qualities) {
+        this.qualities = qualities;
+    }
+}
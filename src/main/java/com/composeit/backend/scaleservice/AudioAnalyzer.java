@@ -0,0 +1,383 @@
+package com.composeit.backend.scaleservice;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+import com.composeit.backend.scaleservice.models.AudioAnalysis;
+import com.composeit.backend.scaleservice.models.ChordSpan;
+import com.composeit.backend.scaleservice.models.Note;
+
+/**
+ * Reads PCM WAV audio straight from a ByteBuffer, typically a memory-mapped file, and computes its
+ * chromagram: the energy of each pitch class over time, summed into blocks of about half a second.
+ *
+ * Channels are mixed to mono as samples are read. Frames of FRAME_SECONDS (rounded down to a power
+ * of two samples) are centered every half frame; each is Hann-windowed and run through a radix-2
+ * FFT, and the magnitude of every bin between MIN_FREQUENCY and MAX_FREQUENCY is added to the pitch
+ * class nearest its frequency. Frames are split into chunks analyzed in parallel, each worker reusing its
+ * own preallocated arrays, so the FFT allocates nothing per frame. The window, twiddle factors and
+ * bin-to-pitch-class table are built once per file.
+ *
+ * analyze turns the chromagram into a key, the best fit of the whole recording from KeyFinder, and a
+ * timeline of chords, each block's best fit from ChordIdentifier spelled in the key.
+ */
+public final class AudioAnalyzer {
+    public static final double MIN_FREQUENCY = 60;
+    public static final double MAX_FREQUENCY = 2100;
+    public static final double FRAME_SECONDS = 0.25;
+    public static final double BLOCK_SECONDS = 0.5;
+    public static final int MIN_SAMPLE_RATE = 8000;
+    public static final int MAX_SAMPLE_RATE = 384000;
+    // Bounds the chroma buffer at about 100 MB: some 18 hours at 8 kHz, 26 at 44.1 kHz
+    public static final int MAX_FRAMES = 1_000_000;
+
+    private static final int RIFF_CHUNK = 0x46464952; // "RIFF", read little-endian
+    private static final int WAVE_FORM = 0x45564157;  // "WAVE"
+    private static final int FORMAT_CHUNK = 0x20746D66; // "fmt "
+    private static final int DATA_CHUNK = 0x61746164; // "data"
+    private static final int FORMAT_PCM = 1;
+    private static final int FORMAT_FLOAT = 3;
+    private static final int FORMAT_EXTENSIBLE = 0xFFFE;
+    private static final int FRAMES_PER_CHUNK = 64;
+    private static final int A4_MIDI = 69;
+    private static final double A4_FREQUENCY = 440;
+    // Blocks quieter than this share of the loudest block's energy are heard as silence
+    private static final double QUIET_BLOCK = 0.05;
+
+    private final ScalePatternCalculator patternCalculator;
+    private final KeyFinder keyFinder;
+
+    public AudioAnalyzer(ScalePatternCalculator patternCalculator, KeyFinder keyFinder) {
+        this.patternCalculator = patternCalculator;
+        this.keyFinder = keyFinder;
+    }
+
+    /**
+     * Returns the recording's key and its chords over time. Blocks with less than QUIET_BLOCK of the
+     * loudest block's energy get no chord, and neighboring blocks with the same chord join into one
+     * span; times are in seconds, rounded to the millisecond. A silent recording has no key and no chords.
+     *
+     * @throws IllegalArgumentException if the file cannot be read as a PCM WAV file
+     */
+    public AudioAnalysis analyze(ByteBuffer file, boolean advanced) {
+        Chromagram chromagram = chromagram(file);
+        double[][] blocks = chromagram.getBlocks();
+        double[] totals = new double[PitchClassSet.PITCH_CLASS_COUNT];
+        double[] energies = new double[blocks.length];
+        double loudest = 0;
+        for (int i = 0; i < blocks.length; i++) {
+            for (int pitchClass = 0; pitchClass < totals.length; pitchClass++) {
+                totals[pitchClass] += blocks[i][pitchClass];
+                energies[i] += blocks[i][pitchClass];
+            }
+            loudest = Math.max(loudest, energies[i]);
+        }
+        int[] keys = keyFinder.rank(totals, ScaleSet.rankedScales(advanced), 1, new double[ScaleSet.SCALE_COUNT]);
+        if (keys.length == 0) {
+            return new AudioAnalysis(null, List.of());
+        }
+
+        Note[] spellings = patternCalculator.getKeySpellings(Note.ofPitchClass(ScaleSet.tonicOf(keys[0])),
+                ScaleSet.qualityOf(keys[0]));
+        List<ChordSpan> spans = new ArrayList<>();
+        String chord = null;
+        int first = 0;
+        for (int i = 0; i <= blocks.length; i++) {
+            String next = i == blocks.length || energies[i] < QUIET_BLOCK * loudest ? null
+                    : ChordIdentifier.matchName(ChordIdentifier.bestMatch(blocks[i]), spellings);
+            if (i > 0 && (i == blocks.length || !Objects.equals(next, chord))) {
+                double end = Math.min(chromagram.getDuration(), i * chromagram.getBlockSeconds());
+                spans.add(new ChordSpan(milliseconds(first * chromagram.getBlockSeconds()), milliseconds(end), chord));
+                first = i;
+            }
+            chord = next;
+        }
+        return new AudioAnalysis(ScaleSet.name(keys[0]), spans);
+    }
+
+    /**
+     * Returns the chromagram of a PCM WAV file: 8, 16, 24 or 32-bit integer or 32-bit float samples,
+     * any number of channels, and a sample rate from MIN_SAMPLE_RATE to MAX_SAMPLE_RATE.
+     *
+     * @throws IllegalArgumentException if the file is not a WAV file in one of those formats, is
+     * truncated before its first sample, or runs past MAX_FRAMES frames
+     */
+    public static Chromagram chromagram(ByteBuffer file) {
+        Samples samples = Samples.read(file.duplicate().order(ByteOrder.LITTLE_ENDIAN));
+        int frameSize = Integer.highestOneBit(Math.max(2, (int) (samples.sampleRate * FRAME_SECONDS)));
+        int hop = frameSize / 2;
+        int frames = (int) (((long) samples.count + hop - 1) / hop);
+        if (frames > MAX_FRAMES) {
+            throw new IllegalArgumentException("WAV file is longer than " + MAX_FRAMES + " frames");
+        }
+        int framesPerBlock = Math.max(1, (int) Math.round(BLOCK_SECONDS * samples.sampleRate / hop));
+        double duration = (double) samples.count / samples.sampleRate;
+        if (frames == 0) {
+            return new Chromagram(new double[0][], (double) framesPerBlock * hop / samples.sampleRate, duration);
+        }
+
+        Spectrum spectrum = new Spectrum(frameSize, samples.sampleRate);
+        double[] chroma = new double[frames * PitchClassSet.PITCH_CLASS_COUNT];
+        int chunks = (frames + FRAMES_PER_CHUNK - 1) / FRAMES_PER_CHUNK;
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            double[] real = new double[frameSize];
+            double[] imaginary = new double[frameSize];
+            int end = Math.min(frames, (chunk + 1) * FRAMES_PER_CHUNK);
+            for (int frame = chunk * FRAMES_PER_CHUNK; frame < end; frame++) {
+                // Each frame is centered on its hop, so frame 0 covers the first half frame of audio
+                samples.frame(frame * hop - frameSize / 2, spectrum.window, real);
+                spectrum.chroma(real, imaginary, chroma, frame * PitchClassSet.PITCH_CLASS_COUNT);
+            }
+        });
+
+        double[][] blocks = new double[(frames + framesPerBlock - 1) / framesPerBlock][PitchClassSet.PITCH_CLASS_COUNT];
+        for (int frame = 0; frame < frames; frame++) {
+            double[] block = blocks[frame / framesPerBlock];
+            for (int pitchClass = 0; pitchClass < PitchClassSet.PITCH_CLASS_COUNT; pitchClass++) {
+                block[pitchClass] += chroma[frame * PitchClassSet.PITCH_CLASS_COUNT + pitchClass];
+            }
+        }
+        return new Chromagram(blocks, (double) framesPerBlock * hop / samples.sampleRate, duration);
+    }
+
+    private static double milliseconds(double seconds) {
+        return Math.round(seconds * 1000) / 1000.0;
+    }
+
+    /**
+     * Pitch-class energy per block, indexed by pitch class, with the length of a block and of the
+     * whole file in seconds. The last block may be cut short by the end of the file.
+     */
+    public static final class Chromagram {
+        private final double[][] blocks;
+        private final double blockSeconds;
+        private final double duration;
+
+        Chromagram(double[][] blocks, double blockSeconds, double duration) {
+            this.blocks = blocks;
+            this.blockSeconds = blockSeconds;
+            this.duration = duration;
+        }
+
+        public double[][] getBlocks() {
+            return blocks;
+        }
+
+        public double getBlockSeconds() {
+            return blockSeconds;
+        }
+
+        public double getDuration() {
+            return duration;
+        }
+    }
+
+    /**
+     * The sample data of a WAV file, read in place: where it starts, how samples are encoded, and how
+     * many sample frames (one sample per channel) it holds.
+     */
+    private static final class Samples {
+        private final ByteBuffer data;
+        private final int start;
+        private final int channels;
+        private final int bytesPerSample;
+        private final boolean floating;
+        private final int sampleRate;
+        private final int count;
+
+        private Samples(ByteBuffer data, int start, int channels, int bytesPerSample, boolean floating,
+                int sampleRate, int count) {
+            this.data = data;
+            this.start = start;
+            this.channels = channels;
+            this.bytesPerSample = bytesPerSample;
+            this.floating = floating;
+            this.sampleRate = sampleRate;
+            this.count = count;
+        }
+
+        static Samples read(ByteBuffer buffer) {
+            try {
+                if (buffer.remaining() < 12 || buffer.getInt() != RIFF_CHUNK) {
+                    throw new IllegalArgumentException("Not a WAV file");
+                }
+                buffer.getInt(); // RIFF size: often wrong in streamed recordings, so the chunks are trusted instead
+                if (buffer.getInt() != WAVE_FORM) {
+                    throw new IllegalArgumentException("Not a WAV file");
+                }
+
+                int format = -1;
+                int channels = 0;
+                int sampleRate = 0;
+                int bitsPerSample = 0;
+                while (buffer.remaining() >= 8) {
+                    int type = buffer.getInt();
+                    long length = buffer.getInt() & 0xFFFFFFFFL;
+                    int body = buffer.position();
+                    if (type == FORMAT_CHUNK) {
+                        if (length < 16 || length > buffer.remaining()) {
+                            throw new IllegalArgumentException("Invalid WAV format chunk");
+                        }
+                        format = buffer.getShort(body) & 0xFFFF;
+                        channels = buffer.getShort(body + 2) & 0xFFFF;
+                        sampleRate = buffer.getInt(body + 4);
+                        bitsPerSample = buffer.getShort(body + 14) & 0xFFFF;
+                        if (format == FORMAT_EXTENSIBLE && length >= 26) {
+                            // The sub-format GUID starts with the format code it extends
+                            format = buffer.getShort(body + 24) & 0xFFFF;
+                        }
+                    } else if (type == DATA_CHUNK) {
+                        if (format < 0) {
+                            throw new IllegalArgumentException("WAV data before its format chunk");
+                        }
+                        // A recording stopped early can leave the data length past the end; read what is there
+                        int size = (int) Math.min(length, buffer.remaining());
+                        return create(buffer, body, size, format, channels, sampleRate, bitsPerSample);
+                    }
+                    // Chunks are padded to an even length
+                    buffer.position(body + (int) Math.min(buffer.remaining(), length + (length & 1)));
+                }
+            } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Truncated WAV file", e);
+            }
+            throw new IllegalArgumentException("WAV file has no data chunk");
+        }
+
+        private static Samples create(ByteBuffer buffer, int start, int size, int format, int channels,
+                int sampleRate, int bitsPerSample) {
+            boolean floating = format == FORMAT_FLOAT;
+            if (format != FORMAT_PCM && !(floating && bitsPerSample == 32)) {
+                throw new IllegalArgumentException("Only PCM and 32-bit float WAV files are supported");
+            }
+            if (bitsPerSample != 8 && bitsPerSample != 16 && bitsPerSample != 24 && bitsPerSample != 32) {
+                throw new IllegalArgumentException("Unsupported WAV sample size: " + bitsPerSample + " bits");
+            }
+            if (channels < 1) {
+                throw new IllegalArgumentException("Invalid WAV format chunk");
+            }
+            // The frame size and every FFT table scale with the rate, so an absurd header must not reach them
+            if (sampleRate < MIN_SAMPLE_RATE || sampleRate > MAX_SAMPLE_RATE) {
+                throw new IllegalArgumentException("Unsupported WAV sample rate: " + sampleRate + " Hz");
+            }
+            int bytesPerSample = bitsPerSample / 8;
+            return new Samples(buffer, start, channels, bytesPerSample, floating, sampleRate,
+                    size / (channels * bytesPerSample));
+        }
+
+        /**
+         * Fills frame with the windowed mono samples from index first on, which may be negative;
+         * samples before the start or past the end are zero. Reads are absolute, so workers can share
+         * the buffer.
+         */
+        void frame(int first, double[] window, double[] frame) {
+            int from = Math.max(0, -first);
+            int to = Math.max(from, Math.min(frame.length, count - first));
+            int frameBytes = channels * bytesPerSample;
+            Arrays.fill(frame, 0, from, 0);
+            for (int i = from; i < to; i++) {
+                int offset = start + (first + i) * frameBytes;
+                double sum = 0;
+                for (int channel = 0; channel < channels; channel++) {
+                    sum += sample(offset + channel * bytesPerSample);
+                }
+                frame[i] = sum / channels * window[i];
+            }
+            Arrays.fill(frame, to, frame.length, 0);
+        }
+
+        // One sample scaled to [-1, 1)
+        private double sample(int offset) {
+            return switch (bytesPerSample) {
+                case 1 -> ((data.get(offset) & 0xFF) - 128) / 128.0;
+                case 2 -> data.getShort(offset) / 32768.0;
+                case 3 -> ((data.get(offset) & 0xFF) | (data.get(offset + 1) & 0xFF) << 8 | data.get(offset + 2) << 16)
+                        / 8388608.0;
+                default -> floating ? data.getFloat(offset) : data.getInt(offset) / 2147483648.0;
+            };
+        }
+    }
+
+    /**
+     * The tables for one frame size and sample rate: the Hann window, the FFT's bit-reversal
+     * permutation and twiddle factors, and the pitch class of each bin (-1 for bins out of range).
+     */
+    private static final class Spectrum {
+        private final double[] window;
+        private final int[] reversed;
+        private final double[] cos;
+        private final double[] sin;
+        private final int[] pitchClasses;
+        private final int firstBin;
+        private final int lastBin;
+
+        Spectrum(int size, int sampleRate) {
+            window = new double[size];
+            for (int i = 0; i < size; i++) {
+                window[i] = 0.5 - 0.5 * Math.cos(2 * Math.PI * i / size);
+            }
+            reversed = new int[size];
+            int bits = Integer.numberOfTrailingZeros(size);
+            for (int i = 0; i < size; i++) {
+                reversed[i] = Integer.reverse(i) >>> (Integer.SIZE - bits);
+            }
+            cos = new double[size / 2];
+            sin = new double[size / 2];
+            for (int i = 0; i < size / 2; i++) {
+                cos[i] = Math.cos(2 * Math.PI * i / size);
+                sin[i] = -Math.sin(2 * Math.PI * i / size);
+            }
+
+            double binWidth = (double) sampleRate / size;
+            firstBin = Math.max(1, (int) Math.ceil(MIN_FREQUENCY / binWidth));
+            lastBin = Math.min(size / 2 - 1, (int) Math.floor(MAX_FREQUENCY / binWidth));
+            pitchClasses = new int[size / 2];
+            for (int bin = firstBin; bin <= lastBin; bin++) {
+                long midi = Math.round(A4_MIDI + PitchClassSet.PITCH_CLASS_COUNT * Math.log(bin * binWidth / A4_FREQUENCY) / Math.log(2));
+                pitchClasses[bin] = Math.floorMod(midi, PitchClassSet.PITCH_CLASS_COUNT);
+            }
+        }
+
+        /**
+         * Transforms the windowed frame in real (imaginary is overwritten) and adds the magnitude of
+         * each bin in range to its pitch class in chroma, from offset on.
+         */
+        void chroma(double[] real, double[] imaginary, double[] chroma, int offset) {
+            int size = real.length;
+            for (int i = 0; i < size; i++) {
+                int j = reversed[i];
+                if (j > i) {
+                    double swap = real[i];
+                    real[i] = real[j];
+                    real[j] = swap;
+                }
+                imaginary[i] = 0;
+            }
+            for (int half = 1; half < size; half <<= 1) {
+                int step = size / (2 * half);
+                for (int group = 0; group < size; group += 2 * half) {
+                    for (int k = 0; k < half; k++) {
+                        double wr = cos[k * step];
+                        double wi = sin[k * step];
+                        int even = group + k;
+                        int odd = even + half;
+                        double tr = real[odd] * wr - imaginary[odd] * wi;
+                        double ti = real[odd] * wi + imaginary[odd] * wr;
+                        real[odd] = real[even] - tr;
+                        imaginary[odd] = imaginary[even] - ti;
+                        real[even] += tr;
+                        imaginary[even] += ti;
+                    }
+                }
+            }
+            for (int bin = firstBin; bin <= lastBin; bin++) {
+                chroma[offset + pitchClasses[bin]] += Math.sqrt(real[bin] * real[bin] + imaginary[bin] * imaginary[bin]);
+            }
+        }
+    }
+}
@@ -1,78 +1,214 @@
 package com.composeit.backend.scaleservice;
 
 import static com.composeit.backend.common.Constants.*;
+import com.composeit.backend.scaleservice.models.Chord;
+import com.composeit.backend.scaleservice.models.ChordType;
+import com.composeit.backend.scaleservice.models.Note;
 import com.composeit.backend.scaleservice.models.Quality;
+
+import io.micrometer.core.instrument.Timer;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.Collections;
-import java.util.AbstractMap;
-import java.util.regex.Pattern;
-import java.util.regex.Matcher;
 
 public class ChordCalculator {
+    private static final int CHORD_TYPE_COUNT = ChordType.values().length;
+
     private final ScalePatternCalculator patternCalculator;
 
     /**
-     * Regular expression pattern for parsing chord symbols. The pattern matches:
-     * 
-     * ^                     - Start of string
-     * (                     - Start capturing group 1 (root note)
-     *   [A-G]              - Base note (A through G)
-     *   [#b]?              - Optional accidental (sharp or flat)
-     * )                     - End capturing group 1
-     * (                     - Start capturing group 2 (quality symbol)
-     *   [mM°]?             - Optional quality:
-     *                         m = minor
-     *                         M = major (explicit)
-     *                         ° = diminished
-     * )                     - End capturing group 2
-     * (?:maj|min|dim)?     - Optional long-form quality
-     * \d*                   - Optional extension number (e.g., 7 for maj7)
-     * (?:/[A-G][#b]?)?     - Optional slash chord (e.g., /C)
-     * $                     - End of string
-     * 
-     * Examples of valid chords:
-     * - "C"      → C major
-     * - "Am"     → A minor
-     * - "F#m"    → F# minor
-     * - "Gb"     → Gb major
-     * - "B°"     → B diminished
-     * - "Am/C"   → A minor with C bass
-     * - "Cmaj7"  → C major seventh
-     * - "Dm7"    → D minor seventh
+     * Scales whose diatonic chords include a given chord, indexed by chordIndex(root pitch class, chord quality).
+     * Each entry is a ScaleSet; resolving a chord list is an AND of one entry per chord.
+     */
+    private final long[][] scalesByChord;
+
+    /**
+     * Scales that hold a chord of any type, indexed by chordTypeIndex(chord code): root pitch class * type count + type.
+     * Built from scalesByChord and the scale masks, so a chord search still reads one entry per chord.
      */
-    private static final Pattern CHORD_PATTERN = Pattern.compile("^([A-G][#b]?)([mM°])?(?:maj|min|dim)?\\d*(?:/[A-G][#b]?)?$");
+    private final long[][] scalesByChordType;
+
+    // The melodic minor has no chord pattern or positions in Constants, so both are stacked from its mask
+    private final Quality[] melodicMinorChordPattern;
+
+    // Roman numeral of each diatonic chord, indexed by quality ordinal; empty for the diminished scale
+    private final List<List<String>> numerals = new ArrayList<>();
+
+    private final Timer chordsFromScaleTimer;
+    private final Timer scaleChordsTimer;
+    private final Timer createChordsMapTimer;
 
     public ChordCalculator(ScalePatternCalculator patternCalculator) {
+        this(patternCalculator, ScaleMetrics.NOOP);
+    }
+
+    public ChordCalculator(ScalePatternCalculator patternCalculator, ScaleMetrics metrics) {
         this.patternCalculator = patternCalculator;
+        this.melodicMinorChordPattern = stackThirds(patternCalculator.getScaleMask(0, Quality.MELODIC_MINOR));
+        this.scalesByChord = buildScalesByChord();
+        int[] masks = new int[ScaleSet.SCALE_COUNT];
+        for (Quality quality : Quality.values()) {
+            // Left empty for the diminished scale, which has no diatonic chords to extend
+            if (quality != Quality.DIMINISHED) {
+                for (int tonic = 0; tonic < PitchClassSet.PITCH_CLASS_COUNT; tonic++) {
+                    masks[ScaleSet.id(tonic, quality)] = patternCalculator.getScaleMask(tonic, quality);
+                }
+            }
+        }
+        this.scalesByChordType = buildScalesByChordType(scalesByChord, masks);
+        for (Quality quality : Quality.values()) {
+            numerals.add(switch (quality) {
+                // The modes share the minor positions, so theirs are stacked from their own mask like the melodic minor's
+                case MELODIC_MINOR, DORIAN, PHRYGIAN, LYDIAN, MIXOLYDIAN, LOCRIAN ->
+                        stackedNumerals(patternCalculator.getScaleMask(0, quality));
+                case DIMINISHED -> List.of();
+                default -> getPositions(quality);
+            });
+        }
+        this.chordsFromScaleTimer = metrics.timer(ChordCalculator.class, "getChordsFromScale");
+        this.scaleChordsTimer = metrics.timer(ChordCalculator.class, "getScaleChords");
+        this.createChordsMapTimer = metrics.timer(ChordCalculator.class, "createChordsMap");
     }
 
     public List<String> getChordsFromScale(String tonic, Quality quality) {
+        long start = System.nanoTime();
+        List<String> chords = chordsFromScale(tonic, quality);
+        ScaleMetrics.recordSince(chordsFromScaleTimer, start);
+        return chords;
+    }
+
+    // Untimed, for callers that time themselves or run at startup
+    List<String> chordsFromScale(String tonic, Quality quality) {
         if (tonic == null || quality == null) {
             return Collections.emptyList();
         }
 
-        List<String> semitones = patternCalculator.getSemitonesFromScale(tonic, quality);
-        if (semitones.isEmpty()) {
+        Note tonicNote = Note.fromName(tonic);
+        if (tonicNote == null) {
             return Collections.emptyList();
         }
 
+        List<Chord> chords = scaleChords(tonicNote, quality);
+        List<String> names = new ArrayList<>(chords.size());
+        for (Chord chord : chords) {
+            names.add(chord.getName());
+        }
+        return names;
+    }
+
+    /**
+     * Returns the diatonic triad built on each degree of the given scale, spelled like the scale.
+     */
+    public List<Chord> getScaleChords(Note tonic, Quality quality) {
+        long start = System.nanoTime();
+        List<Chord> chords = scaleChords(tonic, quality);
+        ScaleMetrics.recordSince(scaleChordsTimer, start);
+        return chords;
+    }
+
+    private List<Chord> scaleChords(Note tonic, Quality quality) {
+        List<Note> notes = patternCalculator.getScaleNotes(tonic, quality);
         Quality[] chordPattern = getChordPattern(quality);
-        
-        List<String> chords = new ArrayList<>();
-        for (int i = 0; i < semitones.size(); i++) {
-            String note = semitones.get(i);
-            Quality chordQuality = chordPattern[i];
-            String chord = note + (chordQuality == Quality.MAJOR ? "" : 
-                                 chordQuality == Quality.MINOR ? "m" : "°");
-            chords.add(chord);
+
+        List<Chord> chords = new ArrayList<>(notes.size());
+        for (int i = 0; i < notes.size(); i++) {
+            chords.add(Chord.of(notes.get(i), chordPattern[i]));
         }
         return chords;
     }
 
-    private Quality[] getChordPattern(Quality quality) {
+    /**
+     * Removes every scale from the candidate ScaleSet that does not hold the chord, given as a ChordCode.
+     * The chord's triad must be among the scale's diatonic chords and its other tones in the scale.
+     * Runs once per chord of a search, so it is left to the caller to time.
+     */
+    public void retainScalesWithChord(long[] candidates, int chordCode) {
+        ScaleSet.retainAll(candidates, scalesByChordType[chordTypeIndex(chordCode)]);
+    }
+
+    /**
+     * Returns the ScaleSet of scales that hold the chord, given as a ChordCode.
+     * The set is shared, so callers must not modify it.
+     */
+    public long[] scalesWithChord(int chordCode) {
+        return scalesByChordType[chordTypeIndex(chordCode)];
+    }
+
+    /**
+     * Builds the scales holding each (root, chord type) from the scales holding each diatonic triad and a
+     * pitch-class mask per scale id. A plain triad keeps the scales with it among their diatonic chords, as
+     * it always has. Any other chord starts from those scales for its triad, or from every scale if it has
+     * none (sus, augmented), and keeps only the ones containing all of its tones, the triad's included.
+     */
+    static long[][] buildScalesByChordType(long[][] scalesByChord, int[] masks) {
+        long[][] index = new long[PitchClassSet.PITCH_CLASS_COUNT * CHORD_TYPE_COUNT][];
+        for (int root = 0; root < PitchClassSet.PITCH_CLASS_COUNT; root++) {
+            for (ChordType type : ChordType.values()) {
+                int tones = PitchClassSet.transpose(type.getIntervals(), root);
+                Quality triad = type.getTriad();
+                long[] scales;
+                if (triad != null) {
+                    scales = scalesByChord[chordIndex(root, triad)].clone();
+                } else {
+                    scales = ScaleSet.empty(masks.length);
+                    for (int id = 0; id < masks.length; id++) {
+                        ScaleSet.add(scales, id);
+                    }
+                }
+                if (triad != null && type.getExtension() == 0) {
+                    index[root * CHORD_TYPE_COUNT + type.ordinal()] = scales;
+                    continue;
+                }
+                for (int id = ScaleSet.nextScale(scales, 0); id >= 0; id = ScaleSet.nextScale(scales, id + 1)) {
+                    if (!PitchClassSet.isSubset(tones, masks[id])) {
+                        ScaleSet.remove(scales, id);
+                    }
+                }
+                index[root * CHORD_TYPE_COUNT + type.ordinal()] = scales;
+            }
+        }
+        return index;
+    }
+
+    static int chordTypeIndex(int chordCode) {
+        return ChordCode.rootPitchClass(chordCode) * CHORD_TYPE_COUNT + ChordCode.type(chordCode).ordinal();
+    }
+
+    private long[][] buildScalesByChord() {
+        long[][] index = new long[PitchClassSet.PITCH_CLASS_COUNT * ScaleSet.QUALITY_COUNT][];
+        for (int i = 0; i < index.length; i++) {
+            index[i] = ScaleSet.empty();
+        }
+
+        for (Quality quality : Quality.values()) {
+            // The 8-note diminished scale has no diatonic chord pattern
+            if (quality == Quality.DIMINISHED) {
+                continue;
+            }
+
+            Quality[] chordPattern = getChordPattern(quality);
+            for (int tonic = 0; tonic < PitchClassSet.PITCH_CLASS_COUNT; tonic++) {
+                int mask = patternCalculator.getScaleMask(tonic, quality);
+                int degree = 0;
+                for (int i = 0; i < PitchClassSet.PITCH_CLASS_COUNT; i++) {
+                    int root = (tonic + i) % PitchClassSet.PITCH_CLASS_COUNT;
+                    if (PitchClassSet.contains(mask, root)) {
+                        ScaleSet.add(index[chordIndex(root, chordPattern[degree++])], ScaleSet.id(tonic, quality));
+                    }
+                }
+            }
+        }
+        return index;
+    }
+
+    private static int chordIndex(int rootPitchClass, Quality chordQuality) {
+        return rootPitchClass * ScaleSet.QUALITY_COUNT + chordQuality.ordinal();
+    }
+
+    Quality[] getChordPattern(Quality quality) {
         return switch (quality) {
             case MAJOR -> MAJOR_CHORD_PATTERN;
             case MINOR -> MINOR_CHORD_PATTERN;
@@ -84,11 +220,71 @@ public class ChordCalculator {
             case LOCRIAN -> LOCRIAN_CHORD_PATTERN;
             case PENTATONIC_MAJOR -> PENTATONIC_MAJOR_CHORD_PATTERN;
             case PENTATONIC_MINOR -> PENTATONIC_MINOR_CHORD_PATTERN;
+            case MELODIC_MINOR -> melodicMinorChordPattern;
             default -> MINOR_CHORD_PATTERN;
         };
     }
 
+    /**
+     * Returns the quality of the triad stacked in thirds on each degree of a seven-note scale, given as a
+     * pitch-class mask on C. An augmented triad counts as major, like the III+ of HARMONIC_MINOR_CHORD_PATTERN.
+     */
+    static Quality[] stackThirds(int mask) {
+        int[] intervals = degreeIntervals(mask);
+        Quality[] chordPattern = new Quality[intervals.length];
+        for (int degree = 0; degree < intervals.length; degree++) {
+            int third = stackedInterval(intervals, degree, 2);
+            int fifth = stackedInterval(intervals, degree, 4);
+            if (third == 3) {
+                chordPattern[degree] = fifth == 6 ? Quality.DIMINISHED : Quality.MINOR;
+            } else {
+                chordPattern[degree] = Quality.MAJOR;
+            }
+        }
+        return chordPattern;
+    }
+
+    /**
+     * Returns the roman numeral of each degree's stacked triad, as in the position notation in Constants:
+     * upper case for major, lower case for minor, with ° for diminished and + for augmented.
+     */
+    static List<String> stackedNumerals(int mask) {
+        int[] intervals = degreeIntervals(mask);
+        Quality[] chordPattern = stackThirds(mask);
+        List<String> positions = new ArrayList<>(intervals.length);
+        for (int degree = 0; degree < intervals.length; degree++) {
+            String position = CustomScaleCalculator.position(degree, chordPattern[degree]);
+            positions.add(stackedInterval(intervals, degree, 4) == 8 ? position + "+" : position);
+        }
+        return List.copyOf(positions);
+    }
+
+    // Semitones above the tonic of each degree of a mask on C
+    private static int[] degreeIntervals(int mask) {
+        int[] intervals = new int[PitchClassSet.size(mask)];
+        int degree = 0;
+        for (int pitchClass = 0; pitchClass < PitchClassSet.PITCH_CLASS_COUNT; pitchClass++) {
+            if (PitchClassSet.contains(mask, pitchClass)) {
+                intervals[degree++] = pitchClass;
+            }
+        }
+        return intervals;
+    }
+
+    // Semitones from a degree up to the degree the given number of steps above it, wrapping at the octave
+    private static int stackedInterval(int[] intervals, int degree, int steps) {
+        return Math.floorMod(intervals[(degree + steps) % intervals.length] - intervals[degree],
+                PitchClassSet.PITCH_CLASS_COUNT);
+    }
+
     public Map<String, String> createChordsMap(List<String> chords, Quality quality) {
+        long start = System.nanoTime();
+        Map<String, String> chordsMap = buildChordsMap(chords, quality);
+        ScaleMetrics.recordSince(createChordsMapTimer, start);
+        return chordsMap;
+    }
+
+    Map<String, String> buildChordsMap(List<String> chords, Quality quality) {
         if (chords == null || chords.isEmpty() || quality == null) {
             return Collections.emptyMap();
         }
@@ -102,51 +298,38 @@ public class ChordCalculator {
         return chordsMap;
     }
 
-    private List<String> getPositions(Quality quality) {
+    List<String> getPositions(Quality quality) {
         return switch (quality) {
             case MAJOR -> MAJOR_POSITIONS;
             case MINOR -> MINOR_POSITIONS;
             case HARMONIC_MINOR -> HARMONIC_POSITIONS;
             case PENTATONIC_MAJOR -> PENT_MAJOR_POSITIONS;
             case PENTATONIC_MINOR -> PENT_MINOR_POSITIONS;
-            case MELODIC_MINOR, DORIAN, PHRYGIAN, LYDIAN, MIXOLYDIAN, LOCRIAN -> MINOR_POSITIONS;
+            case MELODIC_MINOR -> numerals.get(quality.ordinal());
+            case DORIAN, PHRYGIAN, LYDIAN, MIXOLYDIAN, LOCRIAN -> MINOR_POSITIONS;
             case DIMINISHED -> MAJOR_POSITIONS;
         };
     }
 
-    public Map.Entry<String, Quality> parseChord(String chord) {
-        if (chord == null || chord.isEmpty()) {
-            return null;
-        }
-
-        Matcher matcher = CHORD_PATTERN.matcher(chord);
-        if (!matcher.matches()) {
-            System.out.println("DEBUG: Pattern did not match for chord: " + chord);
-            return null;
-        }
-
-        String root = matcher.group(1);
-        String quality = matcher.group(2);
-
-        // Handle slash chords by taking the root note only
-        if (root.contains("/")) {
-            root = root.split("/")[0];
-        }
-
-        Quality chordQuality = determineQuality(quality);
-        return new AbstractMap.SimpleEntry<>(root, chordQuality);
+    /**
+     * Returns the roman numeral of each of the quality's diatonic chords, in the order of getChordsFromScale.
+     * Unlike getPositions, which keys the profile chord maps, the modes get their own numerals: D DORIAN
+     * reads i ii III IV v vi° VII.
+     */
+    List<String> getNumerals(Quality quality) {
+        return numerals.get(quality.ordinal());
     }
 
-    private Quality determineQuality(String quality) {
-        if (quality == null || quality.isEmpty() || quality.equals("M")) {
-            return Quality.MAJOR;
-        }
-        if (quality.equals("m")) {
-            return Quality.MINOR;
-        }
-        if (quality.equals("°")) {
-            return Quality.DIMINISHED;
+    /**
+     * Parses a chord symbol into its root (as spelled) and triad quality, or returns null if it is not a valid
+     * chord or has no triad (e.g. sus4).
+     * See ChordCode for the accepted forms; hot paths should use ChordCode.parse directly to avoid the entry.
+     */
+    public Map.Entry<String, Quality> parseChord(String chord) {
+        int code = ChordCode.parse(chord);
+        if (!ChordCode.isValid(code) || ChordCode.quality(code) == null) {
+            return null;
         }
-        return Quality.MAJOR; // Default to major if unspecified
+        return Map.entry(ChordCode.rootName(code), ChordCode.quality(code));
     }
 } 
\ No newline at end of file
@@ -0,0 +1,302 @@
+package com.composeit.backend.scaleservice;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.composeit.backend.scaleservice.models.Chord;
+import com.composeit.backend.scaleservice.models.ChordType;
+import com.composeit.backend.scaleservice.models.Note;
+import com.composeit.backend.scaleservice.models.Quality;
+
+/**
+ * Chord symbols parsed into a packed {@code int}, so chord lists can be processed without
+ * allocating per chord.
+ *
+ * Grammar (one pass, no backtracking):
+ *
+ * root        [A-G][#b]?          - Base note with optional accidental
+ * suffix      [^/]*               - A chord type suffix from ChordType (e.g., m, maj7, 7b9, sus4), or none for major
+ * bass        (/[A-G][#b]?)?      - Optional slash bass note (e.g., /C)
+ *
+ * A suffix that is not a ChordType suffix is still accepted in the looser form chord symbols had before
+ * chord types, and read as the plain triad it names:
+ *
+ * quality     [mM°]?              - Optional short quality: m = minor, M = major, ° = diminished
+ * long form   (maj|min|dim)?      - Optional long-form quality, used when no short symbol is given
+ * extension   \d*                 - Any number, whatever tone it names
+ *
+ * So "C4", "Cm2" and "Cmaj69" are C major, C minor and C major, and "Cdim9" is C diminished.
+ *
+ * Examples of valid chords:
+ * - "C"      → C major
+ * - "Am"     → A minor
+ * - "F#m"    → F# minor
+ * - "Gb"     → Gb major
+ * - "B°"     → B diminished
+ * - "Bdim"   → B diminished
+ * - "Am/C"   → A minor with C bass
+ * - "Cmaj7"  → C major seventh
+ * - "Dm7"    → D minor seventh
+ * - "Gsus4"  → G suspended fourth
+ * - "E7#9"   → E dominant seventh sharp nine
+ * - "Cm2"    → C minor, by the looser form
+ *
+ * The suffix is looked up among the suffixes of the same length only, so parsing costs the same
+ * however many chord types there are.
+ *
+ * Layout of a valid code (always non-negative):
+ *
+ * bits  0-3   root pitch class (0-11)
+ * bits  4-11  chord type ordinal
+ * bits 16-20  root spelling, as a Note ordinal
+ * bits 21-25  bass spelling ordinal + 1, 0 if there is no slash bass
+ *
+ * A failed parse returns one of the negative result codes below instead.
+ */
+public final class ChordCode {
+    public static final int EMPTY = -1;            // null or empty input
+    public static final int INVALID_ROOT = -2;     // does not start with [A-G][#b]?
+    public static final int INVALID_SUFFIX = -3;   // the text after the root is not a chord type suffix
+    public static final int INVALID_BASS = -4;     // slash not followed by [A-G][#b]?
+
+    private static final ChordType[] TYPES = ChordType.values();
+    private static final Note[] NOTES = Note.values();
+    private static final char DIMINISHED_SYMBOL = '°';
+
+    // Every suffix and its type, indexed by suffix length
+    private static final String[][] SUFFIXES;
+    private static final ChordType[][] SUFFIX_TYPES;
+    static {
+        int longest = 0;
+        for (ChordType type : TYPES) {
+            for (String symbol : type.getSymbols()) {
+                longest = Math.max(longest, symbol.length());
+            }
+        }
+        List<List<String>> suffixes = new ArrayList<>();
+        List<List<ChordType>> suffixTypes = new ArrayList<>();
+        for (int length = 0; length <= longest; length++) {
+            suffixes.add(new ArrayList<>());
+            suffixTypes.add(new ArrayList<>());
+        }
+        for (ChordType type : TYPES) {
+            for (String symbol : type.getSymbols()) {
+                suffixes.get(symbol.length()).add(symbol);
+                suffixTypes.get(symbol.length()).add(type);
+            }
+        }
+        SUFFIXES = new String[longest + 1][];
+        SUFFIX_TYPES = new ChordType[longest + 1][];
+        for (int length = 0; length <= longest; length++) {
+            SUFFIXES[length] = suffixes.get(length).toArray(new String[0]);
+            SUFFIX_TYPES[length] = suffixTypes.get(length).toArray(new ChordType[0]);
+        }
+    }
+
+    private ChordCode() {
+    }
+
+    public static int parse(CharSequence chord) {
+        if (chord == null || chord.length() == 0) {
+            return EMPTY;
+        }
+
+        int length = chord.length();
+        int root = parseSpelling(chord, 0);
+        if (root < 0) {
+            return INVALID_ROOT;
+        }
+        int i = NOTES[root].getName().length();
+
+        int suffixEnd = i;
+        while (suffixEnd < length && chord.charAt(suffixEnd) != '/') {
+            suffixEnd++;
+        }
+        ChordType type = suffixType(chord, i, suffixEnd);
+        if (type == null) {
+            type = looseTriad(chord, i, suffixEnd);
+        }
+        if (type == null) {
+            return INVALID_SUFFIX;
+        }
+        i = suffixEnd;
+
+        int bass = -1;
+        if (i < length) {
+            bass = parseSpelling(chord, i + 1);
+            if (bass < 0) {
+                return INVALID_BASS;
+            }
+            i += NOTES[bass].getName().length() + 1;
+            if (i != length) {
+                return INVALID_BASS;
+            }
+        }
+
+        return NOTES[root].getPitchClass()
+                | type.ordinal() << 4
+                | root << 16
+                | (bass + 1) << 21;
+    }
+
+    public static boolean isValid(int code) {
+        return code >= 0;
+    }
+
+    public static int rootPitchClass(int code) {
+        return code & 0xF;
+    }
+
+    public static ChordType type(int code) {
+        return TYPES[(code >>> 4) & 0xFF];
+    }
+
+    /**
+     * Returns the triad the chord is built on, or null for a chord type without one (e.g. sus4).
+     */
+    public static Quality quality(int code) {
+        return type(code).getTriad();
+    }
+
+    public static int extension(int code) {
+        return type(code).getExtension();
+    }
+
+    /**
+     * Returns the chord's tones as a pitch-class mask, leaving out a slash bass.
+     */
+    public static int pitchClasses(int code) {
+        return PitchClassSet.transpose(type(code).getIntervals(), rootPitchClass(code));
+    }
+
+    /**
+     * Returns the root as it was spelled in the chord symbol (e.g. Bb rather than A#).
+     */
+    public static Note root(int code) {
+        return NOTES[(code >>> 16) & 0x1F];
+    }
+
+    public static String rootName(int code) {
+        return root(code).getName();
+    }
+
+    /**
+     * Returns the interned triad for the chord's root and quality, ignoring extension and bass.
+     *
+     * @throws IllegalArgumentException if the chord type has no triad
+     */
+    public static Chord chord(int code) {
+        return Chord.of(root(code), quality(code));
+    }
+
+    public static boolean hasBass(int code) {
+        return ((code >>> 21) & 0x1F) != 0;
+    }
+
+    public static Note bass(int code) {
+        return NOTES[((code >>> 21) & 0x1F) - 1];
+    }
+
+    public static int bassPitchClass(int code) {
+        return bass(code).getPitchClass();
+    }
+
+    public static String bassName(int code) {
+        return bass(code).getName();
+    }
+
+    /**
+     * Parses [A-G][#b]? at the given position into a Note ordinal, or returns -1.
+     * Note lists each letter as natural, sharp, flat, in the order C D E F G A B.
+     */
+    private static int parseSpelling(CharSequence chord, int start) {
+        if (start >= chord.length()) {
+            return -1;
+        }
+        int letter = "CDEFGAB".indexOf(chord.charAt(start));
+        if (letter < 0) {
+            return -1;
+        }
+        int accidental = 0;
+        if (start + 1 < chord.length()) {
+            char next = chord.charAt(start + 1);
+            accidental = next == '#' ? 1 : next == 'b' ? 2 : 0;
+        }
+        return letter * 3 + accidental;
+    }
+
+    private static ChordType suffixType(CharSequence chord, int start, int end) {
+        int length = end - start;
+        if (length >= SUFFIXES.length) {
+            return null;
+        }
+        String[] suffixes = SUFFIXES[length];
+        for (int s = 0; s < suffixes.length; s++) {
+            String suffix = suffixes[s];
+            int c = 0;
+            while (c < length && suffix.charAt(c) == chord.charAt(start + c)) {
+                c++;
+            }
+            if (c == length) {
+                return SUFFIX_TYPES[length][s];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the suffix as [mM°]?(maj|min|dim)?\d* into the triad type it names, or returns null.
+     * The short quality wins over the long form when both are given, as in "CMmaj7".
+     */
+    private static ChordType looseTriad(CharSequence chord, int start, int end) {
+        int i = start;
+        ChordType type = null;
+        // A long form starting with 'm' ("maj", "min") would otherwise be read as a short "m"
+        if (longFormType(chord, i, end) == null && i < end) {
+            char symbol = chord.charAt(i);
+            if (symbol == 'm') {
+                type = ChordType.MINOR;
+                i++;
+            } else if (symbol == 'M') {
+                type = ChordType.MAJOR;
+                i++;
+            } else if (symbol == DIMINISHED_SYMBOL) {
+                type = ChordType.DIMINISHED;
+                i++;
+            }
+        }
+        ChordType longForm = longFormType(chord, i, end);
+        if (longForm != null) {
+            if (type == null) {
+                type = longForm;
+            }
+            i += 3;
+        }
+        while (i < end && chord.charAt(i) >= '0' && chord.charAt(i) <= '9') {
+            i++;
+        }
+        if (i != end) {
+            return null;
+        }
+        return type == null ? ChordType.MAJOR : type;
+    }
+
+    private static ChordType longFormType(CharSequence chord, int i, int end) {
+        if (i + 3 > end) {
+            return null;
+        }
+        char first = chord.charAt(i);
+        char second = chord.charAt(i + 1);
+        char third = chord.charAt(i + 2);
+        if (first == 'm' && second == 'a' && third == 'j') {
+            return ChordType.MAJOR;
+        }
+        if (first == 'm' && second == 'i' && third == 'n') {
+            return ChordType.MINOR;
+        }
+        if (first == 'd' && second == 'i' && third == 'm') {
+            return ChordType.DIMINISHED;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,220 @@
+package com.composeit.backend.scaleservice;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import com.composeit.backend.scaleservice.models.ChordType;
+import com.composeit.backend.scaleservice.models.IdentifiedChord;
+import com.composeit.backend.scaleservice.models.Note;
+import com.composeit.backend.scaleservice.models.Quality;
+
+import io.micrometer.core.instrument.Counter;
+
+/**
+ * Names the chords a set of pitch classes over a given bass can be read as, from a table of every
+ * (pitch-class set, bass) pair built once: each chord type on each root is entered under its own
+ * pitch classes, and under them without the fifth when it has four or more tones, once per chord
+ * tone in the bass. A lookup is then a single array read, whatever the number of chord types.
+ *
+ * Readings are ranked complete before fifth-omitted, then by inversion, then in ChordType order,
+ * which lists simpler chords first, so {C, E, G, A} over C reads C6 before Am7/C. Roots and basses
+ * are spelled with formatNoteForDisplay in the key a chord of that root suggests: the root's own
+ * major key, or its relative major for a minor chord.
+ */
+public class ChordIdentifier {
+    private static final int PERFECT_FIFTH = 7;
+    private static final List<IdentifiedChord> NONE = List.of();
+
+    private static final ChordType[] TYPES = ChordType.values();
+    // Each chord type's intervals, and one over the square root of their count for the cosine in bestMatch
+    private static final int[][] TYPE_INTERVALS = new int[TYPES.length][];
+    private static final double[] TYPE_NORMS = new double[TYPES.length];
+    static {
+        for (ChordType type : TYPES) {
+            int[] intervals = new int[PitchClassSet.size(type.getIntervals())];
+            int count = 0;
+            for (int interval = 0; interval < PitchClassSet.PITCH_CLASS_COUNT; interval++) {
+                if (PitchClassSet.contains(type.getIntervals(), interval)) {
+                    intervals[count++] = interval;
+                }
+            }
+            TYPE_INTERVALS[type.ordinal()] = intervals;
+            TYPE_NORMS[type.ordinal()] = 1 / Math.sqrt(count);
+        }
+    }
+
+    // Indexed by pitch-class set * 12 + bass pitch class; shared, unmodifiable lists
+    private final List<List<IdentifiedChord>> chordsBySet;
+
+    private final Counter[] noteParseFailures;
+
+    public ChordIdentifier() {
+        this(ScaleMetrics.NOOP);
+    }
+
+    public ChordIdentifier(ScaleMetrics metrics) {
+        this.noteParseFailures = metrics.parseFailures("note");
+        List<List<IdentifiedChord>> building = new ArrayList<>(
+                Collections.nCopies(PitchClassSet.SET_COUNT * PitchClassSet.PITCH_CLASS_COUNT, null));
+        for (int root = 0; root < PitchClassSet.PITCH_CLASS_COUNT; root++) {
+            for (ChordType type : ChordType.values()) {
+                int tones = PitchClassSet.transpose(type.getIntervals(), root);
+                add(building, root, type, tones, false);
+                if (PitchClassSet.size(tones) > 3 && PitchClassSet.contains(type.getIntervals(), PERFECT_FIFTH)) {
+                    int withoutFifth = tones & ~PitchClassSet.of((root + PERFECT_FIFTH) % PitchClassSet.PITCH_CLASS_COUNT);
+                    add(building, root, type, withoutFifth, true);
+                }
+            }
+        }
+
+        Comparator<IdentifiedChord> ranking = Comparator.comparing(IdentifiedChord::isOmitsFifth)
+                .thenComparingInt(IdentifiedChord::getInversion)
+                .thenComparing(IdentifiedChord::getType);
+        for (int i = 0; i < building.size(); i++) {
+            List<IdentifiedChord> chords = building.get(i);
+            if (chords == null) {
+                building.set(i, NONE);
+            } else {
+                chords.sort(ranking);
+                building.set(i, List.copyOf(chords));
+            }
+        }
+        this.chordsBySet = building;
+    }
+
+    /**
+     * Names the chords the notes can be read as over the bass, best first. The bass defaults to the
+     * first note, the lowest one on a keyboard, and is added to the notes if missing. Returns no
+     * chords if a note cannot be parsed.
+     */
+    public List<IdentifiedChord> identify(List<String> notes, String bass) {
+        if (notes == null || notes.isEmpty()) {
+            return NONE;
+        }
+
+        int pitchClasses = PitchClassSet.EMPTY;
+        for (String name : notes) {
+            Note note = Note.fromName(name);
+            if (note == null) {
+                noteParseFailures[ScaleMetrics.index(false)].increment();
+                return NONE;
+            }
+            pitchClasses = PitchClassSet.with(pitchClasses, note.getPitchClass());
+        }
+        Note bassNote = Note.fromName(bass == null ? notes.get(0) : bass);
+        if (bassNote == null) {
+            noteParseFailures[ScaleMetrics.index(false)].increment();
+            return NONE;
+        }
+        return identify(PitchClassSet.with(pitchClasses, bassNote.getPitchClass()), bassNote.getPitchClass());
+    }
+
+    /**
+     * Returns the readings of the pitch classes over the bass, best first, or none if the bass is not
+     * among them. The list is shared and unmodifiable.
+     */
+    public List<IdentifiedChord> identify(int pitchClasses, int bass) {
+        return chordsBySet.get(pitchClasses * PitchClassSet.PITCH_CLASS_COUNT + bass);
+    }
+
+    /**
+     * Returns the chord whose tones best fit the pitch-class weights (indexed by pitch class), as
+     * root pitch class * ChordType count + ChordType ordinal, or -1 if no weight is positive. The fit
+     * is the cosine between the weights and the chord's tones, so a chord gains for each tone that
+     * sounds and loses for each tone that does not; ties go to the chord whose root sounds more, then
+     * to the simpler chord type.
+     */
+    public static int bestMatch(double[] weights) {
+        int best = -1;
+        double bestFit = 0;
+        for (int root = 0; root < PitchClassSet.PITCH_CLASS_COUNT; root++) {
+            for (int type = 0; type < TYPES.length; type++) {
+                double sum = 0;
+                for (int interval : TYPE_INTERVALS[type]) {
+                    sum += weights[(root + interval) % PitchClassSet.PITCH_CLASS_COUNT];
+                }
+                double fit = sum * TYPE_NORMS[type];
+                if (fit > bestFit || fit == bestFit && best >= 0
+                        && weights[root] > weights[best / TYPES.length]) {
+                    best = root * TYPES.length + type;
+                    bestFit = fit;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Names a match from bestMatch with the root spelled from {@code spellings}, indexed by pitch
+     * class; null for no match.
+     */
+    static String matchName(int match, Note[] spellings) {
+        if (match < 0) {
+            return null;
+        }
+        return spellings[match / TYPES.length].getName() + TYPES[match % TYPES.length].getSymbol();
+    }
+
+    private static void add(List<List<IdentifiedChord>> building, int root, ChordType type, int tones, boolean omitsFifth) {
+        Note spelling = ChordTransposer.conventionTonic(root, type.getTriad() == Quality.MINOR);
+        String rootName = ScalePatternCalculator.formatNoteForDisplay(Note.ofPitchClass(root), spelling).getName();
+        for (int bass = 0; bass < PitchClassSet.PITCH_CLASS_COUNT; bass++) {
+            if (!PitchClassSet.contains(tones, bass)) {
+                continue;
+            }
+            String bassName = ScalePatternCalculator.formatNoteForDisplay(Note.ofPitchClass(bass), spelling).getName();
+            String name = rootName + type.getSymbol() + (bass == root ? "" : "/" + bassName);
+            int inversion = inversion(type.getIntervals(), Math.floorMod(bass - root, PitchClassSet.PITCH_CLASS_COUNT));
+
+            int index = tones * PitchClassSet.PITCH_CLASS_COUNT + bass;
+            if (building.get(index) == null) {
+                building.set(index, new ArrayList<>());
+            }
+            building.get(index).add(new IdentifiedChord(name, rootName, type, bassName, inversion, omitsFifth));
+        }
+    }
+
+    /**
+     * Returns how many chord tones lie below the bass when the chord is stacked in thirds, counting an
+     * omitted fifth, so a seventh in the bass is the third inversion either way.
+     */
+    private static int inversion(int intervals, int bassInterval) {
+        int bassDegree = degree(bassInterval, intervals);
+        int below = 0;
+        for (int interval = 0; interval < PitchClassSet.PITCH_CLASS_COUNT; interval++) {
+            if (!PitchClassSet.contains(intervals, interval)) {
+                continue;
+            }
+            int degree = degree(interval, intervals);
+            if (degree < bassDegree || degree == bassDegree && interval < bassInterval) {
+                below++;
+            }
+        }
+        return below;
+    }
+
+    /**
+     * Returns the scale degree an interval stands for in a chord with the given intervals, read the way
+     * the chord symbol reads it: 3 for a third, 9 for a second in a chord that also has a third.
+     */
+    private static int degree(int interval, int intervals) {
+        boolean third = PitchClassSet.contains(intervals, 3) || PitchClassSet.contains(intervals, 4);
+        boolean seventh = PitchClassSet.contains(intervals, 10) || PitchClassSet.contains(intervals, 11);
+        return switch (interval) {
+            case 0 -> 1;
+            case 1 -> 9;
+            case 2 -> third ? 9 : 2;
+            case 3 -> PitchClassSet.contains(intervals, 4) ? 9 : 3;
+            case 4 -> 3;
+            case 5 -> third ? 11 : 4;
+            case 6 -> seventh && PitchClassSet.contains(intervals, PERFECT_FIFTH) ? 11 : 5;
+            case 7 -> 5;
+            case 8 -> seventh && PitchClassSet.contains(intervals, PERFECT_FIFTH) ? 13 : 5;
+            // A sixth, the diminished seventh, or a thirteenth over a seventh
+            case 9 -> seventh ? 13 : PitchClassSet.contains(intervals, 6) ? 7 : 6;
+            default -> 7;
+        };
+    }
+}
@@ -0,0 +1,291 @@
+package com.composeit.backend.scaleservice;
+
+import static com.composeit.backend.common.Constants.FLAT_SCALES;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
+import com.composeit.backend.scaleservice.models.ChordType;
+import com.composeit.backend.scaleservice.models.Note;
+import com.composeit.backend.scaleservice.models.Quality;
+
+/**
+ * Transposes chord symbols and whole chord charts by pitch-class arithmetic, spelling the new roots
+ * and bass notes by the flat or sharp convention of the target key (see FLAT_SCALES and SHARP_SCALES).
+ * A minor key spells like its relative major. Only the root and bass of a chord change; the rest of
+ * the symbol ("m7", "maj7", "°") is kept as written, and anything ChordCode cannot parse passes through.
+ *
+ * A transposer is either given the interval, or a target key and optionally the chart's key; without
+ * one, the first chord of the chart is taken as its key. When only the interval is given, the spelling
+ * follows the first chord once transposed. Either way both are settled by the first chord, so a chart
+ * is transposed in a single pass. A transposer holds that state, so use one per chart.
+ *
+ * Charts are read a line at a time:
+ *
+ * - a chord line, where every token is a chord symbol or bar notation ("|", "||", "|:", "%", "-", "N.C."),
+ *   has each chord transposed, taking up or giving back spaces after it so the chords stay above
+ *   the lyrics they were aligned with
+ * - any other line is lyrics, where only ChordPro chords in brackets ("[Am]") are transposed
+ *
+ * Only one line is held in memory, and a line longer than MAX_LINE_LENGTH is passed through as is.
+ */
+public class ChordTransposer {
+    public static final int MAX_LINE_LENGTH = 8192;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    // Null unless the interval is settled by the first chord
+    private final Note targetKey;
+
+    // Settled by the first chord when not given up front; spelling is the major tonic whose convention is followed
+    private int semitones;
+    private Note spelling;
+    private boolean settled;
+
+    private ChordTransposer(int semitones, Note targetKey, Note spelling) {
+        this.semitones = semitones;
+        this.targetKey = targetKey;
+        this.spelling = spelling;
+        this.settled = targetKey == null;
+    }
+
+    /**
+     * Transposes by the given number of semitones, up if positive.
+     */
+    public static ChordTransposer bySemitones(int semitones) {
+        return new ChordTransposer(Math.floorMod(semitones, PitchClassSet.PITCH_CLASS_COUNT), null, null);
+    }
+
+    /**
+     * Transposes into the target key, given like a chord symbol ("Bb", "F#m"). The chart's own key is
+     * given the same way, or null to take the first chord as the key.
+     *
+     * @throws IllegalArgumentException if a key is not a note, optionally followed by "m"
+     */
+    public static ChordTransposer toKey(String targetKey, String sourceKey) {
+        int target = parseKey(targetKey);
+        Note spelling = conventionTonic(ChordCode.rootPitchClass(target), ChordCode.quality(target) == Quality.MINOR);
+        if (sourceKey == null || sourceKey.isEmpty()) {
+            return new ChordTransposer(0, ChordCode.root(target), spelling);
+        }
+
+        int source = parseKey(sourceKey);
+        int semitones = Math.floorMod(ChordCode.rootPitchClass(target) - ChordCode.rootPitchClass(source),
+                PitchClassSet.PITCH_CLASS_COUNT);
+        return new ChordTransposer(semitones, null, spelling);
+    }
+
+    private static int parseKey(String key) {
+        int code = ChordCode.parse(key);
+        if (!ChordCode.isValid(code) || ChordCode.type(code) != ChordType.MAJOR && ChordCode.type(code) != ChordType.MINOR
+                || ChordCode.hasBass(code)) {
+            throw new IllegalArgumentException("Not a key: " + key);
+        }
+        return code;
+    }
+
+    // The tonic whose spelling convention a key follows: the key itself, or the relative major of a minor key
+    static Note conventionTonic(int tonicPitchClass, boolean minor) {
+        int majorTonic = minor ? (tonicPitchClass + 3) % PitchClassSet.PITCH_CLASS_COUNT : tonicPitchClass;
+        Note note = Note.ofPitchClass(majorTonic);
+        return FLAT_SCALES.contains(note.getFlatSpelling().getName()) ? note.getFlatSpelling() : note;
+    }
+
+    /**
+     * Returns the transposed chord symbol, or the input unchanged if it is not a chord symbol.
+     */
+    public String transposeChord(String chord) {
+        int code = ChordCode.parse(chord);
+        if (!ChordCode.isValid(code)) {
+            return chord;
+        }
+        settle(code);
+
+        int rootLength = ChordCode.rootName(code).length();
+        int bassLength = ChordCode.hasBass(code) ? ChordCode.bassName(code).length() : 0;
+        StringBuilder transposed = new StringBuilder(chord.length() + 2);
+        transposed.append(spell(ChordCode.rootPitchClass(code)));
+        transposed.append(chord, rootLength, chord.length() - bassLength);
+        if (bassLength > 0) {
+            transposed.append(spell(ChordCode.bassPitchClass(code)));
+        }
+        return transposed.toString();
+    }
+
+    private void settle(int firstChord) {
+        if (settled) {
+            if (spelling == null) {
+                spelling = conventionTonic((ChordCode.rootPitchClass(firstChord) + semitones) % PitchClassSet.PITCH_CLASS_COUNT,
+                        ChordCode.quality(firstChord) == Quality.MINOR);
+            }
+            return;
+        }
+        // The first chord is taken as the chart's key
+        semitones = Math.floorMod(targetKey.getPitchClass() - ChordCode.rootPitchClass(firstChord),
+                PitchClassSet.PITCH_CLASS_COUNT);
+        settled = true;
+    }
+
+    private String spell(int pitchClass) {
+        Note note = Note.ofPitchClass((pitchClass + semitones) % PitchClassSet.PITCH_CLASS_COUNT);
+        return ScalePatternCalculator.formatNoteForDisplay(note, spelling).getName();
+    }
+
+    /**
+     * Transposes a chart from in to out in one pass. Neither is closed.
+     */
+    public void transpose(Reader in, Writer out) throws IOException {
+        char[] buffer = new char[BUFFER_SIZE];
+        StringBuilder line = new StringBuilder();
+        boolean overflow = false;
+        int read;
+        while ((read = in.read(buffer)) >= 0) {
+            int start = 0;
+            for (int i = 0; i < read; i++) {
+                if (buffer[i] != '\n') {
+                    continue;
+                }
+                if (overflow) {
+                    out.write(buffer, start, i + 1 - start);
+                    overflow = false;
+                } else {
+                    line.append(buffer, start, i - start);
+                    writeLine(line, out);
+                    out.write('\n');
+                    line.setLength(0);
+                }
+                start = i + 1;
+            }
+
+            if (overflow) {
+                out.write(buffer, start, read - start);
+            } else {
+                line.append(buffer, start, read - start);
+                if (line.length() > MAX_LINE_LENGTH) {
+                    out.append(line);
+                    line.setLength(0);
+                    overflow = true;
+                }
+            }
+        }
+        writeLine(line, out);
+        out.flush();
+    }
+
+    private void writeLine(CharSequence line, Writer out) throws IOException {
+        if (isChordLine(line)) {
+            writeChordLine(line, out);
+        } else {
+            writeLyricLine(line, out);
+        }
+    }
+
+    private static boolean isChordLine(CharSequence line) {
+        boolean hasChord = false;
+        int i = 0;
+        while (i < line.length()) {
+            if (isBlank(line.charAt(i))) {
+                i++;
+                continue;
+            }
+            int end = tokenEnd(line, i);
+            CharSequence token = line.subSequence(i, end);
+            if (ChordCode.isValid(ChordCode.parse(token))) {
+                hasChord = true;
+            } else if (!isBarNotation(token)) {
+                return false;
+            }
+            i = end;
+        }
+        return hasChord;
+    }
+
+    private static boolean isBarNotation(CharSequence token) {
+        if ("N.C.".contentEquals(token)) {
+            return true;
+        }
+        for (int i = 0; i < token.length(); i++) {
+            if ("|:-/%.".indexOf(token.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void writeChordLine(CharSequence line, Writer out) throws IOException {
+        // Characters written past the original columns, negative when the chords got shorter
+        int drift = 0;
+        int i = 0;
+        while (i < line.length()) {
+            char c = line.charAt(i);
+            if (c != ' ') {
+                if (isBlank(c)) {
+                    out.write(c);
+                    i++;
+                    continue;
+                }
+                int end = tokenEnd(line, i);
+                String token = line.subSequence(i, end).toString();
+                String transposed = transposeChord(token);
+                out.write(transposed);
+                drift += transposed.length() - token.length();
+                i = end;
+                continue;
+            }
+
+            int end = i;
+            while (end < line.length() && line.charAt(end) == ' ') {
+                end++;
+            }
+            // Keep at least one space between tokens, and leave trailing spaces alone
+            int spaces = end - i;
+            if (end < line.length()) {
+                int adjusted = Math.max(1, spaces - drift);
+                drift -= spaces - adjusted;
+                spaces = adjusted;
+            }
+            for (int s = 0; s < spaces; s++) {
+                out.write(' ');
+            }
+            i = end;
+        }
+    }
+
+    private void writeLyricLine(CharSequence line, Writer out) throws IOException {
+        int i = 0;
+        while (i < line.length()) {
+            int open = indexOf(line, '[', i);
+            int close = open < 0 ? -1 : indexOf(line, ']', open + 1);
+            if (close < 0) {
+                out.append(line, i, line.length());
+                return;
+            }
+            out.append(line, i, open + 1);
+            out.write(transposeChord(line.subSequence(open + 1, close).toString()));
+            out.write(']');
+            i = close + 1;
+        }
+    }
+
+    private static int indexOf(CharSequence line, char c, int from) {
+        for (int i = from; i < line.length(); i++) {
+            if (line.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int tokenEnd(CharSequence line, int start) {
+        int end = start;
+        while (end < line.length() && !isBlank(line.charAt(end))) {
+            end++;
+        }
+        return end;
+    }
+
+    private static boolean isBlank(char c) {
+        return c == ' ' || c == '\t' || c == '\r';
+    }
+}
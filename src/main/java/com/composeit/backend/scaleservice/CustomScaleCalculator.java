@@ -0,0 +1,200 @@
+package com.composeit.backend.scaleservice;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.composeit.backend.scaleservice.models.Chord;
+import com.composeit.backend.scaleservice.models.Note;
+import com.composeit.backend.scaleservice.models.Quality;
+import com.composeit.backend.scaleservice.models.ScaleDefinition;
+import com.composeit.backend.scaleservice.models.ScaleProfile;
+
+/**
+ * User-defined scale qualities, compiled once into the same kinds of tables the built-in qualities use:
+ * a pitch-class mask per scale, a ScaleSet of the scales containing each diatonic chord, and a prebuilt
+ * profile per (tonic, scale). Lookups cost the same however many scales are defined, apart from chord
+ * searches, which AND one more word per 64 scales.
+ *
+ * A custom scale's id is {@code tonic pitch class * definition count + definition index}, so walking
+ * a set lists scales by tonic in chromatic order, then in definition file order.
+ */
+public class CustomScaleCalculator {
+    private static final String[] NUMERALS = {"I", "II", "III", "IV", "V", "VI", "VII", "VIII", "IX", "X", "XI", "XII"};
+
+    private final List<ScaleDefinition> definitions;
+    private final Map<String, Integer> indexByName = new HashMap<>();
+    private final int scaleCount;
+
+    // Indexed by id
+    private final int[] masks;
+    private final String[] scaleNames;
+
+    private final long[] allScales;
+
+    // Indexed by chordIndex(root pitch class, chord quality), like ChordCalculator's table
+    private final long[][] scalesByChord;
+
+    // Indexed by ChordCalculator.chordTypeIndex(chord code), built the same way as ChordCalculator's
+    private final long[][] scalesByChordType;
+
+    // Keyed by tonic spelling and indexed by definition; enharmonic spellings share instances
+    private final Map<Note, ScaleProfile[]> profiles;
+
+    public CustomScaleCalculator(List<ScaleDefinition> definitions) {
+        this.definitions = List.copyOf(definitions);
+        for (int i = 0; i < this.definitions.size(); i++) {
+            indexByName.put(this.definitions.get(i).getName(), i);
+        }
+        this.scaleCount = PitchClassSet.PITCH_CLASS_COUNT * this.definitions.size();
+
+        this.masks = new int[scaleCount];
+        this.scaleNames = new String[scaleCount];
+        this.allScales = ScaleSet.empty(scaleCount);
+        this.scalesByChord = new long[PitchClassSet.PITCH_CLASS_COUNT * ScaleSet.QUALITY_COUNT][];
+        for (int i = 0; i < scalesByChord.length; i++) {
+            scalesByChord[i] = ScaleSet.empty(scaleCount);
+        }
+
+        for (int tonic = 0; tonic < PitchClassSet.PITCH_CLASS_COUNT; tonic++) {
+            for (int index = 0; index < this.definitions.size(); index++) {
+                ScaleDefinition definition = this.definitions.get(index);
+                int id = id(tonic, index);
+                masks[id] = PitchClassSet.transpose(definition.getPattern(), tonic);
+                scaleNames[id] = Note.ofPitchClass(tonic).getName() + " " + definition.getName();
+                ScaleSet.add(allScales, id);
+                for (int degree = 0; degree < definition.getDegreeCount(); degree++) {
+                    Quality chordQuality = definition.getChordQuality(degree);
+                    if (chordQuality != null) {
+                        int root = (tonic + definition.getInterval(degree)) % PitchClassSet.PITCH_CLASS_COUNT;
+                        ScaleSet.add(scalesByChord[chordIndex(root, chordQuality)], id);
+                    }
+                }
+            }
+        }
+
+        this.scalesByChordType = ChordCalculator.buildScalesByChordType(scalesByChord, masks);
+        this.profiles = buildProfiles();
+    }
+
+    public List<ScaleDefinition> getDefinitions() {
+        return definitions;
+    }
+
+    public boolean isEmpty() {
+        return definitions.isEmpty();
+    }
+
+    public int getScaleCount() {
+        return scaleCount;
+    }
+
+    public int id(int tonicPitchClass, int definitionIndex) {
+        return tonicPitchClass * definitions.size() + definitionIndex;
+    }
+
+    public int getScaleMask(int id) {
+        return masks[id];
+    }
+
+    /**
+     * Returns the scale name for an id, with the tonic in sharp spelling ("F# WHOLE_TONE").
+     */
+    public String getScaleName(int id) {
+        return scaleNames[id];
+    }
+
+    /**
+     * Returns the ScaleSet of every custom scale. The set is shared, so callers must clone it before narrowing it.
+     */
+    public long[] getAllScales() {
+        return allScales;
+    }
+
+    /**
+     * Removes every scale from the candidate ScaleSet that does not hold the chord, given as a ChordCode.
+     */
+    public void retainScalesWithChord(long[] candidates, int chordCode) {
+        ScaleSet.retainAll(candidates, scalesByChordType[ChordCalculator.chordTypeIndex(chordCode)]);
+    }
+
+    /**
+     * Returns the profile of a custom scale, or null if the tonic or scale name is unknown.
+     */
+    public ScaleProfile getScaleProfile(String tonic, String scale) {
+        Note tonicNote = Note.fromName(tonic);
+        Integer index = scale == null ? null : indexByName.get(scale);
+        if (tonicNote == null || index == null) {
+            return null;
+        }
+        return profiles.get(tonicNote)[index];
+    }
+
+    private static int chordIndex(int rootPitchClass, Quality chordQuality) {
+        return rootPitchClass * ScaleSet.QUALITY_COUNT + chordQuality.ordinal();
+    }
+
+    private Map<Note, ScaleProfile[]> buildProfiles() {
+        Map<Note, ScaleProfile[]> byNormalizedTonic = new EnumMap<>(Note.class);
+        Map<Note, ScaleProfile[]> byTonic = new EnumMap<>(Note.class);
+        for (Note tonic : Note.values()) {
+            byTonic.put(tonic, byNormalizedTonic.computeIfAbsent(tonic.getSharpSpelling(), this::buildTonicProfiles));
+        }
+        return Collections.unmodifiableMap(byTonic);
+    }
+
+    private ScaleProfile[] buildTonicProfiles(Note normalizedTonic) {
+        ScaleProfile[] tonicProfiles = new ScaleProfile[definitions.size()];
+        for (int index = 0; index < definitions.size(); index++) {
+            tonicProfiles[index] = buildProfile(normalizedTonic, definitions.get(index),
+                    masks[id(normalizedTonic.getPitchClass(), index)]);
+        }
+        return tonicProfiles;
+    }
+
+    private static ScaleProfile buildProfile(Note normalizedTonic, ScaleDefinition definition, int mask) {
+        List<Note> notes = ScalePatternCalculator.spellScale(mask, normalizedTonic);
+        List<String> semitones = ScalePatternCalculator.noteNames(notes);
+
+        Map<String, String> chords = new LinkedHashMap<>();
+        Map<Integer, String> scaleDegrees = new HashMap<>();
+        Map<String, String> intervals = new HashMap<>();
+        for (int degree = 0; degree < notes.size(); degree++) {
+            Quality chordQuality = definition.getChordQuality(degree);
+            if (chordQuality != null) {
+                chords.put(position(degree, chordQuality), Chord.of(notes.get(degree), chordQuality).getName());
+            }
+            scaleDegrees.put(degree + 1, semitones.get(degree));
+            intervals.put(definition.getIntervalName(degree), semitones.get(degree));
+        }
+
+        // There is no quality to find relative and parallel scales or stock progressions for
+        return new ScaleProfile(
+                normalizedTonic.getName(),
+                null,
+                semitones,
+                chords,
+                scaleDegrees,
+                intervals,
+                null,
+                null,
+                List.of(),
+                definition.getLabel()
+        );
+    }
+
+    /**
+     * Returns the roman numeral of a degree, upper case for a major triad and lower case for a minor or
+     * diminished one, as in the position notation in Constants.
+     */
+    static String position(int degree, Quality chordQuality) {
+        return switch (chordQuality) {
+            case MAJOR -> NUMERALS[degree];
+            case MINOR -> NUMERALS[degree].toLowerCase();
+            default -> NUMERALS[degree].toLowerCase() + "°";
+        };
+    }
+}
@@ -0,0 +1,247 @@
+package com.composeit.backend.scaleservice;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import com.composeit.backend.scaleservice.models.Note;
+import com.composeit.backend.scaleservice.models.Quality;
+import com.composeit.backend.scaleservice.models.RankedKey;
+
+/**
+ * Krumhansl-Schmuckler key finding: a 12-bin pitch-class profile, each bin the total duration of
+ * that pitch class, is correlated against a key profile for every scale, and the keys rank by
+ * Pearson correlation. Unlike the reverse lookups this gives every key a graded score, so it works on
+ * real, noisy note data.
+ *
+ * MAJOR and MINOR use the Krumhansl-Kessler probe-tone profiles. The other qualities take the
+ * profile of the one whose third they share and swap in the other's value for each pitch class
+ * where only the other agrees with the scale on whether it belongs; where neither agrees the value
+ * is the average of that profile's own in-scale or out-of-scale values. So DORIAN is the minor
+ * profile with the major sixth's weight, and every profile keeps the tonic, third and fifth high.
+ *
+ * The key profiles are centered and scaled to unit length when built, so a correlation is a dot
+ * product divided by the input's spread. They are stored pitch class first, each row an array of
+ * that pitch class's value in every key, and correlate accumulates one row at a time across all keys.
+ * That inner loop is a straight multiply-add over contiguous arrays, which HotSpot's auto-vectorizer
+ * compiles to packed SIMD instructions where the CPU has them and to a scalar loop where it does not.
+ */
+public class KeyFinder {
+    static final double[] MAJOR_PROFILE = {6.35, 2.23, 3.48, 2.33, 4.38, 4.09, 2.52, 5.19, 2.39, 3.66, 2.29, 2.88};
+    static final double[] MINOR_PROFILE = {6.33, 2.68, 3.52, 5.38, 2.60, 3.53, 2.54, 4.75, 3.98, 2.69, 3.34, 3.17};
+
+    private static final int PITCH_CLASS_COUNT = PitchClassSet.PITCH_CLASS_COUNT;
+    private static final int MINOR_THIRD = 3;
+    private static final int MAJOR_THIRD = 4;
+
+    // Normalized key profiles, pitch class first: profiles[pitchClass][id]
+    private final double[][] profiles = new double[PITCH_CLASS_COUNT][ScaleSet.SCALE_COUNT];
+
+    public KeyFinder(ScalePatternCalculator patternCalculator) {
+        int majorMask = patternCalculator.getScaleMask(0, Quality.MAJOR);
+        int minorMask = patternCalculator.getScaleMask(0, Quality.MINOR);
+        for (Quality quality : Quality.values()) {
+            int mask = patternCalculator.getScaleMask(0, quality);
+            double[] profile = normalize(profile(mask, majorMask, minorMask));
+            for (int tonic = 0; tonic < PITCH_CLASS_COUNT; tonic++) {
+                int id = ScaleSet.id(tonic, quality);
+                for (int interval = 0; interval < PITCH_CLASS_COUNT; interval++) {
+                    profiles[(tonic + interval) % PITCH_CLASS_COUNT][id] = profile[interval];
+                }
+            }
+        }
+    }
+
+    /**
+     * Ranks keys by the correlation of their key profile with the total duration of each note, best
+     * first, keeping at most limit of them. Durations are keyed by note spelling and add up across
+     * spellings of one pitch class; notes left out count as not sounding. A profile with every pitch
+     * class sounding equally long fits no key and returns none.
+     *
+     * @throws IllegalArgumentException if limit is below 1, or a duration is negative, not a finite
+     * number or keyed by an unknown note
+     */
+    public List<RankedKey> findKeys(Map<String, Double> durations, int limit, boolean advanced) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        if (durations == null || durations.isEmpty()) {
+            return List.of();
+        }
+
+        double[] profile = new double[PITCH_CLASS_COUNT];
+        for (Map.Entry<String, Double> entry : durations.entrySet()) {
+            Note note = Note.fromName(entry.getKey());
+            Double duration = entry.getValue();
+            if (note == null) {
+                throw new IllegalArgumentException("Unknown note in durations: " + entry.getKey());
+            }
+            if (duration == null || !(duration >= 0) || duration.isInfinite()) {
+                throw new IllegalArgumentException("Duration must be a non-negative number: " + entry.getKey());
+            }
+            profile[note.getPitchClass()] += duration;
+        }
+
+        double[] correlations = new double[ScaleSet.SCALE_COUNT];
+        int[] ids = rank(profile, ScaleSet.rankedScales(advanced), limit, correlations);
+        List<RankedKey> keys = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            keys.add(new RankedKey(ScaleSet.name(id), correlations[id]));
+        }
+        return keys;
+    }
+
+    /**
+     * Fills {@code correlations}, indexed by scale id, with the correlation of the pitch-class profile
+     * (12 values from {@code offset}) against every key. Returns false, leaving the correlations
+     * untouched, if the profile is the same in every bin, which correlates with nothing.
+     */
+    public boolean correlate(double[] profile, int offset, double[] correlations) {
+        double scale = inverseSpread(profile, offset);
+        if (scale == 0) {
+            return false;
+        }
+        Arrays.fill(correlations, 0, ScaleSet.SCALE_COUNT, 0);
+        accumulate(profiles, ScaleSet.SCALE_COUNT, profile, offset, correlations);
+        for (int id = 0; id < ScaleSet.SCALE_COUNT; id++) {
+            correlations[id] *= scale;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the ids of the k keys in {@code allowed} that correlate best with the profile, best
+     * first, with their correlations in {@code correlations}; none if the profile is flat.
+     */
+    public int[] rank(double[] profile, long[] allowed, int k, double[] correlations) {
+        if (!correlate(profile, 0, correlations)) {
+            return new int[0];
+        }
+        return ScaleRanker.best(allowed, k, correlations);
+    }
+
+    /**
+     * Finds the best key of each of {@code count} windows, whose profiles lie one after another in
+     * {@code windows}, 12 values each, writing its id (or -1 for a flat profile) to {@code best}.
+     * Only the allowed keys are correlated, and nothing is allocated per window, so a batch of
+     * millions of windows runs at the speed of the multiply-adds.
+     */
+    public void bestKeys(double[] windows, int count, long[] allowed, int[] best) {
+        int keyCount = ScaleSet.size(allowed);
+        int[] ids = new int[keyCount];
+        double[][] columns = new double[PITCH_CLASS_COUNT][keyCount];
+        int column = 0;
+        for (int id = ScaleSet.nextScale(allowed, 0); id >= 0; id = ScaleSet.nextScale(allowed, id + 1)) {
+            ids[column] = id;
+            for (int pitchClass = 0; pitchClass < PITCH_CLASS_COUNT; pitchClass++) {
+                columns[pitchClass][column] = profiles[pitchClass][id];
+            }
+            column++;
+        }
+
+        double[] sums = new double[keyCount];
+        for (int window = 0; window < count; window++) {
+            int offset = window * PITCH_CLASS_COUNT;
+            if (keyCount == 0 || inverseSpread(windows, offset) == 0) {
+                best[window] = -1;
+                continue;
+            }
+            Arrays.fill(sums, 0);
+            accumulate(columns, keyCount, windows, offset, sums);
+            // Scaling by the positive inverse spread would not change which sum is largest
+            int top = 0;
+            for (int i = 1; i < keyCount; i++) {
+                if (sums[i] > sums[top]) {
+                    top = i;
+                }
+            }
+            best[window] = ids[top];
+        }
+    }
+
+    /**
+     * Adds profile[pitchClass] * rows[pitchClass][key] to sums[key] for every key, a row at a time.
+     * Each row is its own array indexed from 0, the shape the auto-vectorizer recognizes; the same
+     * loop over offsets into one flat array runs several times slower.
+     */
+    private static void accumulate(double[][] rows, int width, double[] profile, int offset, double[] sums) {
+        for (int pitchClass = 0; pitchClass < PITCH_CLASS_COUNT; pitchClass++) {
+            double value = profile[offset + pitchClass];
+            double[] row = rows[pitchClass];
+            for (int key = 0; key < width; key++) {
+                sums[key] += value * row[key];
+            }
+        }
+    }
+
+    /**
+     * Returns one over the length of the profile centered on its mean, or 0 if that length is 0. The
+     * key profiles are centered, so the input's mean drops out of the dot product and only its length
+     * is needed.
+     */
+    private static double inverseSpread(double[] profile, int offset) {
+        double sum = 0;
+        double squares = 0;
+        for (int pitchClass = 0; pitchClass < PITCH_CLASS_COUNT; pitchClass++) {
+            double value = profile[offset + pitchClass];
+            sum += value;
+            squares += value * value;
+        }
+        double spread = squares - sum * sum / PITCH_CLASS_COUNT;
+        // Rounding can leave a tiny spread for a flat profile; treat anything that small as none
+        return spread > 1e-12 * squares ? 1 / Math.sqrt(spread) : 0;
+    }
+
+    // The scale's profile, built from the major or minor profile as described above
+    private static double[] profile(int mask, int majorMask, int minorMask) {
+        boolean minor = PitchClassSet.contains(mask, MINOR_THIRD) && !PitchClassSet.contains(mask, MAJOR_THIRD);
+        double[] own = minor ? MINOR_PROFILE : MAJOR_PROFILE;
+        double[] other = minor ? MAJOR_PROFILE : MINOR_PROFILE;
+        int ownMask = minor ? minorMask : majorMask;
+        int otherMask = minor ? majorMask : minorMask;
+
+        double[] profile = new double[PITCH_CLASS_COUNT];
+        for (int interval = 0; interval < PITCH_CLASS_COUNT; interval++) {
+            boolean inScale = PitchClassSet.contains(mask, interval);
+            if (PitchClassSet.contains(ownMask, interval) == inScale) {
+                profile[interval] = own[interval];
+            } else if (PitchClassSet.contains(otherMask, interval) == inScale) {
+                profile[interval] = other[interval];
+            } else {
+                profile[interval] = average(own, ownMask, inScale);
+            }
+        }
+        return profile;
+    }
+
+    private static double average(double[] profile, int mask, boolean inScale) {
+        double sum = 0;
+        int count = 0;
+        for (int interval = 0; interval < PITCH_CLASS_COUNT; interval++) {
+            if (PitchClassSet.contains(mask, interval) == inScale) {
+                sum += profile[interval];
+                count++;
+            }
+        }
+        return sum / count;
+    }
+
+    private static double[] normalize(double[] profile) {
+        double mean = 0;
+        for (double value : profile) {
+            mean += value / PITCH_CLASS_COUNT;
+        }
+        double length = 0;
+        double[] normalized = new double[PITCH_CLASS_COUNT];
+        for (int i = 0; i < PITCH_CLASS_COUNT; i++) {
+            normalized[i] = profile[i] - mean;
+            length += normalized[i] * normalized[i];
+        }
+        length = Math.sqrt(length);
+        for (int i = 0; i < PITCH_CLASS_COUNT; i++) {
+            normalized[i] /= length;
+        }
+        return normalized;
+    }
+}
@@ -0,0 +1,100 @@
+package com.composeit.backend.scaleservice;
+
+/**
+ * Tracks the candidate keys of a chord sequence over a sliding window of its most recent chords.
+ *
+ * For every scale the tracker keeps the number of chords in the window that are diatonic to it, and a
+ * scale is a candidate while that count equals the window length. Appending a chord, and dropping the
+ * oldest one once the window is full, only touches the counts of the scales containing those two
+ * chords, so each step costs the same no matter how large the window is or how long the song gets.
+ *
+ * Chords are matched through ChordCalculator.scalesWithChord, its per chord type index
+ * (scalesByChordType): a scale counts a plain triad if it is among the scale's diatonic chords, and any
+ * other chord if its triad, when it has one, is among them and all of its tones are in the scale.
+ */
+public class KeyTracker {
+    private final ChordCalculator chordCalculator;
+    private final long[] allowedScales;
+
+    // Ring buffer of the ScaleSets of the chords in the window, oldest at head
+    private final long[][] window;
+    private int head;
+    private int length;
+
+    private final int[] counts = new int[ScaleSet.SCALE_COUNT];
+    private final long[] candidates = ScaleSet.empty();
+    private final long[] changed = ScaleSet.empty();
+
+    /**
+     * @param allowedScales the ScaleSet of scales that may be reported, e.g. only MAJOR and MINOR
+     */
+    public KeyTracker(ChordCalculator chordCalculator, int windowSize, long[] allowedScales) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("Window size must be at least 1");
+        }
+        this.chordCalculator = chordCalculator;
+        this.allowedScales = allowedScales.clone();
+        this.window = new long[windowSize][];
+    }
+
+    /**
+     * Appends a chord symbol, dropping the oldest chord if the window is full.
+     * Returns false, leaving the window unchanged, if the chord cannot be parsed.
+     */
+    public boolean append(String chord) {
+        int code = ChordCode.parse(chord);
+        if (!ChordCode.isValid(code)) {
+            return false;
+        }
+        long[] added = chordCalculator.scalesWithChord(code);
+
+        if (length < window.length) {
+            window[(head + length) % window.length] = added;
+            length++;
+            adjustCounts(added, 1);
+            // Only scales that held every earlier chord and also hold this one can reach the new length
+            if (length == 1) {
+                System.arraycopy(allowedScales, 0, candidates, 0, candidates.length);
+            }
+            ScaleSet.retainAll(candidates, added);
+            return true;
+        }
+
+        long[] dropped = window[head];
+        window[head] = added;
+        head = (head + 1) % window.length;
+        adjustCounts(dropped, -1);
+        adjustCounts(added, 1);
+
+        // The length is unchanged, so only scales whose count moved can change status
+        for (int i = 0; i < changed.length; i++) {
+            changed[i] = added[i] | dropped[i];
+        }
+        for (int id = ScaleSet.nextScale(changed, 0); id >= 0; id = ScaleSet.nextScale(changed, id + 1)) {
+            if (counts[id] == length && ScaleSet.contains(allowedScales, id)) {
+                ScaleSet.add(candidates, id);
+            } else {
+                ScaleSet.remove(candidates, id);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the ScaleSet of scales containing every chord in the window. The set is updated in
+     * place by append, so callers that keep it must copy it.
+     */
+    public long[] getCandidates() {
+        return candidates;
+    }
+
+    public int getWindowLength() {
+        return length;
+    }
+
+    private void adjustCounts(long[] scales, int delta) {
+        for (int id = ScaleSet.nextScale(scales, 0); id >= 0; id = ScaleSet.nextScale(scales, id + 1)) {
+            counts[id] += delta;
+        }
+    }
+}
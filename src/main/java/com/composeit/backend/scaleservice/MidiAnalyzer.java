@@ -0,0 +1,351 @@
+package com.composeit.backend.scaleservice;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.composeit.backend.scaleservice.models.BarChord;
+import com.composeit.backend.scaleservice.models.MidiAnalysis;
+import com.composeit.backend.scaleservice.models.Note;
+
+/**
+ * Reads a Standard MIDI File straight from a ByteBuffer and folds its notes into one pitch-class
+ * histogram per bar, each note adding the fraction of the bar it sounds for to its pitch class.
+ * Drums (channel 10) are left out.
+ *
+ * Every event is read once and nothing per event is kept, so memory depends on the number of bars and
+ * tracks, not on the number of events. Bars follow the time signatures of the first track, which is
+ * where format 1 files keep them; the first track is read on its own, then the others in parallel
+ * against its bar lines, summing their histograms as they finish.
+ *
+ * analyze turns the histograms into a key, the best fit from KeyFinder of the whole file, and a chord
+ * per bar, the best fit from ChordIdentifier, spelled in the key.
+ */
+public final class MidiAnalyzer {
+    public static final int MAX_BARS = 20_000;
+
+    private static final int HEADER_CHUNK = 0x4D546864; // "MThd"
+    private static final int TRACK_CHUNK = 0x4D54726B;  // "MTrk"
+    private static final int DRUM_CHANNEL = 9;
+    private static final int CHANNEL_COUNT = 16;
+    private static final int KEY_COUNT = 128;
+
+    private final ScalePatternCalculator patternCalculator;
+    private final KeyFinder keyFinder;
+
+    public MidiAnalyzer(ScalePatternCalculator patternCalculator, KeyFinder keyFinder) {
+        this.patternCalculator = patternCalculator;
+        this.keyFinder = keyFinder;
+    }
+
+    /**
+     * Returns the file's key and the chord of each bar. The key is the best fit of the whole file's
+     * notes weighted by duration; a file without notes has no key and no bars.
+     *
+     * @throws IllegalArgumentException if the file cannot be read as a Standard MIDI File
+     */
+    public MidiAnalysis analyze(ByteBuffer file, boolean advanced) {
+        double[][] bars = barHistograms(file);
+        double[] totals = new double[PitchClassSet.PITCH_CLASS_COUNT];
+        for (double[] bar : bars) {
+            for (int pitchClass = 0; pitchClass < totals.length; pitchClass++) {
+                totals[pitchClass] += bar[pitchClass];
+            }
+        }
+        int[] keys = keyFinder.rank(totals, ScaleSet.rankedScales(advanced), 1, new double[ScaleSet.SCALE_COUNT]);
+        if (keys.length == 0) {
+            return new MidiAnalysis(null, List.of());
+        }
+
+        Note[] spellings = patternCalculator.getKeySpellings(Note.ofPitchClass(ScaleSet.tonicOf(keys[0])),
+                ScaleSet.qualityOf(keys[0]));
+        List<BarChord> chords = new ArrayList<>(bars.length);
+        for (int i = 0; i < bars.length; i++) {
+            String chord = ChordIdentifier.matchName(ChordIdentifier.bestMatch(bars[i]), spellings);
+            chords.add(new BarChord(i + 1, chord));
+        }
+        return new MidiAnalysis(ScaleSet.name(keys[0]), chords);
+    }
+
+    /**
+     * Returns the pitch-class histogram of each bar, up to the last bar with a note in it.
+     *
+     * @throws IllegalArgumentException if the file is not a Standard MIDI File with a ticks-per-quarter
+     * time division, is truncated, or runs past MAX_BARS bars
+     */
+    public static double[][] barHistograms(ByteBuffer file) {
+        ByteBuffer buffer = file.duplicate().order(ByteOrder.BIG_ENDIAN);
+        List<ByteBuffer> tracks = new ArrayList<>();
+        int division;
+        try {
+            if (buffer.remaining() < 14 || buffer.getInt() != HEADER_CHUNK) {
+                throw new IllegalArgumentException("Not a standard MIDI file");
+            }
+            int headerLength = buffer.getInt();
+            int headerStart = buffer.position();
+            if (headerLength < 6 || headerLength > buffer.remaining()) {
+                throw new IllegalArgumentException("Invalid MIDI header");
+            }
+            buffer.getShort(); // Format: 0, 1 and 2 are all read as a list of tracks
+            int trackCount = buffer.getShort() & 0xFFFF;
+            division = buffer.getShort() & 0xFFFF;
+            if ((division & 0x8000) != 0 || division == 0) {
+                throw new IllegalArgumentException("SMPTE time division is not supported");
+            }
+            buffer.position(headerStart + headerLength);
+
+            while (buffer.remaining() >= 8 && tracks.size() < trackCount) {
+                int type = buffer.getInt();
+                long length = buffer.getInt() & 0xFFFFFFFFL;
+                if (length > buffer.remaining()) {
+                    throw new IllegalArgumentException("Truncated MIDI file");
+                }
+                // Chunks of other types are skipped, as the format asks
+                if (type == TRACK_CHUNK) {
+                    tracks.add(buffer.slice(buffer.position(), (int) length));
+                }
+                buffer.position(buffer.position() + (int) length);
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated MIDI file", e);
+        }
+        if (tracks.isEmpty()) {
+            return new double[0][];
+        }
+
+        BarLines barLines = new BarLines(division);
+        Histogram first = fold(tracks.get(0), barLines, true);
+        return tracks.subList(1, tracks.size()).parallelStream()
+                .map(track -> fold(track, barLines, false))
+                .reduce(Histogram::merge)
+                .map(rest -> rest.merge(first))
+                .orElse(first)
+                .toBars();
+    }
+
+    private static Histogram fold(ByteBuffer track, BarLines barLines, boolean conductor) {
+        Histogram histogram = new Histogram();
+        long[] starts = new long[CHANNEL_COUNT * KEY_COUNT];
+        Arrays.fill(starts, -1);
+        long tick = 0;
+        int status = 0;
+        try {
+            while (track.hasRemaining()) {
+                tick += readVariableLength(track);
+                int first = track.get() & 0xFF;
+                if (first == 0xFF) {
+                    int type = track.get() & 0xFF;
+                    int length = readVariableLength(track);
+                    if (type == 0x2F) {
+                        break;
+                    }
+                    int data = track.position();
+                    skip(track, length);
+                    if (type == 0x58 && conductor && length >= 2) {
+                        barLines.timeSignature(tick, track.get(data) & 0xFF, track.get(data + 1) & 0xFF);
+                    }
+                    continue;
+                }
+                if (first == 0xF0 || first == 0xF7) {
+                    skip(track, readVariableLength(track));
+                    continue;
+                }
+
+                int data1;
+                if (first >= 0x80) {
+                    if (first > 0xEF) {
+                        throw new IllegalArgumentException("Unexpected status byte in MIDI track");
+                    }
+                    status = first;
+                    data1 = track.get() & 0x7F;
+                } else if (status != 0) {
+                    // Running status: the previous channel message's status byte is implied
+                    data1 = first;
+                } else {
+                    throw new IllegalArgumentException("MIDI track data without a status byte");
+                }
+                int command = status & 0xF0;
+                if (command == 0xC0 || command == 0xD0) {
+                    continue;
+                }
+                int data2 = track.get() & 0x7F;
+                int channel = status & 0x0F;
+                if (channel == DRUM_CHANNEL || command != 0x80 && command != 0x90) {
+                    continue;
+                }
+
+                int key = channel * KEY_COUNT + data1;
+                if (starts[key] >= 0) {
+                    histogram.add(barLines, data1 % PitchClassSet.PITCH_CLASS_COUNT, starts[key], tick);
+                }
+                // A note-on with velocity 0 is a note-off; a repeated note-on restarts the note
+                starts[key] = command == 0x90 && data2 > 0 ? tick : -1;
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated MIDI track", e);
+        }
+
+        for (int key = 0; key < starts.length; key++) {
+            if (starts[key] >= 0) {
+                histogram.add(barLines, key % KEY_COUNT % PitchClassSet.PITCH_CLASS_COUNT, starts[key], tick);
+            }
+        }
+        return histogram;
+    }
+
+    private static int readVariableLength(ByteBuffer buffer) {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int b = buffer.get() & 0xFF;
+            value = value << 7 | b & 0x7F;
+            if (b < 0x80) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Variable-length quantity longer than 4 bytes in MIDI track");
+    }
+
+    private static void skip(ByteBuffer buffer, int length) {
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        buffer.position(buffer.position() + length);
+    }
+
+    /**
+     * Where bars start: a list of segments of equal-length bars, one per time signature change, 4/4
+     * until the first. A change takes effect at the first bar line at or after its tick.
+     */
+    private static final class BarLines {
+        private final int division;
+        private long[] startTicks = {0};
+        private int[] startBars = {0};
+        private long[] barLengths;
+        private int count = 1;
+
+        BarLines(int division) {
+            this.division = division;
+            this.barLengths = new long[] {4L * division};
+        }
+
+        void timeSignature(long tick, int numerator, int denominatorPower) {
+            long length = denominatorPower > 16 ? 0 : (4L * division * numerator) >> denominatorPower;
+            if (length < 1) {
+                return;
+            }
+            int bar = barAt(tick);
+            long barStart = startOf(bar);
+            if (barStart < tick) {
+                bar++;
+                barStart = startOf(bar);
+            }
+            if (barStart == startTicks[count - 1]) {
+                barLengths[count - 1] = length;
+                return;
+            }
+            if (count == startTicks.length) {
+                startTicks = Arrays.copyOf(startTicks, count * 2);
+                startBars = Arrays.copyOf(startBars, count * 2);
+                barLengths = Arrays.copyOf(barLengths, count * 2);
+            }
+            startTicks[count] = barStart;
+            startBars[count] = bar;
+            barLengths[count] = length;
+            count++;
+        }
+
+        int barAt(long tick) {
+            int segment = segmentAt(tick);
+            long bar = startBars[segment] + (tick - startTicks[segment]) / barLengths[segment];
+            if (bar >= MAX_BARS) {
+                throw new IllegalArgumentException("MIDI file is longer than " + MAX_BARS + " bars");
+            }
+            return (int) bar;
+        }
+
+        long startOf(int bar) {
+            int segment = segmentOfBar(bar);
+            return startTicks[segment] + (bar - startBars[segment]) * barLengths[segment];
+        }
+
+        long lengthOf(int bar) {
+            return barLengths[segmentOfBar(bar)];
+        }
+
+        // The last segment starting at or before the tick
+        private int segmentAt(long tick) {
+            int low = 0;
+            int high = count - 1;
+            while (low < high) {
+                int middle = (low + high + 1) >>> 1;
+                if (startTicks[middle] <= tick) {
+                    low = middle;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return low;
+        }
+
+        // The last segment starting at or before the bar
+        private int segmentOfBar(int bar) {
+            int low = 0;
+            int high = count - 1;
+            while (low < high) {
+                int middle = (low + high + 1) >>> 1;
+                if (startBars[middle] <= bar) {
+                    low = middle;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * Pitch-class weights per bar, flat: bar * 12 + pitch class.
+     */
+    private static final class Histogram {
+        private double[] weights = new double[64 * PitchClassSet.PITCH_CLASS_COUNT];
+        private int bars;
+
+        void add(BarLines barLines, int pitchClass, long start, long end) {
+            long from = start;
+            while (from < end) {
+                int bar = barLines.barAt(from);
+                long barEnd = barLines.startOf(bar) + barLines.lengthOf(bar);
+                long to = Math.min(end, barEnd);
+                if (bar >= bars) {
+                    bars = bar + 1;
+                    if (bars * PitchClassSet.PITCH_CLASS_COUNT > weights.length) {
+                        weights = Arrays.copyOf(weights, Math.max(weights.length * 2, bars * PitchClassSet.PITCH_CLASS_COUNT));
+                    }
+                }
+                weights[bar * PitchClassSet.PITCH_CLASS_COUNT + pitchClass] += (double) (to - from) / barLines.lengthOf(bar);
+                from = to;
+            }
+        }
+
+        Histogram merge(Histogram other) {
+            Histogram into = bars >= other.bars ? this : other;
+            Histogram from = into == this ? other : this;
+            for (int i = 0; i < from.bars * PitchClassSet.PITCH_CLASS_COUNT; i++) {
+                into.weights[i] += from.weights[i];
+            }
+            return into;
+        }
+
+        double[][] toBars() {
+            double[][] result = new double[bars][];
+            for (int bar = 0; bar < bars; bar++) {
+                result[bar] = Arrays.copyOfRange(weights, bar * PitchClassSet.PITCH_CLASS_COUNT,
+                        (bar + 1) * PitchClassSet.PITCH_CLASS_COUNT);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.composeit.backend.scaleservice;
+
+import com.composeit.backend.scaleservice.models.Note;
+
+/**
+ * Pitch-class sets packed into the low 12 bits of an {@code int}.
+ *
+ * Bit {@code n} is set when pitch class {@code n} is present, counting semitones up from C
+ * (C = 0, C# = 1, ... B = 11). Enharmonic spellings share a pitch class, so "F#" and "Gb"
+ * both map to bit 6. Every set operation is a single bitwise instruction, which lets the
+ * calculators compare scales and note collections without building note-name lists.
+ *
+ * Example: C major (C D E F G A B) = bits 0, 2, 4, 5, 7, 9, 11 = 0xAB5
+ */
+public final class PitchClassSet {
+    public static final int PITCH_CLASS_COUNT = 12;
+
+    // Number of distinct 12-bit sets, i.e. the size of any table indexed by a set
+    public static final int SET_COUNT = 1 << PITCH_CLASS_COUNT;
+
+    public static final int EMPTY = 0;
+    public static final int CHROMATIC = SET_COUNT - 1;
+
+    private PitchClassSet() {
+    }
+
+    /**
+     * Returns the pitch class (0-11) of a note spelling, or -1 if the spelling is unknown.
+     * Theoretical spellings resolve too (B# = 0, Cb = 11, E# = 5, Fb = 4).
+     */
+    public static int pitchClassOf(String note) {
+        Note parsed = Note.fromName(note);
+        return parsed == null ? -1 : parsed.getPitchClass();
+    }
+
+    public static int of(int pitchClass) {
+        return 1 << pitchClass;
+    }
+
+    public static int with(int set, int pitchClass) {
+        return set | (1 << pitchClass);
+    }
+
+    public static boolean contains(int set, int pitchClass) {
+        return (set & (1 << pitchClass)) != 0;
+    }
+
+    public static boolean isSubset(int subset, int superset) {
+        return (subset & ~superset) == 0;
+    }
+
+    public static int intersection(int a, int b) {
+        return a & b;
+    }
+
+    public static int union(int a, int b) {
+        return a | b;
+    }
+
+    public static int size(int set) {
+        return Integer.bitCount(set);
+    }
+
+    /**
+     * Transposes a set up by the given number of semitones by rotating it within 12 bits.
+     */
+    public static int transpose(int set, int semitones) {
+        int shift = Math.floorMod(semitones, PITCH_CLASS_COUNT);
+        return ((set << shift) | (set >>> (PITCH_CLASS_COUNT - shift))) & CHROMATIC;
+    }
+}
@@ -1,14 +1,40 @@
 package com.composeit.backend.scaleservice;
 
 import static com.composeit.backend.common.Constants.*;
+import com.composeit.backend.scaleservice.models.Note;
 import com.composeit.backend.scaleservice.models.Quality;
+
+import io.micrometer.core.instrument.Timer;
+
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 public class ProgressionCalculator {
+    private final Timer commonProgressionsTimer;
+    private final Timer relativeScaleTimer;
+    private final Timer parallelScaleTimer;
+
+    public ProgressionCalculator() {
+        this(ScaleMetrics.NOOP);
+    }
+
+    public ProgressionCalculator(ScaleMetrics metrics) {
+        this.commonProgressionsTimer = metrics.timer(ProgressionCalculator.class, "createCommonProgressions");
+        this.relativeScaleTimer = metrics.timer(ProgressionCalculator.class, "findRelativeScale");
+        this.parallelScaleTimer = metrics.timer(ProgressionCalculator.class, "findParallelScale");
+    }
+
     public List<List<String>> createCommonProgressions(Quality quality) {
+        long start = System.nanoTime();
+        List<List<String>> progressions = commonProgressions(quality);
+        ScaleMetrics.recordSince(commonProgressionsTimer, start);
+        return progressions;
+    }
+
+    // Untimed, for building the profile table at startup
+    List<List<String>> commonProgressions(Quality quality) {
         if (quality == null) {
             return Collections.emptyList();
         }
@@ -62,6 +88,13 @@ public class ProgressionCalculator {
     }
 
     public String findRelativeScale(List<String> semitones, Quality quality) {
+        long start = System.nanoTime();
+        String relativeScale = relativeScale(semitones, quality);
+        ScaleMetrics.recordSince(relativeScaleTimer, start);
+        return relativeScale;
+    }
+
+    String relativeScale(List<String> semitones, Quality quality) {
         if (semitones == null || semitones.isEmpty() || quality == null) {
             return null;
         }
@@ -99,12 +132,19 @@ public class ProgressionCalculator {
     }
     
     public String findParallelScale(String tonic, Quality quality) {
+        long start = System.nanoTime();
+        String parallelScale = parallelScale(tonic, quality);
+        ScaleMetrics.recordSince(parallelScaleTimer, start);
+        return parallelScale;
+    }
+
+    String parallelScale(String tonic, Quality quality) {
         if (tonic == null || quality == null) {
             return null;
         }
 
         // Validate that the tonic is a valid note
-        if (!ALL_NOTES.contains(tonic)) {
+        if (Note.fromName(tonic) == null) {
             return null;
         }
 
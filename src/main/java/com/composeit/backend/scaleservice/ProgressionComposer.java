@@ -0,0 +1,87 @@
+package com.composeit.backend.scaleservice;
+
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import com.composeit.backend.scaleservice.models.GeneratedProgression;
+import com.composeit.backend.scaleservice.models.ProgressionOrder;
+import com.composeit.backend.scaleservice.models.Quality;
+
+/**
+ * Generates progressions in a key: picks the ProgressionGenerator for the scale's quality and names
+ * each progression's chords and roman numerals from ChordCalculator.
+ */
+public class ProgressionComposer {
+    private final ChordCalculator chordCalculator;
+
+    // Progression generators indexed by quality ordinal; null for the diminished scale, which has no diatonic chords
+    private final ProgressionGenerator[] generators = new ProgressionGenerator[ScaleSet.QUALITY_COUNT];
+
+    public ProgressionComposer(ScalePatternCalculator patternCalculator, ChordCalculator chordCalculator) {
+        this.chordCalculator = chordCalculator;
+        for (Quality quality : Quality.values()) {
+            if (quality == Quality.DIMINISHED) {
+                continue;
+            }
+            // Chord roots are the scale degrees, so their intervals are the pitch classes of the scale on C
+            int mask = patternCalculator.getScaleMask(0, quality);
+            int[] rootIntervals = new int[PitchClassSet.size(mask)];
+            int degree = 0;
+            for (int pitchClass = 0; pitchClass < PitchClassSet.PITCH_CLASS_COUNT; pitchClass++) {
+                if (PitchClassSet.contains(mask, pitchClass)) {
+                    rootIntervals[degree++] = pitchClass;
+                }
+            }
+            generators[quality.ordinal()] = new ProgressionGenerator(rootIntervals);
+        }
+    }
+
+    /**
+     * Generates progressions of the given length over the scale's diatonic chords, scored as described
+     * in ProgressionGenerator. RANKED returns the best limit progressions, best first; ENUMERATED returns
+     * up to limit of every progression in order of scale degrees, and SAMPLED limit random walks from the
+     * seed. The latter two are computed as the stream is consumed, so a caller can stop early. With
+     * cadence set, only progressions ending in an authentic or plagal cadence are returned. The stream is
+     * empty for an unknown tonic and for the diminished scale, which has no diatonic chords.
+     *
+     * @throws IllegalArgumentException if length is not between 1 and ProgressionGenerator.MAX_LENGTH,
+     * or limit is below 1
+     */
+    public Stream<GeneratedProgression> generate(String tonic, Quality quality, int length, int limit,
+            ProgressionOrder order, boolean cadence, long seed) {
+        if (length < 1 || length > ProgressionGenerator.MAX_LENGTH) {
+            throw new IllegalArgumentException("Length must be between 1 and " + ProgressionGenerator.MAX_LENGTH);
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        if (quality == null || order == null || generators[quality.ordinal()] == null) {
+            return Stream.empty();
+        }
+        List<String> chords = chordCalculator.chordsFromScale(tonic, quality);
+        if (chords.isEmpty()) {
+            return Stream.empty();
+        }
+
+        ProgressionGenerator generator = generators[quality.ordinal()];
+        LongStream progressions = switch (order) {
+            case RANKED -> LongStream.of(generator.rank(length, limit, cadence));
+            case ENUMERATED -> generator.enumerate(length, cadence);
+            case SAMPLED -> generator.sample(length, cadence, seed);
+        };
+
+        List<String> positions = chordCalculator.getNumerals(quality);
+        return progressions.limit(limit).mapToObj(progression -> {
+            String[] chordNames = new String[length];
+            String[] chordPositions = new String[length];
+            for (int i = 0; i < length; i++) {
+                int degree = ProgressionGenerator.chordAt(progression, i);
+                chordNames[i] = chords.get(degree);
+                chordPositions[i] = positions.get(degree);
+            }
+            return new GeneratedProgression(List.of(chordNames), List.of(chordPositions),
+                    generator.score(progression, length), generator.endsInCadence(progression, length));
+        });
+    }
+}
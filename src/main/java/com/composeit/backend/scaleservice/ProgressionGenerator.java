@@ -0,0 +1,460 @@
+package com.composeit.backend.scaleservice;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.SplittableRandom;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Generates chord progressions over the diatonic chords of one scale quality, scored by a weighted
+ * transition matrix.
+ *
+ * Chords are numbered by scale degree and a progression of length n is packed into a {@code long},
+ * 4 bits per chord with the first chord in the lowest bits, so enumerating, ranking and sampling run
+ * on primitive arrays without allocating per sequence. A progression's score is the sum of the log
+ * weights of its opening chord, each transition, and its close, so higher is more idiomatic:
+ *
+ * - each chord has a function given by its root's interval above the tonic: tonic (I, iii, vi),
+ *   predominant (ii, IV) or dominant (V, vii°); transitions are weighted by function, with a bonus
+ *   for a root falling a fifth
+ * - a chord never follows itself
+ * - progressions prefer to open and close on the tonic chord, and closing with V-I (authentic) or
+ *   IV-I (plagal) is a cadence, which is weighted up and can be required
+ */
+public class ProgressionGenerator {
+    public static final int MAX_LENGTH = 12;
+
+    private static final int BITS_PER_CHORD = 4;
+    private static final long CHORD_MASK = (1L << BITS_PER_CHORD) - 1;
+
+    private static final int TONIC = 0;
+    private static final int PREDOMINANT = 1;
+    private static final int DOMINANT = 2;
+
+    // Weight of moving from one function to another, indexed by [from][to]
+    private static final double[][] FLOW = {
+        {0.4, 1.0, 0.6},
+        {0.3, 0.4, 1.0},
+        {1.0, 0.1, 0.3}
+    };
+    private static final double FALLING_FIFTH = 1.5;
+    private static final double AUTHENTIC_CADENCE = 2.0;
+    private static final double PLAGAL_CADENCE = 1.3;
+    // Consecutive walks without a cadence after which a cadence-only sample stream ends
+    static final int MAX_REJECTED_WALKS = 10_000;
+
+    private final int size;
+
+    // Log weights; transitions, cadences and the cadence flags are indexed by [from * size + to]
+    private final double[] start;
+    private final double[] transition;
+    private final double[] close;
+    private final double[] cadence;
+    private final boolean[] isCadence;
+    private final boolean hasCadence;
+
+    // Upper bounds for pruning the ranked search
+    private final double maxTransition;
+    private final double maxClose;
+
+    /**
+     * @param rootIntervals semitones above the tonic of each chord's root, in degree order
+     */
+    public ProgressionGenerator(int[] rootIntervals) {
+        this.size = rootIntervals.length;
+        this.start = new double[size];
+        this.transition = new double[size * size];
+        this.close = new double[size];
+        this.cadence = new double[size * size];
+        this.isCadence = new boolean[size * size];
+
+        double maxTransition = Double.NEGATIVE_INFINITY;
+        double maxClose = Double.NEGATIVE_INFINITY;
+        for (int from = 0; from < size; from++) {
+            int fromFunction = function(rootIntervals[from]);
+            start[from] = Math.log(rootIntervals[from] == 0 ? 1.0 : fromFunction == TONIC ? 0.3 : 0.1);
+            close[from] = Math.log(rootIntervals[from] == 0 ? 1.0 : fromFunction == DOMINANT ? 0.4 : 0.1);
+            for (int to = 0; to < size; to++) {
+                int index = from * size + to;
+                if (from == to) {
+                    transition[index] = Double.NEGATIVE_INFINITY;
+                    continue;
+                }
+                double weight = FLOW[fromFunction][function(rootIntervals[to])];
+                if (Math.floorMod(rootIntervals[to] - rootIntervals[from], PitchClassSet.PITCH_CLASS_COUNT) == 5) {
+                    weight *= FALLING_FIFTH;
+                }
+                transition[index] = Math.log(weight);
+                maxTransition = Math.max(maxTransition, transition[index]);
+
+                if (rootIntervals[to] == 0 && fromFunction != TONIC) {
+                    isCadence[index] = true;
+                    cadence[index] = Math.log(fromFunction == DOMINANT ? AUTHENTIC_CADENCE : PLAGAL_CADENCE);
+                }
+                maxClose = Math.max(maxClose, close[to] + cadence[index]);
+            }
+        }
+        boolean hasCadence = false;
+        for (boolean cadential : isCadence) {
+            hasCadence |= cadential;
+        }
+        this.hasCadence = hasCadence;
+        this.maxTransition = maxTransition;
+        this.maxClose = size == 1 ? close[0] : maxClose;
+    }
+
+    private static int function(int interval) {
+        return switch (interval) {
+            case 0, 3, 4, 8, 9 -> TONIC;
+            case 7, 10, 11 -> DOMINANT;
+            default -> PREDOMINANT;
+        };
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public static int chordAt(long progression, int position) {
+        return (int) ((progression >>> (position * BITS_PER_CHORD)) & CHORD_MASK);
+    }
+
+    /**
+     * Returns the score of a packed progression, or negative infinity if it repeats a chord back to back.
+     */
+    public double score(long progression, int length) {
+        int first = chordAt(progression, 0);
+        double score = start[first];
+        int previous = first;
+        for (int i = 1; i < length; i++) {
+            int chord = chordAt(progression, i);
+            score += transition[previous * size + chord];
+            previous = chord;
+        }
+        score += close[previous];
+        if (length > 1) {
+            score += cadence[chordAt(progression, length - 2) * size + previous];
+        }
+        return score;
+    }
+
+    /**
+     * Returns whether a packed progression of at least two chords ends in a cadence.
+     */
+    public boolean endsInCadence(long progression, int length) {
+        return length > 1 && isCadence[chordAt(progression, length - 2) * size + chordAt(progression, length - 1)];
+    }
+
+    /**
+     * Lazily enumerates every progression of the given length with no chord repeated back to back, in
+     * lexicographic order of degrees. Nothing is computed beyond what the stream consumes.
+     */
+    public LongStream enumerate(int length, boolean requireCadence) {
+        checkLength(length);
+        if (size < 2 && length > 1) {
+            return LongStream.empty();
+        }
+        Spliterator.OfLong spliterator = Spliterators.spliteratorUnknownSize(
+                new Enumeration(length), Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL);
+        LongStream progressions = StreamSupport.longStream(spliterator, false);
+        return requireCadence ? progressions.filter(p -> endsInCadence(p, length)) : progressions;
+    }
+
+    /**
+     * Returns the best {@code limit} progressions of the given length, best first; ties go to the
+     * lexicographically smaller one. A depth-first search keeps a bounded min-heap of the best so far
+     * and prunes any prefix that cannot beat the worst of them.
+     */
+    public long[] rank(int length, int limit, boolean requireCadence) {
+        checkLength(length);
+        Ranking ranking = new Ranking(length, limit, requireCadence);
+        for (int first = 0; first < size; first++) {
+            ranking.search(first, 1, start[first]);
+        }
+        return ranking.sorted();
+    }
+
+    /**
+     * Lazily samples progressions by a random walk over the weights, with the last chord also weighted
+     * by its close and cadence. The same seed gives the same samples; samples may repeat.
+     *
+     * With a cadence required, walks without one are dropped, and the stream ends after
+     * MAX_REJECTED_WALKS of them in a row; it is empty if no progression of the length can end in a
+     * cadence, as for a single chord.
+     */
+    public LongStream sample(int length, boolean requireCadence, long seed) {
+        checkLength(length);
+        if (size < 2 && length > 1 || requireCadence && (length < 2 || !hasCadence)) {
+            return LongStream.empty();
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] weights = new double[size];
+        if (!requireCadence) {
+            return LongStream.generate(() -> walk(length, random, weights));
+        }
+        Spliterator.OfLong spliterator = Spliterators.spliteratorUnknownSize(
+                new CadentialSamples(length, random, weights), Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.longStream(spliterator, false);
+    }
+
+    private long walk(int length, SplittableRandom random, double[] weights) {
+        for (int chord = 0; chord < size; chord++) {
+            weights[chord] = Math.exp(start[chord] + (length == 1 ? close[chord] : 0));
+        }
+        int previous = pick(weights, random);
+        long progression = previous;
+        for (int i = 1; i < length; i++) {
+            for (int chord = 0; chord < size; chord++) {
+                int index = previous * size + chord;
+                double weight = transition[index];
+                if (i == length - 1) {
+                    weight += close[chord] + cadence[index];
+                }
+                weights[chord] = Math.exp(weight);
+            }
+            previous = pick(weights, random);
+            progression |= (long) previous << (i * BITS_PER_CHORD);
+        }
+        return progression;
+    }
+
+    private static int pick(double[] weights, SplittableRandom random) {
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        double target = random.nextDouble() * total;
+        for (int i = 0; i < weights.length - 1; i++) {
+            target -= weights[i];
+            if (target < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private static void checkLength(int length) {
+        if (length < 1 || length > MAX_LENGTH) {
+            throw new IllegalArgumentException("Length must be between 1 and " + MAX_LENGTH);
+        }
+    }
+
+    /**
+     * Depth-first enumeration with an explicit stack: next[d] is the next chord to try at depth d.
+     */
+    private final class Enumeration implements PrimitiveIterator.OfLong {
+        private final int length;
+        private final int[] next;
+        private long progression;
+        private int depth;
+        private boolean ready;
+
+        Enumeration(int length) {
+            this.length = length;
+            this.next = new int[length];
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (ready) {
+                return true;
+            }
+            while (depth >= 0) {
+                if (depth == length) {
+                    depth--;
+                    ready = true;
+                    return true;
+                }
+                int chord = next[depth]++;
+                if (chord == size) {
+                    next[depth] = 0;
+                    depth--;
+                    continue;
+                }
+                if (depth > 0 && chord == chordAt(progression, depth - 1)) {
+                    continue;
+                }
+                long shift = depth * BITS_PER_CHORD;
+                progression = (progression & ~(CHORD_MASK << shift)) | ((long) chord << shift);
+                depth++;
+            }
+            return false;
+        }
+
+        @Override
+        public long nextLong() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ready = false;
+            return progression;
+        }
+    }
+
+    /**
+     * Walks until one ends in a cadence, giving up after MAX_REJECTED_WALKS in a row that do not.
+     */
+    private final class CadentialSamples implements PrimitiveIterator.OfLong {
+        private final int length;
+        private final SplittableRandom random;
+        private final double[] weights;
+        private long progression;
+        private boolean ready;
+        private boolean done;
+
+        CadentialSamples(int length, SplittableRandom random, double[] weights) {
+            this.length = length;
+            this.random = random;
+            this.weights = weights;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (ready || done) {
+                return ready;
+            }
+            for (int rejected = 0; rejected < MAX_REJECTED_WALKS; rejected++) {
+                progression = walk(length, random, weights);
+                if (endsInCadence(progression, length)) {
+                    ready = true;
+                    return true;
+                }
+            }
+            done = true;
+            return false;
+        }
+
+        @Override
+        public long nextLong() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ready = false;
+            return progression;
+        }
+    }
+
+    private final class Ranking {
+        private final int length;
+        private final boolean requireCadence;
+        private final double[] scores;
+        private final long[] progressions;
+        private long progression;
+        private int count;
+
+        Ranking(int length, int limit, boolean requireCadence) {
+            this.length = length;
+            this.requireCadence = requireCadence;
+            this.scores = new double[limit];
+            this.progressions = new long[limit];
+        }
+
+        void search(int chord, int depth, double partial) {
+            long shift = (depth - 1) * BITS_PER_CHORD;
+            progression = (progression & ~(CHORD_MASK << shift)) | ((long) chord << shift);
+            if (depth == length) {
+                offer(partial);
+                return;
+            }
+            if (count == scores.length && partial + (length - depth) * maxTransition + maxClose < scores[0]) {
+                return;
+            }
+            for (int nextChord = 0; nextChord < size; nextChord++) {
+                if (nextChord != chord) {
+                    search(nextChord, depth + 1, partial + transition[chord * size + nextChord]);
+                }
+            }
+        }
+
+        private void offer(double partial) {
+            int last = chordAt(progression, length - 1);
+            double score = partial + close[last];
+            if (length > 1) {
+                int index = chordAt(progression, length - 2) * size + last;
+                if (requireCadence && !isCadence[index]) {
+                    return;
+                }
+                score += cadence[index];
+            } else if (requireCadence) {
+                return;
+            }
+
+            if (count < scores.length) {
+                scores[count] = score;
+                progressions[count] = progression;
+                siftUp(count++);
+            } else if (isBetter(score, progression, scores[0], progressions[0])) {
+                scores[0] = score;
+                progressions[0] = progression;
+                siftDown(0, count);
+            }
+        }
+
+        // Lexicographic order of degrees is the order of the reversed packing, so compare chord by chord
+        private boolean isBetter(double scoreA, long a, double scoreB, long b) {
+            if (scoreA != scoreB) {
+                return scoreA > scoreB;
+            }
+            for (int i = 0; i < length; i++) {
+                int chordA = chordAt(a, i);
+                int chordB = chordAt(b, i);
+                if (chordA != chordB) {
+                    return chordA < chordB;
+                }
+            }
+            return false;
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (!isBetter(scores[parent], progressions[parent], scores[index], progressions[index])) {
+                    return;
+                }
+                swap(parent, index);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index, int heapSize) {
+            while (true) {
+                int worst = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if (left < heapSize && isBetter(scores[worst], progressions[worst], scores[left], progressions[left])) {
+                    worst = left;
+                }
+                if (right < heapSize && isBetter(scores[worst], progressions[worst], scores[right], progressions[right])) {
+                    worst = right;
+                }
+                if (worst == index) {
+                    return;
+                }
+                swap(index, worst);
+                index = worst;
+            }
+        }
+
+        private void swap(int i, int j) {
+            double score = scores[i];
+            scores[i] = scores[j];
+            scores[j] = score;
+            long progression = progressions[i];
+            progressions[i] = progressions[j];
+            progressions[j] = progression;
+        }
+
+        long[] sorted() {
+            long[] ranked = new long[count];
+            for (int size = count; size > 0; size--) {
+                ranked[size - 1] = progressions[0];
+                swap(0, size - 1);
+                siftDown(0, size - 1);
+            }
+            return ranked;
+        }
+    }
+}
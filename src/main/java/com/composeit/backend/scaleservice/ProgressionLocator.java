@@ -0,0 +1,169 @@
+package com.composeit.backend.scaleservice;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.composeit.backend.scaleservice.models.LocatedProgression;
+import com.composeit.backend.scaleservice.models.Quality;
+
+import io.micrometer.core.instrument.Counter;
+
+/**
+ * Finds every key a chord progression fits, with the degree of each chord in it.
+ *
+ * A progression's fingerprint is each chord's root interval above the first chord's root, with its
+ * chord quality, which is the same in every key. Each scale quality has a table from (root interval
+ * above the tonic, chord quality) to the degree with that chord, built once on C. Placing the first
+ * chord on each degree with its quality fixes the tonic, and the rest of the fingerprint is looked up
+ * in the table shifted by that degree, so all 12 tonics are covered without building a chord list.
+ */
+public class ProgressionLocator {
+    // Indexed by [quality ordinal][root interval * QUALITY_COUNT + chord quality ordinal]; -1 if no degree has that chord
+    private final byte[][] degreeByChord = new byte[ScaleSet.QUALITY_COUNT][];
+
+    // Indexed by [quality ordinal][degree]; null for qualities without diatonic chords
+    private final int[][] rootIntervals = new int[ScaleSet.QUALITY_COUNT][];
+    private final Quality[][] chordPatterns = new Quality[ScaleSet.QUALITY_COUNT][];
+
+    private final ChordCalculator chordCalculator;
+    private final Counter[] chordParseFailures;
+
+    public ProgressionLocator(ScalePatternCalculator patternCalculator, ChordCalculator chordCalculator) {
+        this(patternCalculator, chordCalculator, ScaleMetrics.NOOP);
+    }
+
+    public ProgressionLocator(ScalePatternCalculator patternCalculator, ChordCalculator chordCalculator,
+            ScaleMetrics metrics) {
+        this.chordCalculator = chordCalculator;
+        this.chordParseFailures = metrics.parseFailures("chord");
+        for (Quality quality : Quality.values()) {
+            // The 8-note diminished scale has no diatonic chord pattern
+            if (quality == Quality.DIMINISHED) {
+                continue;
+            }
+
+            int mask = patternCalculator.getScaleMask(0, quality);
+            Quality[] chordPattern = chordCalculator.getChordPattern(quality);
+            int[] intervals = new int[PitchClassSet.size(mask)];
+            byte[] table = new byte[PitchClassSet.PITCH_CLASS_COUNT * ScaleSet.QUALITY_COUNT];
+            Arrays.fill(table, (byte) -1);
+            int degree = 0;
+            for (int pitchClass = 0; pitchClass < PitchClassSet.PITCH_CLASS_COUNT; pitchClass++) {
+                if (PitchClassSet.contains(mask, pitchClass)) {
+                    table[chordIndex(pitchClass, chordPattern[degree])] = (byte) degree;
+                    intervals[degree++] = pitchClass;
+                }
+            }
+
+            degreeByChord[quality.ordinal()] = table;
+            rootIntervals[quality.ordinal()] = intervals;
+            chordPatterns[quality.ordinal()] = chordPattern;
+        }
+    }
+
+    /**
+     * Returns every scale the chord progression fits, listed like ScaleCalculator.getScaleFromChords,
+     * each with the roman numeral of every chord in it: Dm G C reads ii V I in C MAJOR and iv VII III
+     * in A MINOR. Returns none if a chord cannot be parsed or has no triad (e.g. sus4).
+     */
+    public List<LocatedProgression> locate(List<String> inputChords, boolean advanced) {
+        if (inputChords == null || inputChords.isEmpty()) {
+            return List.of();
+        }
+
+        int[] roots = new int[inputChords.size()];
+        Quality[] chordQualities = new Quality[inputChords.size()];
+        long[] candidates = ScaleSet.chordSearchScales(advanced).clone();
+        for (int i = 0; i < roots.length; i++) {
+            int code = ChordCode.parse(inputChords.get(i));
+            if (!ChordCode.isValid(code)) {
+                chordParseFailures[ScaleMetrics.index(advanced)].increment();
+                return List.of();
+            }
+            roots[i] = ChordCode.rootPitchClass(code);
+            chordQualities[i] = ChordCode.quality(code);
+            // Keys are matched on diatonic triads, which a chord without one (e.g. sus4) is never among
+            if (chordQualities[i] == null) {
+                return List.of();
+            }
+            // The fingerprint places triads; the keys must also hold each chord's added tones
+            ScaleSet.retainAll(candidates, chordCalculator.scalesWithChord(code));
+        }
+
+        int[][] degrees = new int[ScaleSet.SCALE_COUNT][];
+        long[] found = locate(roots, chordQualities, candidates, degrees);
+        List<LocatedProgression> located = new ArrayList<>(ScaleSet.size(found));
+        for (int id = ScaleSet.nextScale(found, 0); id >= 0; id = ScaleSet.nextScale(found, id + 1)) {
+            List<String> chordNumerals = getNumerals(ScaleSet.qualityOf(id));
+            String[] positions = new String[roots.length];
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = chordNumerals.get(degrees[id][i]);
+            }
+            located.add(new LocatedProgression(ScaleSet.name(id), List.of(positions)));
+        }
+        return located;
+    }
+
+    /**
+     * Locates a progression, given as the root pitch class and chord quality of each chord, among the
+     * candidate scales. For each scale it fits, the degree of each chord is written to degrees[id].
+     *
+     * @return the ScaleSet of the candidates the progression fits
+     */
+    public long[] locate(int[] roots, Quality[] chordQualities, long[] candidates, int[][] degrees) {
+        long[] found = ScaleSet.empty();
+        if (roots.length == 0) {
+            return found;
+        }
+
+        int[] fingerprint = new int[roots.length];
+        for (int i = 0; i < roots.length; i++) {
+            fingerprint[i] = Math.floorMod(roots[i] - roots[0], PitchClassSet.PITCH_CLASS_COUNT);
+        }
+
+        for (Quality quality : Quality.values()) {
+            byte[] table = degreeByChord[quality.ordinal()];
+            if (table == null) {
+                continue;
+            }
+            int[] intervals = rootIntervals[quality.ordinal()];
+            Quality[] chordPattern = chordPatterns[quality.ordinal()];
+            for (int first = 0; first < intervals.length; first++) {
+                if (chordPattern[first] != chordQualities[0]) {
+                    continue;
+                }
+                int tonic = Math.floorMod(roots[0] - intervals[first], PitchClassSet.PITCH_CLASS_COUNT);
+                int id = ScaleSet.id(tonic, quality);
+                if (!ScaleSet.contains(candidates, id)) {
+                    continue;
+                }
+
+                int[] chordDegrees = new int[roots.length];
+                chordDegrees[0] = first;
+                boolean fits = true;
+                for (int i = 1; i < roots.length && fits; i++) {
+                    int interval = (intervals[first] + fingerprint[i]) % PitchClassSet.PITCH_CLASS_COUNT;
+                    chordDegrees[i] = table[chordIndex(interval, chordQualities[i])];
+                    fits = chordDegrees[i] >= 0;
+                }
+                if (fits) {
+                    ScaleSet.add(found, id);
+                    degrees[id] = chordDegrees;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns the roman numeral of each of the quality's chords, in degree order.
+     */
+    public List<String> getNumerals(Quality quality) {
+        return chordCalculator.getNumerals(quality);
+    }
+
+    private static int chordIndex(int rootInterval, Quality chordQuality) {
+        return rootInterval * ScaleSet.QUALITY_COUNT + chordQuality.ordinal();
+    }
+}
@@ -0,0 +1,76 @@
+package com.composeit.backend.scaleservice;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.composeit.backend.scaleservice.models.Note;
+import com.composeit.backend.scaleservice.models.Quality;
+import com.composeit.backend.scaleservice.models.VoiceLeading;
+import com.composeit.backend.scaleservice.models.Voicing;
+
+import io.micrometer.core.instrument.Counter;
+
+/**
+ * Voices a progression given by chord names: parses the chords, runs a VoiceLeader over the range,
+ * and names every voiced note with its octave in the spelling of its chord's root.
+ */
+public class ProgressionVoicer {
+    private final Counter[] chordParseFailures;
+
+    public ProgressionVoicer() {
+        this(ScaleMetrics.NOOP);
+    }
+
+    public ProgressionVoicer(ScaleMetrics metrics) {
+        this.chordParseFailures = metrics.parseFailures("chord");
+    }
+
+    /**
+     * Voices each chord of the progression with the given number of voices between the MIDI notes low
+     * and high (inclusive), minimizing the total voice movement; see VoiceLeader. Extensions are not
+     * voiced, only the triad and a slash bass. Returns no voicings if a chord cannot be parsed or has
+     * no triad (sus, augmented and power chords).
+     *
+     * @throws IllegalArgumentException if the range or number of voices is out of bounds, or a chord
+     * has no voicing in the range
+     */
+    public VoiceLeading lead(List<String> inputChords, int low, int high, int voices) {
+        VoiceLeader leader = new VoiceLeader(low, high, voices);
+        if (inputChords == null || inputChords.isEmpty()) {
+            return new VoiceLeading(List.of(), 0);
+        }
+
+        int[] codes = new int[inputChords.size()];
+        int[] roots = new int[codes.length];
+        Quality[] chordQualities = new Quality[codes.length];
+        int[] basses = new int[codes.length];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = ChordCode.parse(inputChords.get(i));
+            if (!ChordCode.isValid(codes[i])) {
+                chordParseFailures[ScaleMetrics.index(false)].increment();
+                return new VoiceLeading(List.of(), 0);
+            }
+            roots[i] = ChordCode.rootPitchClass(codes[i]);
+            chordQualities[i] = ChordCode.quality(codes[i]);
+            basses[i] = ChordCode.hasBass(codes[i]) ? ChordCode.bassPitchClass(codes[i]) : -1;
+            if (chordQualities[i] == null) {
+                return new VoiceLeading(List.of(), 0);
+            }
+        }
+
+        int[][] notes = leader.lead(roots, chordQualities, basses);
+        List<Voicing> voicings = new ArrayList<>(notes.length);
+        for (int i = 0; i < notes.length; i++) {
+            Note spelling = ChordCode.root(codes[i]);
+            String[] names = new String[voices];
+            for (int v = 0; v < voices; v++) {
+                int note = notes[i][v];
+                Note name = ScalePatternCalculator.formatNoteForDisplay(
+                        Note.ofPitchClass(note % PitchClassSet.PITCH_CLASS_COUNT), spelling);
+                names[v] = name.getName() + (note / PitchClassSet.PITCH_CLASS_COUNT - 1);
+            }
+            voicings.add(new Voicing(inputChords.get(i), notes[i], List.of(names)));
+        }
+        return new VoiceLeading(voicings, VoiceLeader.movement(notes));
+    }
+}
@@ -1,111 +1,418 @@
 package com.composeit.backend.scaleservice;
 
-import static com.composeit.backend.common.Constants.ALL_NOTES;
-import static com.composeit.backend.common.Constants.B_SHARP;
-import static com.composeit.backend.common.Constants.C_FLAT;
-import static com.composeit.backend.common.Constants.ENHARMONIC_MAP;
-import static com.composeit.backend.common.Constants.E_SHARP;
-import static com.composeit.backend.common.Constants.F_FLAT;
-import static com.composeit.backend.common.Constants.SEMITONES;
-
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import com.composeit.backend.scaleservice.models.KeySegment;
+import com.composeit.backend.scaleservice.models.Note;
 import com.composeit.backend.scaleservice.models.Quality;
+import com.composeit.backend.scaleservice.models.RankedScale;
+import com.composeit.backend.scaleservice.models.ScaleDefinition;
 import com.composeit.backend.scaleservice.models.ScaleProfile;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+
 public class ScaleCalculator {
+	/**
+	 * Inverted index from every possible pitch-class set to the names of the scales that
+	 * contain it, one for basic mode (MAJOR and MINOR) and one for advanced mode (all qualities).
+	 * Names are listed by tonic in chromatic order, then by quality, with the flat spelling of a
+	 * sharp tonic following it (e.g. "C# MAJOR", "Db MAJOR"). User-defined scales follow the
+	 * built-in qualities of each tonic in advanced mode, so a calculator with custom scales builds
+	 * its own advanced index.
+	 */
+	private static final List<List<String>> SCALES_BY_SET = buildScaleIndex(false, null);
+	private static final List<List<String>> ADVANCED_SCALES_BY_SET = buildScaleIndex(true, null);
+
 	private final ScalePatternCalculator patternCalculator;
 	private final ChordCalculator chordCalculator;
 	private final ProgressionCalculator progressionCalculator;
+	private final ScaleRanker scaleRanker;
+	private final CustomScaleCalculator customScales;
+	private final List<List<String>> advancedScalesBySet;
+
+	/**
+	 * Every scale profile, keyed by tonic spelling and indexed by quality ordinal. Profiles only
+	 * depend on the tonic's pitch class and the quality, so enharmonic spellings share instances.
+	 */
+	private final Map<Note, ScaleProfile[]> profiles;
+
+	private final Timer semitonesFromScaleTimer;
+	private final Timer scaleFromSemitonesTimer;
+	private final Timer chordsFromScaleTimer;
+	private final Timer scaleFromChordsTimer;
+	private final Timer scaleProfileTimer;
+	private final Timer trackKeysTimer;
+	private final Timer rankScalesTimer;
+	private final Timer customScaleProfileTimer;
+	private final ScaleMetrics.Results[] semitonesFromScaleResults;
+	private final ScaleMetrics.Results[] scaleFromSemitonesResults;
+	private final ScaleMetrics.Results[] chordsFromScaleResults;
+	private final ScaleMetrics.Results[] scaleFromChordsResults;
+	private final ScaleMetrics.Results[] scaleProfileResults;
+	private final Counter[] noteParseFailures;
+	private final Counter[] chordParseFailures;
 
 	public ScaleCalculator() {
+		this(ScaleMetrics.NOOP);
+	}
+
+	public ScaleCalculator(ScaleMetrics metrics) {
+		this(metrics, List.of());
+	}
+
+	/**
+	 * Creates a calculator that also knows the given user-defined scales, which advanced-mode searches
+	 * return after the built-in qualities and which have their own profiles.
+	 */
+	public ScaleCalculator(ScaleMetrics metrics, List<ScaleDefinition> customScales) {
 		this.patternCalculator = new ScalePatternCalculator();
-		this.chordCalculator = new ChordCalculator(patternCalculator);
-		this.progressionCalculator = new ProgressionCalculator();
+		this.chordCalculator = new ChordCalculator(patternCalculator, metrics);
+		this.progressionCalculator = new ProgressionCalculator(metrics);
+		this.scaleRanker = new ScaleRanker(patternCalculator);
+		this.customScales = new CustomScaleCalculator(customScales);
+		this.advancedScalesBySet = this.customScales.isEmpty()
+				? ADVANCED_SCALES_BY_SET
+				: buildScaleIndex(true, this.customScales);
+
+		this.semitonesFromScaleTimer = metrics.timer(ScaleCalculator.class, "getSemitonesFromScale");
+		this.scaleFromSemitonesTimer = metrics.timer(ScaleCalculator.class, "getScaleFromSemitones");
+		this.chordsFromScaleTimer = metrics.timer(ScaleCalculator.class, "getChordsFromScale");
+		this.scaleFromChordsTimer = metrics.timer(ScaleCalculator.class, "getScaleFromChords");
+		this.scaleProfileTimer = metrics.timer(ScaleCalculator.class, "getScaleProfile");
+		this.trackKeysTimer = metrics.timer(ScaleCalculator.class, "trackKeys");
+		this.rankScalesTimer = metrics.timer(ScaleCalculator.class, "rankScales");
+		this.customScaleProfileTimer = metrics.timer(ScaleCalculator.class, "getCustomScaleProfile");
+		this.semitonesFromScaleResults = metrics.resultsByQuality("getSemitonesFromScale");
+		this.scaleFromSemitonesResults = metrics.resultsByAdvanced("getScaleFromSemitones");
+		this.chordsFromScaleResults = metrics.resultsByQuality("getChordsFromScale");
+		this.scaleFromChordsResults = metrics.resultsByAdvanced("getScaleFromChords");
+		this.scaleProfileResults = metrics.resultsByQuality("getScaleProfile");
+		this.noteParseFailures = metrics.parseFailures("note");
+		this.chordParseFailures = metrics.parseFailures("chord");
+
+		this.profiles = buildProfiles();
+	}
+
+	// The shared calculators, for the ScaleService features built on them
+	ScalePatternCalculator getPatternCalculator() {
+		return patternCalculator;
+	}
+
+	ChordCalculator getChordCalculator() {
+		return chordCalculator;
 	}
 
 	public List<String> getSemitonesFromScale(String tonic, Quality quality) {
-		return patternCalculator.getSemitonesFromScale(tonic, quality);
+		long start = System.nanoTime();
+		List<String> semitones = patternCalculator.getSemitonesFromScale(tonic, quality);
+		ScaleMetrics.recordSince(semitonesFromScaleTimer, start);
+		if (quality != null) {
+			semitonesFromScaleResults[quality.ordinal()].record(semitones.size());
+		}
+		return semitones;
 	}
 
 	public List<String> getScaleFromSemitones(List<String> inputSemitones, boolean advanced) {
+		long start = System.nanoTime();
+		List<String> scales = findScalesFromSemitones(inputSemitones, advanced);
+		ScaleMetrics.recordSince(scaleFromSemitonesTimer, start);
+		scaleFromSemitonesResults[ScaleMetrics.index(advanced)].record(scales.size());
+		return scales;
+	}
+
+	/**
+	 * Streams the same names as getScaleFromSemitones. They are read from the shared index, so
+	 * nothing is collected per call.
+	 */
+	public Stream<String> streamScaleFromSemitones(List<String> inputSemitones, boolean advanced) {
+		return getScaleFromSemitones(inputSemitones, advanced).stream();
+	}
+
+	private List<String> findScalesFromSemitones(List<String> inputSemitones, boolean advanced) {
 		if (inputSemitones == null || inputSemitones.isEmpty()) {
 			return List.of();
 		}
 
-		// Validate that all input notes are valid
-		if (inputSemitones.stream().anyMatch(note -> note == null || !ALL_NOTES.contains(note))) {
-			return List.of();
+		// Fold the input into a pitch-class set, so enharmonic spellings (F# and Gb) match alike
+		int pitchClasses = PitchClassSet.EMPTY;
+		for (String name : inputSemitones) {
+			// Theoretical spellings never appear in a generated scale (B# is always written C,
+			// Cb is always written B, ...), so an input containing one of them matches no scale
+			Note note = Note.fromName(name);
+			if (note == null) {
+				noteParseFailures[ScaleMetrics.index(advanced)].increment();
+				return List.of();
+			}
+			if (note.isTheoretical()) {
+				return List.of();
+			}
+			pitchClasses = PitchClassSet.with(pitchClasses, note.getPitchClass());
 		}
 
-		// Add enharmonic equivalents to the input notes
-		List<String> notesWithEquivalents = new ArrayList<>(inputSemitones);
-		for (String note : inputSemitones) {
-			if (ENHARMONIC_MAP.containsKey(note)) {
-				// Add the alternate version (flat/sharp) of the note
-				notesWithEquivalents.add(ENHARMONIC_MAP.get(note)[1]);
+		return advanced ? advancedScalesBySet.get(pitchClasses) : SCALES_BY_SET.get(pitchClasses);
+	}
+
+	private static List<List<String>> buildScaleIndex(boolean advanced, CustomScaleCalculator customScales) {
+		ScalePatternCalculator patternCalculator = new ScalePatternCalculator();
+		List<Quality> qualities = Quality.allowed(advanced);
+
+		// Scale masks and names for every candidate, in the order results are listed
+		List<Integer> masks = new ArrayList<>();
+		List<List<String>> names = new ArrayList<>();
+		for (int tonic = 0; tonic < PitchClassSet.PITCH_CLASS_COUNT; tonic++) {
+			for (Quality quality : qualities) {
+				masks.add(patternCalculator.getScaleMask(tonic, quality));
+				names.add(scaleNames(Note.ofPitchClass(tonic), quality.name()));
+			}
+			if (customScales != null) {
+				List<ScaleDefinition> definitions = customScales.getDefinitions();
+				for (int index = 0; index < definitions.size(); index++) {
+					masks.add(customScales.getScaleMask(customScales.id(tonic, index)));
+					names.add(scaleNames(Note.ofPitchClass(tonic), definitions.get(index).getName()));
+				}
 			}
 		}
 
-		return SEMITONES.stream()
-			.filter(tonic -> !tonic.equals(B_SHARP) && !tonic.equals(E_SHARP)) // Skip theoretical scales
-			.flatMap(tonic -> Quality.allowed(advanced).stream()
-				.map(quality -> Map.entry(tonic, quality)))
-			.filter(entry -> {
-				List<String> scaleSemitones = getSemitonesFromScale(entry.getKey(), entry.getValue());
-				// Check if scale contains any version of each input note
-				return inputSemitones.stream().allMatch(inputNote -> 
-					scaleSemitones.stream().anyMatch(scaleNote -> 
-						scaleNote.equals(inputNote) || 
-						(ENHARMONIC_MAP.containsKey(scaleNote) && 
-						 Arrays.asList(ENHARMONIC_MAP.get(scaleNote)).contains(inputNote))
-					)
-				);
-			})
-			.flatMap(entry -> {
-				String scaleName = entry.getKey() + " " + entry.getValue().name();
-				// If tonic has an enharmonic equivalent, add both versions of the scale name
-				if (ENHARMONIC_MAP.containsKey(entry.getKey())) {
-					String alternateTonic = ENHARMONIC_MAP.get(entry.getKey())[1];
-					// but skip theoretical equivalents (C_FLAT and F_FLAT)
-					if (!alternateTonic.equals(C_FLAT) && !alternateTonic.equals(F_FLAT)) {
-						String alternateScaleName = alternateTonic + " " + entry.getValue().name();
-						return Stream.of(scaleName, alternateScaleName);
-					}
+		List<List<String>> index = new ArrayList<>(PitchClassSet.SET_COUNT);
+		for (int set = 0; set < PitchClassSet.SET_COUNT; set++) {
+			List<String> scales = new ArrayList<>();
+			for (int i = 0; i < masks.size(); i++) {
+				if (PitchClassSet.isSubset(set, masks.get(i))) {
+					scales.addAll(names.get(i));
 				}
-				return Stream.of(scaleName);
-			})
-			.collect(Collectors.toList());
+			}
+			index.add(scales.isEmpty() ? List.of() : Collections.unmodifiableList(scales));
+		}
+		return Collections.unmodifiableList(index);
+	}
+
+	/**
+	 * Returns the scale name for a tonic, followed by the name using its flat spelling if it has one.
+	 */
+	private static List<String> scaleNames(Note tonic, String quality) {
+		String scaleName = tonic.getName() + " " + quality;
+		if (tonic.hasEnharmonic()) {
+			Note alternateTonic = tonic.getFlatSpelling();
+			// but skip theoretical equivalents (C_FLAT and F_FLAT)
+			if (!alternateTonic.isTheoretical()) {
+				return List.of(scaleName, alternateTonic.getName() + " " + quality);
+			}
+		}
+		return List.of(scaleName);
 	}
 
 	public List<String> getChordsFromScale(String tonic, Quality quality) {
-		return chordCalculator.getChordsFromScale(tonic, quality);
+		long start = System.nanoTime();
+		List<String> chords = chordCalculator.chordsFromScale(tonic, quality);
+		ScaleMetrics.recordSince(chordsFromScaleTimer, start);
+		if (quality != null) {
+			chordsFromScaleResults[quality.ordinal()].record(chords.size());
+		}
+		return chords;
 	}
 	
 	public List<String> getScaleFromChords(List<String> inputChords, boolean advanced) {
-		List<Map.Entry<String, Quality>> parsedChords = inputChords.stream()
-			.map(chordCalculator::parseChord)
-			.collect(Collectors.toList());
-
-		return SEMITONES.stream()
-			.flatMap(tonic -> Quality.allowed(advanced).stream()
-				.filter(quality -> quality != Quality.DIMINISHED)
-				.map(quality -> Map.entry(tonic, quality)))
-			.filter(entry -> {
-				List<String> scaleChords = getChordsFromScale(entry.getKey(), entry.getValue());
-				return parsedChords.stream()
-					.allMatch(chord -> scaleChords.contains(chord.getKey() + 
-						(chord.getValue() == Quality.MAJOR ? "" : 
-						 chord.getValue() == Quality.MINOR ? "m" : "°")));
-			})
-			.map(entry -> entry.getKey() + " " + entry.getValue().name())
-			.collect(Collectors.toList());
+		long start = System.nanoTime();
+		List<String> scales = findScalesFromChords(inputChords, advanced);
+		ScaleMetrics.recordSince(scaleFromChordsTimer, start);
+		scaleFromChordsResults[ScaleMetrics.index(advanced)].record(scales.size());
+		return scales;
+	}
+
+	/**
+	 * Streams the same names as getScaleFromChords, resolving each name only when the stream reaches it.
+	 */
+	public Stream<String> streamScaleFromChords(List<String> inputChords, boolean advanced) {
+		long start = System.nanoTime();
+		long[] customCandidates = customCandidates(advanced);
+		long[] candidates = findScaleSetFromChords(inputChords, advanced, customCandidates);
+		ScaleMetrics.recordSince(scaleFromChordsTimer, start);
+		scaleFromChordsResults[ScaleMetrics.index(advanced)].record(ScaleSet.size(candidates) + ScaleSet.size(customCandidates));
+		Stream<String> scales = ScaleSet.stream(candidates).mapToObj(ScaleSet::name);
+		if (ScaleSet.isEmpty(customCandidates)) {
+			return scales;
+		}
+		return Stream.concat(scales, ScaleSet.stream(customCandidates).mapToObj(customScales::getScaleName));
+	}
+
+	private List<String> findScalesFromChords(List<String> inputChords, boolean advanced) {
+		long[] customCandidates = customCandidates(advanced);
+		long[] candidates = findScaleSetFromChords(inputChords, advanced, customCandidates);
+		if (ScaleSet.isEmpty(candidates) && ScaleSet.isEmpty(customCandidates)) {
+			return List.of();
+		}
+
+		List<String> names = namesOf(candidates);
+		for (int id = ScaleSet.nextScale(customCandidates, 0); id >= 0; id = ScaleSet.nextScale(customCandidates, id + 1)) {
+			names.add(customScales.getScaleName(id));
+		}
+		return names;
+	}
+
+	/**
+	 * Returns the custom scales a chord search starts from: all of them in advanced mode, none otherwise.
+	 */
+	private long[] customCandidates(boolean advanced) {
+		return advanced ? customScales.getAllScales().clone() : ScaleSet.empty(0);
+	}
+
+	/**
+	 * Returns the ScaleSet of scales containing every chord, which is empty if any chord is invalid.
+	 * The custom scales in customCandidates are narrowed alongside, in place.
+	 */
+	private long[] findScaleSetFromChords(List<String> inputChords, boolean advanced, long[] customCandidates) {
+		if (inputChords == null) {
+			Arrays.fill(customCandidates, 0);
+			return ScaleSet.empty();
+		}
+
+		long[] candidates = ScaleSet.chordSearchScales(advanced).clone();
+		for (String chord : inputChords) {
+			int code = ChordCode.parse(chord);
+			if (!ChordCode.isValid(code)) {
+				chordParseFailures[ScaleMetrics.index(advanced)].increment();
+				Arrays.fill(customCandidates, 0);
+				return ScaleSet.empty();
+			}
+
+			chordCalculator.retainScalesWithChord(candidates, code);
+			customScales.retainScalesWithChord(customCandidates, code);
+			if (ScaleSet.isEmpty(candidates) && ScaleSet.isEmpty(customCandidates)) {
+				break;
+			}
+		}
+		return candidates;
+	}
+
+	/**
+	 * Splits a chord sequence into segments over which the candidate keys, judged on a sliding window
+	 * of the last windowSize chords, stay the same. Unparseable chords are skipped; they extend the
+	 * segment they fall in without entering the window.
+	 */
+	public List<KeySegment> trackKeys(List<String> inputChords, int windowSize, boolean advanced) {
+		long start = System.nanoTime();
+		List<KeySegment> segments = findKeySegments(inputChords, windowSize, advanced);
+		ScaleMetrics.recordSince(trackKeysTimer, start);
+		return segments;
+	}
+
+	private List<KeySegment> findKeySegments(List<String> inputChords, int windowSize, boolean advanced) {
+		if (inputChords == null || inputChords.isEmpty()) {
+			return List.of();
+		}
+
+		KeyTracker tracker = new KeyTracker(chordCalculator, windowSize,
+				ScaleSet.chordSearchScales(advanced));
+		List<KeySegment> segments = new ArrayList<>();
+		long[] current = null;
+		int start = -1;
+		for (int i = 0; i < inputChords.size(); i++) {
+			if (!tracker.append(inputChords.get(i))) {
+				chordParseFailures[ScaleMetrics.index(advanced)].increment();
+				continue;
+			}
+			if (!Arrays.equals(current, tracker.getCandidates())) {
+				if (current != null) {
+					segments.add(new KeySegment(start, i, namesOf(current)));
+				}
+				current = tracker.getCandidates().clone();
+				start = i;
+			}
+		}
+		if (current != null) {
+			segments.add(new KeySegment(start, inputChords.size(), namesOf(current)));
+		}
+		return segments;
+	}
+
+	private static List<String> namesOf(long[] scales) {
+		List<String> names = new ArrayList<>(ScaleSet.size(scales));
+		for (int id = ScaleSet.nextScale(scales, 0); id >= 0; id = ScaleSet.nextScale(scales, id + 1)) {
+			names.add(ScaleSet.name(id));
+		}
+		return names;
+	}
+
+	/**
+	 * Ranks scales by how well they fit the input notes, best first, keeping at most limit of them.
+	 * Unlike getScaleFromSemitones the input need not fit a scale, so it works on partial or
+	 * slightly wrong input; theoretical spellings count as their pitch class. Weights are keyed by
+	 * note spelling and apply to every spelling of that pitch class; notes without one weigh 1.0.
+	 *
+	 * @throws IllegalArgumentException if limit is below 1, or a weight is not a positive number
+	 * or is keyed by an unknown note
+	 */
+	public List<RankedScale> rankScales(List<String> inputSemitones, Map<String, Double> weights, int limit,
+			boolean advanced) {
+		long start = System.nanoTime();
+		List<RankedScale> ranked = findRankedScales(inputSemitones, weights, limit, advanced);
+		ScaleMetrics.recordSince(rankScalesTimer, start);
+		return ranked;
+	}
+
+	private List<RankedScale> findRankedScales(List<String> inputSemitones, Map<String, Double> weights, int limit,
+			boolean advanced) {
+		if (limit < 1) {
+			throw new IllegalArgumentException("Limit must be at least 1");
+		}
+		double[] pitchClassWeights = weights == null || weights.isEmpty() ? null : pitchClassWeights(weights);
+		if (inputSemitones == null || inputSemitones.isEmpty()) {
+			return List.of();
+		}
+
+		int pitchClasses = PitchClassSet.EMPTY;
+		for (String name : inputSemitones) {
+			Note note = Note.fromName(name);
+			if (note == null) {
+				noteParseFailures[ScaleMetrics.index(advanced)].increment();
+				return List.of();
+			}
+			pitchClasses = PitchClassSet.with(pitchClasses, note.getPitchClass());
+		}
+
+		double[] scores = new double[ScaleSet.SCALE_COUNT];
+		int[] ids = scaleRanker.rank(pitchClasses, pitchClassWeights, ScaleSet.rankedScales(advanced),
+				limit, scores);
+		List<RankedScale> ranked = new ArrayList<>(ids.length);
+		for (int id : ids) {
+			int mask = scaleRanker.getMask(id);
+			ranked.add(new RankedScale(ScaleSet.name(id), scores[id],
+					Integer.bitCount(pitchClasses & mask),
+					Integer.bitCount(pitchClasses & ~mask),
+					Integer.bitCount(mask & ~pitchClasses)));
+		}
+		return ranked;
+	}
+
+	// Folds weights by spelling onto pitch classes; if two spellings of one pitch class are weighted, the larger wins
+	private static double[] pitchClassWeights(Map<String, Double> weights) {
+		// Weights are positive, so 0 marks a pitch class no spelling was weighted for
+		double[] byPitchClass = new double[PitchClassSet.PITCH_CLASS_COUNT];
+		for (Map.Entry<String, Double> entry : weights.entrySet()) {
+			Note note = Note.fromName(entry.getKey());
+			Double weight = entry.getValue();
+			if (note == null) {
+				throw new IllegalArgumentException("Unknown note in weights: " + entry.getKey());
+			}
+			if (weight == null || !(weight > 0) || weight.isInfinite()) {
+				throw new IllegalArgumentException("Weight must be a positive number: " + entry.getKey());
+			}
+			byPitchClass[note.getPitchClass()] = Math.max(byPitchClass[note.getPitchClass()], weight);
+		}
+		for (int pitchClass = 0; pitchClass < byPitchClass.length; pitchClass++) {
+			if (byPitchClass[pitchClass] == 0) {
+				byPitchClass[pitchClass] = 1.0;
+			}
+		}
+		return byPitchClass;
 	}
 
 	public ScaleProfile getScaleProfile(String tonic, Quality quality) {
@@ -113,27 +420,66 @@ public class ScaleCalculator {
 			return null;
 		}
 
-		// Get the normalized tonic for consistent notation
-		String normalizedTonic = patternCalculator.normalizeNote(tonic);
-		if (normalizedTonic == null || !SEMITONES.contains(normalizedTonic)) {
-			return null;
+		long start = System.nanoTime();
+		Note tonicNote = Note.fromName(tonic);
+		ScaleProfile profile = tonicNote == null ? null : profiles.get(tonicNote)[quality.ordinal()];
+		ScaleMetrics.recordSince(scaleProfileTimer, start);
+		scaleProfileResults[quality.ordinal()].record(profile == null ? 0 : 1);
+		return profile;
+	}
+
+	/**
+	 * Returns the profile of a user-defined scale by name, or null if the tonic or scale is unknown.
+	 */
+	public ScaleProfile getCustomScaleProfile(String tonic, String scale) {
+		long start = System.nanoTime();
+		ScaleProfile profile = customScales.getScaleProfile(tonic, scale);
+		ScaleMetrics.recordSince(customScaleProfileTimer, start);
+		return profile;
+	}
+
+	public List<ScaleDefinition> getCustomScales() {
+		return customScales.getDefinitions();
+	}
+
+	private Map<Note, ScaleProfile[]> buildProfiles() {
+		Map<Note, ScaleProfile[]> byNormalizedTonic = new EnumMap<>(Note.class);
+		Map<Note, ScaleProfile[]> byTonic = new EnumMap<>(Note.class);
+		for (Note tonic : Note.values()) {
+			// Get the normalized tonic for consistent notation
+			Note normalizedTonic = tonic.getSharpSpelling();
+			byTonic.put(tonic, byNormalizedTonic.computeIfAbsent(normalizedTonic, this::buildTonicProfiles));
+		}
+		return Collections.unmodifiableMap(byTonic);
+	}
+
+	private ScaleProfile[] buildTonicProfiles(Note normalizedTonic) {
+		ScaleProfile[] tonicProfiles = new ScaleProfile[ScaleSet.QUALITY_COUNT];
+		for (Quality quality : Quality.values()) {
+			// The 8-note diminished scale has no diatonic chord pattern, so it has no profile
+			if (quality != Quality.DIMINISHED) {
+				tonicProfiles[quality.ordinal()] = buildProfile(normalizedTonic.getName(), quality);
+			}
 		}
+		return tonicProfiles;
+	}
 
-		// Get scale components
-		List<String> semitones = getSemitonesFromScale(normalizedTonic, quality);
+	private ScaleProfile buildProfile(String normalizedTonic, Quality quality) {
+		// Get scale components, bypassing the timed entry points so building the table isn't counted as traffic
+		List<String> semitones = patternCalculator.getSemitonesFromScale(normalizedTonic, quality);
 		if (semitones.isEmpty()) {
 			return null;
 		}
 
-		List<String> chords = getChordsFromScale(normalizedTonic, quality);
-		Map<String, String> chordsMap = chordCalculator.createChordsMap(chords, quality);
+		List<String> chords = chordCalculator.chordsFromScale(normalizedTonic, quality);
+		Map<String, String> chordsMap = chordCalculator.buildChordsMap(chords, quality);
 		Map<Integer, String> scaleDegrees = createScaleDegrees(semitones);
 		Map<String, String> intervals = patternCalculator.createIntervals(semitones, quality);
 		
 		// Get related scales
-		String relativeScale = progressionCalculator.findRelativeScale(semitones, quality);
-		String parallelScale = progressionCalculator.findParallelScale(normalizedTonic, quality);
-		List<List<String>> progressions = progressionCalculator.createCommonProgressions(quality);
+		String relativeScale = progressionCalculator.relativeScale(semitones, quality);
+		String parallelScale = progressionCalculator.parallelScale(normalizedTonic, quality);
+		List<List<String>> progressions = progressionCalculator.commonProgressions(quality);
 		
 		return new ScaleProfile(
 				normalizedTonic,
@@ -0,0 +1,95 @@
+package com.composeit.backend.scaleservice;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import com.composeit.backend.scaleservice.models.Quality;
+import com.composeit.backend.scaleservice.models.ScaleDefinition;
+
+/**
+ * Reads user-defined scale qualities from a definition file, one per line:
+ *
+ *   # Blank lines and lines starting with # are ignored
+ *   WHOLE_TONE = 2 2 2 2 2 2
+ *   HUNGARIAN_MINOR = 2 1 3 1 1 3 1
+ *   LYDIAN_DOMINANT = 2 2 2 1 2 1 2
+ *
+ * Names are upper case words joined by underscores and must not repeat a built-in Quality; the label
+ * shown to users is derived from the name ("Hungarian Minor"). Steps are semitones between consecutive
+ * degrees, with or without the last step back to the octave.
+ */
+public final class ScaleDefinitions {
+    private static final Pattern NAME = Pattern.compile("[A-Z][A-Z0-9]*(_[A-Z0-9]+)*");
+
+    private ScaleDefinitions() {
+    }
+
+    public static List<ScaleDefinition> load(Path file) throws IOException {
+        return parse(Files.readAllLines(file, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException naming the line of the first malformed or duplicate definition
+     */
+    public static List<ScaleDefinition> parse(List<String> lines) {
+        Set<String> names = new HashSet<>();
+        for (Quality quality : Quality.values()) {
+            names.add(quality.name());
+        }
+
+        List<ScaleDefinition> definitions = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                ScaleDefinition definition = parseLine(line);
+                if (!names.add(definition.getName())) {
+                    throw new IllegalArgumentException(definition.getName() + " is already defined");
+                }
+                definitions.add(definition);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Scale definition line " + (i + 1) + ": " + e.getMessage(), e);
+            }
+        }
+        return List.copyOf(definitions);
+    }
+
+    private static ScaleDefinition parseLine(String line) {
+        int separator = line.indexOf('=');
+        if (separator < 0) {
+            throw new IllegalArgumentException("expected NAME = steps");
+        }
+        String name = line.substring(0, separator).strip();
+        if (!NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("invalid name '" + name + "'");
+        }
+
+        String[] tokens = line.substring(separator + 1).strip().split("\\s+");
+        int[] steps = new int[tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            try {
+                steps[i] = Integer.parseInt(tokens[i]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(name + ": invalid step '" + tokens[i] + "'");
+            }
+        }
+        return new ScaleDefinition(name, label(name), steps);
+    }
+
+    private static String label(String name) {
+        return Arrays.stream(name.split("_"))
+                .map(word -> word.charAt(0) + word.substring(1).toLowerCase())
+                .collect(Collectors.joining(" "));
+    }
+}
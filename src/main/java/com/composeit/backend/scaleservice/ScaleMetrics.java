@@ -0,0 +1,127 @@
+package com.composeit.backend.scaleservice;
+
+import java.util.concurrent.TimeUnit;
+
+import com.composeit.backend.scaleservice.models.Quality;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+/**
+ * Micrometer meters for the calculators. Meters are registered once when a calculator is built
+ * and held in fields, so an instrumented call only pays for two clock reads and a few adds. The
+ * features ScaleService calls directly are timed there, once per call, with Timer.record.
+ *
+ * composeit.calculator         timer with p50/p95/p99 and a percentile histogram, tagged by class and method
+ * composeit.parse.failures     counter of rejected notes and chords, tagged by input and advanced
+ * composeit.results.empty      counter of empty results, tagged by method, quality and advanced
+ * composeit.results.size       summary of result sizes, tagged by method, quality and advanced
+ *
+ * Tags that do not apply to a method (quality for the searches, advanced for the lookups) are "none",
+ * since Prometheus needs every meter of one name to carry the same tag keys.
+ */
+public final class ScaleMetrics {
+    /**
+     * Metrics that are never published, for calculators built outside of Spring (tests, benchmarks).
+     */
+    public static final ScaleMetrics NOOP = new ScaleMetrics(new CompositeMeterRegistry());
+
+    private static final String NONE = "none";
+
+    private final MeterRegistry registry;
+
+    public ScaleMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public Timer timer(Class<?> calculator, String method) {
+        return Timer.builder("composeit.calculator")
+                .description("Time spent in a calculator method")
+                .tag("class", calculator.getSimpleName())
+                .tag("method", method)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Parse failure counters for an input kind ("note" or "chord"), indexed by advanced ? 1 : 0.
+     */
+    public Counter[] parseFailures(String input) {
+        Counter[] counters = new Counter[2];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = Counter.builder("composeit.parse.failures")
+                    .description("Inputs rejected because a note or chord could not be parsed")
+                    .tag("input", input)
+                    .tag("advanced", String.valueOf(i == 1))
+                    .register(registry);
+        }
+        return counters;
+    }
+
+    /**
+     * Result meters for a lookup keyed by quality, indexed by quality ordinal.
+     */
+    public Results[] resultsByQuality(String method) {
+        Quality[] qualities = Quality.values();
+        Results[] results = new Results[qualities.length];
+        for (Quality quality : qualities) {
+            results[quality.ordinal()] = new Results(method, quality.name(), NONE);
+        }
+        return results;
+    }
+
+    /**
+     * Result meters for a search over scales, indexed by advanced ? 1 : 0.
+     */
+    public Results[] resultsByAdvanced(String method) {
+        return new Results[] {
+            new Results(method, NONE, "false"),
+            new Results(method, NONE, "true")
+        };
+    }
+
+    public static int index(boolean advanced) {
+        return advanced ? 1 : 0;
+    }
+
+    /**
+     * Records the time since {@code startNanos}, a value from System.nanoTime().
+     */
+    public static void recordSince(Timer timer, long startNanos) {
+        timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * The empty-result counter and result-size summary for one method and tag combination.
+     */
+    public final class Results {
+        private final Counter empty;
+        private final DistributionSummary size;
+
+        private Results(String method, String quality, String advanced) {
+            this.empty = Counter.builder("composeit.results.empty")
+                    .description("Calls that returned no results")
+                    .tag("method", method)
+                    .tag("quality", quality)
+                    .tag("advanced", advanced)
+                    .register(registry);
+            this.size = DistributionSummary.builder("composeit.results.size")
+                    .description("Number of results returned")
+                    .tag("method", method)
+                    .tag("quality", quality)
+                    .tag("advanced", advanced)
+                    .register(registry);
+        }
+
+        public void record(int resultSize) {
+            size.record(resultSize);
+            if (resultSize == 0) {
+                empty.increment();
+            }
+        }
+    }
+}
@@ -1,26 +1,8 @@
 package com.composeit.backend.scaleservice;
 
-import static com.composeit.backend.common.Constants.A_FLAT;
-import static com.composeit.backend.common.Constants.A_SHARP;
-import static com.composeit.backend.common.Constants.B;
-import static com.composeit.backend.common.Constants.B_FLAT;
-import static com.composeit.backend.common.Constants.B_SHARP;
-import static com.composeit.backend.common.Constants.C;
-import static com.composeit.backend.common.Constants.C_FLAT;
-import static com.composeit.backend.common.Constants.C_SHARP;
 import static com.composeit.backend.common.Constants.DIMINISHED_STEPS;
 import static com.composeit.backend.common.Constants.DORIAN_STEPS;
-import static com.composeit.backend.common.Constants.D_FLAT;
-import static com.composeit.backend.common.Constants.D_SHARP;
-import static com.composeit.backend.common.Constants.E;
-import static com.composeit.backend.common.Constants.E_FLAT;
-import static com.composeit.backend.common.Constants.E_SHARP;
-import static com.composeit.backend.common.Constants.F;
 import static com.composeit.backend.common.Constants.FLAT_SCALES;
-import static com.composeit.backend.common.Constants.F_FLAT;
-import static com.composeit.backend.common.Constants.F_SHARP;
-import static com.composeit.backend.common.Constants.G_FLAT;
-import static com.composeit.backend.common.Constants.G_SHARP;
 import static com.composeit.backend.common.Constants.HARMONIC_MINOR_STEPS;
 import static com.composeit.backend.common.Constants.LOCRIAN_STEPS;
 import static com.composeit.backend.common.Constants.LYDIAN_STEPS;
@@ -31,44 +13,57 @@ import static com.composeit.backend.common.Constants.MIXOLYDIAN_STEPS;
 import static com.composeit.backend.common.Constants.PENTATONIC_MAJOR_STEPS;
 import static com.composeit.backend.common.Constants.PENTATONIC_MINOR_STEPS;
 import static com.composeit.backend.common.Constants.PHRYGIAN_STEPS;
-import static com.composeit.backend.common.Constants.SEMITONES;
 import static com.composeit.backend.common.Constants.SHARP_SCALES;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.OptionalInt;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
+import com.composeit.backend.scaleservice.models.Note;
 import com.composeit.backend.scaleservice.models.Quality;
 
 public class ScalePatternCalculator {
     /**
-     * Maps between enharmonic equivalents. The first note in each array is the preferred sharp notation,
-     * the second is the preferred flat notation. The choice of which to display depends on the scale context.
+     * Every (tonic, quality) scale as a pitch-class set, indexed by [quality ordinal][tonic pitch class].
+     * Built once from the step patterns in Constants, so looking up a scale is a single array read.
      */
-    private static final Map<String, String[]> ENHARMONIC_MAP;
+    private static final int[][] SCALE_MASKS;
+
+    /**
+     * Spelled-out notes for every tonic in Note, indexed by quality ordinal, together with their
+     * display strings. Both are derived from SCALE_MASKS once and shared, so neither getScaleNotes
+     * nor getSemitonesFromScale allocates.
+     */
+    private static final Map<Note, List<List<Note>>> SCALE_NOTES;
+    private static final Map<Note, List<List<String>>> SCALE_NOTE_NAMES;
     static {
-        Map<String, String[]> map = new HashMap<>();
-        map.put(F_SHARP, new String[]{F_SHARP, G_FLAT});
-        map.put(G_FLAT, new String[]{F_SHARP, G_FLAT});
-        map.put(G_SHARP, new String[]{G_SHARP, A_FLAT});
-        map.put(A_FLAT, new String[]{G_SHARP, A_FLAT});
-        map.put(A_SHARP, new String[]{A_SHARP, B_FLAT});
-        map.put(B_FLAT, new String[]{A_SHARP, B_FLAT});
-        map.put(C_SHARP, new String[]{C_SHARP, D_FLAT});
-        map.put(D_FLAT, new String[]{C_SHARP, D_FLAT});
-        map.put(D_SHARP, new String[]{D_SHARP, E_FLAT});
-        map.put(E_FLAT, new String[]{D_SHARP, E_FLAT});
-        // Theoretical enharmonic equivalents (not commonly used in practice)
-        map.put(B_SHARP, new String[]{C, B_SHARP});  // B# is theoretically equivalent to C
-        map.put(C_FLAT, new String[]{B, C_FLAT});   // Cb is theoretically equivalent to B
-        map.put(E_SHARP, new String[]{F, E_SHARP});  // E# is theoretically equivalent to F
-        map.put(F_FLAT, new String[]{E, F_FLAT});   // Fb is theoretically equivalent to E
-        ENHARMONIC_MAP = Collections.unmodifiableMap(map);
+        Quality[] qualities = Quality.values();
+        int[][] masks = new int[qualities.length][PitchClassSet.PITCH_CLASS_COUNT];
+        for (Quality quality : qualities) {
+            for (int tonic = 0; tonic < PitchClassSet.PITCH_CLASS_COUNT; tonic++) {
+                masks[quality.ordinal()][tonic] = maskFromSteps(tonic, getPattern(quality));
+            }
+        }
+        SCALE_MASKS = masks;
+
+        Map<Note, List<List<Note>>> notes = new EnumMap<>(Note.class);
+        Map<Note, List<List<String>>> names = new EnumMap<>(Note.class);
+        for (Note tonic : Note.values()) {
+            List<List<Note>> notesByQuality = new ArrayList<>();
+            List<List<String>> namesByQuality = new ArrayList<>();
+            for (Quality quality : qualities) {
+                List<Note> scale = spellScale(masks[quality.ordinal()][tonic.getPitchClass()], tonic);
+                notesByQuality.add(scale);
+                namesByQuality.add(noteNames(scale));
+            }
+            notes.put(tonic, Collections.unmodifiableList(notesByQuality));
+            names.put(tonic, Collections.unmodifiableList(namesByQuality));
+        }
+        SCALE_NOTES = Collections.unmodifiableMap(notes);
+        SCALE_NOTE_NAMES = Collections.unmodifiableMap(names);
     }
 
     /**
@@ -79,13 +74,9 @@ public class ScalePatternCalculator {
             return null;
         }
 
-        // Check if the note has an enharmonic equivalent
-        if (ENHARMONIC_MAP.containsKey(note)) {
-            return ENHARMONIC_MAP.get(note)[0];  // Use sharp notation for internal processing
-        }
-
-        // For natural notes or notes without enharmonic equivalents, return as is
-        return note;
+        // Use sharp notation for internal processing; unknown notes are returned as is
+        Note parsed = Note.fromName(note);
+        return parsed == null ? note : parsed.getSharpSpelling().getName();
     }
 
     /**
@@ -101,28 +92,28 @@ public class ScalePatternCalculator {
      * - In F major (1 flat), we write "Bb" instead of "A#"
      * - In G major (1 sharp), we write "F#" instead of "Gb"
      */
-    private String formatNoteForDisplay(String note, String tonic) {
+    static Note formatNoteForDisplay(Note note, Note tonic) {
         // If the note doesn't need formatting, return as is
-        if (!ENHARMONIC_MAP.containsKey(note)) {
+        if (!note.hasEnharmonic()) {
             return note;
         }
 
         // Use flat notation for flat scales
-        if (FLAT_SCALES.contains(tonic)) {
-            return ENHARMONIC_MAP.get(note)[1];  // Use flat notation
+        if (FLAT_SCALES.contains(tonic.getName())) {
+            return note.getFlatSpelling();
         }
         
         // Use sharp notation for sharp scales
-        if (SHARP_SCALES.contains(tonic) || tonic.contains("#")) {
-            return ENHARMONIC_MAP.get(note)[0];  // Use sharp notation
+        if (SHARP_SCALES.contains(tonic.getName()) || tonic.getName().contains("#")) {
+            return note.getSharpSpelling();
         }
         
         // For natural note scales, prefer flat notation for Bb
-        if (note.equals("A#") || note.equals("Bb")) {
-            return "Bb";
+        if (note == Note.A_SHARP || note == Note.B_FLAT) {
+            return Note.B_FLAT;
         }
         
-        return ENHARMONIC_MAP.get(note)[0];  // Default to sharp notation
+        return note.getSharpSpelling();  // Default to sharp notation
     }
 
     public List<String> getSemitonesFromScale(String tonic, Quality quality) {
@@ -130,29 +121,53 @@ public class ScalePatternCalculator {
             return Collections.emptyList();
         }
 
-        // Handle enharmonic equivalents
-        final String normalizedTonic = normalizeNote(tonic);
-        
-        if (!SEMITONES.contains(normalizedTonic)) {
+        // Enharmonic and theoretical spellings each have their own entry, since the
+        // spelling of the tonic decides how the rest of the scale is displayed
+        Note tonicNote = Note.fromName(tonic);
+        if (tonicNote == null) {
             return Collections.emptyList();
         }
+        return SCALE_NOTE_NAMES.get(tonicNote).get(quality.ordinal());
+    }
 
-        OptionalInt indexOpt = IntStream.range(0, SEMITONES.size())
-                .filter(i -> normalizedTonic.equals(SEMITONES.get(i))).findFirst();
-        
-        if (!indexOpt.isPresent()) {
-            return Collections.emptyList();
+    /**
+     * Returns the notes of the given scale, spelled for display, in ascending order from the tonic.
+     */
+    public List<Note> getScaleNotes(Note tonic, Quality quality) {
+        return SCALE_NOTES.get(tonic).get(quality.ordinal());
+    }
+
+    /**
+     * Returns every pitch class spelled as in the given scale, indexed by pitch class; the ones the
+     * scale lacks are spelled with formatNoteForDisplay.
+     */
+    Note[] getKeySpellings(Note tonic, Quality quality) {
+        Note[] spellings = new Note[PitchClassSet.PITCH_CLASS_COUNT];
+        for (int pitchClass = 0; pitchClass < spellings.length; pitchClass++) {
+            spellings[pitchClass] = formatNoteForDisplay(Note.ofPitchClass(pitchClass), tonic);
+        }
+        for (Note note : getScaleNotes(tonic, quality)) {
+            spellings[note.getPitchClass()] = note;
         }
+        return spellings;
+    }
 
-        List<String> semitones = semitonesFromScale(indexOpt.getAsInt(), getPattern(quality));
-        
-        // Format notes appropriately for display based on the scale context
-        return semitones.stream()
-                .map(note -> formatNoteForDisplay(note, tonic))
-                .collect(Collectors.toList());
+    /**
+     * Returns the pitch-class set of the given scale, or PitchClassSet.EMPTY if the tonic is not a valid note.
+     */
+    public int getScaleMask(String tonic, Quality quality) {
+        Note tonicNote = Note.fromName(tonic);
+        if (tonicNote == null || quality == null) {
+            return PitchClassSet.EMPTY;
+        }
+        return SCALE_MASKS[quality.ordinal()][tonicNote.getPitchClass()];
     }
 
-    private int[] getPattern(Quality quality) {
+    public int getScaleMask(int tonicPitchClass, Quality quality) {
+        return SCALE_MASKS[quality.ordinal()][tonicPitchClass];
+    }
+
+    private static int[] getPattern(Quality quality) {
         return switch (quality) {
             case MAJOR -> MAJOR_STEPS;
             case MINOR -> MINOR_STEPS;
@@ -169,17 +184,38 @@ public class ScalePatternCalculator {
         };
     }
 
-    private List<String> semitonesFromScale(int index, int[] steps) {
-        List<String> result = new ArrayList<>();
-        result.add(SEMITONES.get(index));  // Add tonic
-        
-        int currentIndex = index;
+    private static int maskFromSteps(int tonic, int[] steps) {
+        int mask = PitchClassSet.of(tonic);
+
+        int current = tonic;
         for (int step : steps) {
-            currentIndex = (currentIndex + step) % SEMITONES.size();
-            result.add(SEMITONES.get(currentIndex));
+            current = (current + step) % PitchClassSet.PITCH_CLASS_COUNT;
+            mask = PitchClassSet.with(mask, current);
         }
-        
-        return result;
+
+        return mask;
+    }
+
+    /**
+     * Spells out a scale's pitch-class set in ascending order from the tonic.
+     */
+    static List<Note> spellScale(int mask, Note tonic) {
+        List<Note> result = new ArrayList<>(PitchClassSet.size(mask));
+        for (int i = 0; i < PitchClassSet.PITCH_CLASS_COUNT; i++) {
+            int pitchClass = (tonic.getPitchClass() + i) % PitchClassSet.PITCH_CLASS_COUNT;
+            if (PitchClassSet.contains(mask, pitchClass)) {
+                result.add(formatNoteForDisplay(Note.ofPitchClass(pitchClass), tonic));
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    static List<String> noteNames(List<Note> notes) {
+        List<String> names = new ArrayList<>(notes.size());
+        for (Note note : notes) {
+            names.add(note.getName());
+        }
+        return Collections.unmodifiableList(names);
     }
 
     public Map<String, String> createIntervals(List<String> semitones, Quality quality) {
@@ -0,0 +1,127 @@
+package com.composeit.backend.scaleservice;
+
+/**
+ * Scores every scale against a set of input notes and keeps the best k, for partial-match search.
+ *
+ * A scale earns the weight of each input note it contains and loses the weight of each input note it
+ * lacks; every scale note the input leaves out costs a small fixed penalty, so among scales that cover
+ * the input equally well the one closest in size ranks first. Without weights, each of the three terms
+ * is one popcount on the 12-bit pitch-class masks.
+ *
+ * Ranking keeps a min-heap of at most k scale ids with the worst of them at the root, so a scan over
+ * all 144 scales costs O(144 log k) and allocates only the result.
+ */
+public class ScaleRanker {
+    // Lower than any input note's weight can differ by, so leaving notes out only breaks ties
+    static final double LEFT_OUT_PENALTY = 0.1;
+
+    // Scale masks indexed by ScaleSet id
+    private final int[] masks = new int[ScaleSet.SCALE_COUNT];
+
+    public ScaleRanker(ScalePatternCalculator patternCalculator) {
+        for (int id = 0; id < ScaleSet.SCALE_COUNT; id++) {
+            masks[id] = patternCalculator.getScaleMask(ScaleSet.tonicOf(id), ScaleSet.qualityOf(id));
+        }
+    }
+
+    public int getMask(int id) {
+        return masks[id];
+    }
+
+    /**
+     * Scores a scale mask against the input pitch-class set. With weights (indexed by pitch class,
+     * or null for 1.0 each), matched and unmatched notes count by weight.
+     */
+    public static double score(int input, double[] weights, int mask) {
+        int leftOut = Integer.bitCount(mask & ~input);
+        if (weights == null) {
+            return Integer.bitCount(input & mask) - Integer.bitCount(input & ~mask) - LEFT_OUT_PENALTY * leftOut;
+        }
+
+        double score = -LEFT_OUT_PENALTY * leftOut;
+        for (int bits = input; bits != 0; bits &= bits - 1) {
+            int pitchClass = Integer.numberOfTrailingZeros(bits);
+            score += PitchClassSet.contains(mask, pitchClass) ? weights[pitchClass] : -weights[pitchClass];
+        }
+        return score;
+    }
+
+    /**
+     * Returns the ids of the k best-scoring scales in {@code allowed}, best first; ties go to the lower
+     * id (earlier tonic, then quality order). {@code scores} receives the score of every id ranked.
+     */
+    public int[] rank(int input, double[] weights, long[] allowed, int k, double[] scores) {
+        for (int id = ScaleSet.nextScale(allowed, 0); id >= 0; id = ScaleSet.nextScale(allowed, id + 1)) {
+            scores[id] = score(input, weights, masks[id]);
+        }
+        return best(allowed, k, scores);
+    }
+
+    /**
+     * Returns the ids of the k highest-scoring scales in {@code allowed}, best first, ties going to the
+     * lower id; {@code scores} is indexed by id.
+     */
+    static int[] best(long[] allowed, int k, double[] scores) {
+        int[] heap = new int[Math.min(k, ScaleSet.size(allowed))];
+        int size = 0;
+        for (int id = ScaleSet.nextScale(allowed, 0); id >= 0; id = ScaleSet.nextScale(allowed, id + 1)) {
+            if (size < heap.length) {
+                heap[size] = id;
+                siftUp(heap, size++, scores);
+            } else if (size > 0 && isBetter(id, heap[0], scores)) {
+                heap[0] = id;
+                siftDown(heap, size, scores);
+            }
+        }
+
+        // Popping the worst first fills the result from the back
+        int[] ranked = new int[size];
+        while (size > 0) {
+            ranked[size - 1] = heap[0];
+            heap[0] = heap[--size];
+            siftDown(heap, size, scores);
+        }
+        return ranked;
+    }
+
+    private static boolean isBetter(int a, int b, double[] scores) {
+        return scores[a] > scores[b] || (scores[a] == scores[b] && a < b);
+    }
+
+    private static void siftUp(int[] heap, int index, double[] scores) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (!isBetter(heap[parent], heap[index], scores)) {
+                return;
+            }
+            swap(heap, parent, index);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, double[] scores) {
+        int index = 0;
+        while (true) {
+            int worst = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && isBetter(heap[worst], heap[left], scores)) {
+                worst = left;
+            }
+            if (right < size && isBetter(heap[worst], heap[right], scores)) {
+                worst = right;
+            }
+            if (worst == index) {
+                return;
+            }
+            swap(heap, index, worst);
+            index = worst;
+        }
+    }
+
+    private static void swap(int[] heap, int i, int j) {
+        int tmp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = tmp;
+    }
+}
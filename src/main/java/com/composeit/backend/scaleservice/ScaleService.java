@@ -1,19 +1,100 @@
 package com.composeit.backend.scaleservice;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.composeit.backend.dto.QualitiesResponse;
 import com.composeit.backend.dto.QualitiesResponse.QualityEntry;
+import com.composeit.backend.scaleservice.models.AudioAnalysis;
+import com.composeit.backend.scaleservice.models.GeneratedProgression;
+import com.composeit.backend.scaleservice.models.IdentifiedChord;
+import com.composeit.backend.scaleservice.models.KeySegment;
+import com.composeit.backend.scaleservice.models.LocatedProgression;
+import com.composeit.backend.scaleservice.models.MidiAnalysis;
+import com.composeit.backend.scaleservice.models.ProgressionOrder;
 import com.composeit.backend.scaleservice.models.Quality;
+import com.composeit.backend.scaleservice.models.RankedKey;
+import com.composeit.backend.scaleservice.models.RankedScale;
+import com.composeit.backend.scaleservice.models.ScaleDefinition;
 import com.composeit.backend.scaleservice.models.ScaleProfile;
+import com.composeit.backend.scaleservice.models.VoiceLeading;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ScaleService {
-	ScaleCalculator scalecalculator = new ScaleCalculator();
+	ScaleCalculator scalecalculator;
+	private final ProgressionComposer progressionComposer;
+	private final ProgressionLocator progressionLocator;
+	private final ProgressionVoicer progressionVoicer;
+	private final ChordIdentifier chordIdentifier;
+	private final KeyFinder keyFinder;
+	private final MidiAnalyzer midiAnalyzer;
+	private final AudioAnalyzer audioAnalyzer;
+
+	// The features outside ScaleCalculator are timed here, once per call
+	private final Timer locateProgressionTimer;
+	private final Timer leadVoicesTimer;
+	private final Timer identifyChordTimer;
+	private final Timer findKeysTimer;
+	private final Timer analyzeMidiTimer;
+	private final Timer analyzeAudioTimer;
+
+	public ScaleService() {
+		this(ScaleMetrics.NOOP, List.of());
+	}
+
+	/**
+	 * @param scaleDefinitions path of a file of user-defined scales (see ScaleDefinitions), or empty for none
+	 */
+	@Autowired
+	public ScaleService(MeterRegistry meterRegistry,
+			@Value("${composeit.scales.definitions:}") String scaleDefinitions) {
+		this(new ScaleMetrics(meterRegistry), loadScaleDefinitions(scaleDefinitions));
+	}
+
+	private ScaleService(ScaleMetrics metrics, List<ScaleDefinition> customScales) {
+		this.scalecalculator = new ScaleCalculator(metrics, customScales);
+		ScalePatternCalculator patternCalculator = scalecalculator.getPatternCalculator();
+		ChordCalculator chordCalculator = scalecalculator.getChordCalculator();
+		this.progressionComposer = new ProgressionComposer(patternCalculator, chordCalculator);
+		this.progressionLocator = new ProgressionLocator(patternCalculator, chordCalculator, metrics);
+		this.progressionVoicer = new ProgressionVoicer(metrics);
+		this.chordIdentifier = new ChordIdentifier(metrics);
+		this.keyFinder = new KeyFinder(patternCalculator);
+		this.midiAnalyzer = new MidiAnalyzer(patternCalculator, keyFinder);
+		this.audioAnalyzer = new AudioAnalyzer(patternCalculator, keyFinder);
+
+		this.locateProgressionTimer = metrics.timer(ProgressionLocator.class, "locate");
+		this.leadVoicesTimer = metrics.timer(ProgressionVoicer.class, "lead");
+		this.identifyChordTimer = metrics.timer(ChordIdentifier.class, "identify");
+		this.findKeysTimer = metrics.timer(KeyFinder.class, "findKeys");
+		this.analyzeMidiTimer = metrics.timer(MidiAnalyzer.class, "analyze");
+		this.analyzeAudioTimer = metrics.timer(AudioAnalyzer.class, "analyze");
+	}
+
+	private static List<ScaleDefinition> loadScaleDefinitions(String file) {
+		if (file == null || file.isBlank()) {
+			return List.of();
+		}
+		try {
+			return ScaleDefinitions.load(Path.of(file));
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not read scale definitions from " + file, e);
+		}
+	}
 
     public List<String> getSemitones(String semitone, Quality quality) {
         return scalecalculator.getSemitonesFromScale(semitone, quality);
@@ -23,6 +104,10 @@ public class ScaleService {
     	return scalecalculator.getScaleFromSemitones(semitones, advanced);
     }
 
+    public Stream<String> streamScalesFromSemitones(List<String> semitones, boolean advanced) {
+        return scalecalculator.streamScaleFromSemitones(semitones, advanced);
+    }
+
     public List<String> getChords(String tonic, Quality quality) {
         return scalecalculator.getChordsFromScale(tonic, quality);
     }
@@ -31,10 +116,83 @@ public class ScaleService {
         return scalecalculator.getScaleFromChords(chords, advanced);
     }
 
+    public Stream<String> streamScalesFromChords(List<String> chords, boolean advanced) {
+        return scalecalculator.streamScaleFromChords(chords, advanced);
+    }
+
+    public List<KeySegment> trackKeys(List<String> chords, int windowSize, boolean advanced) {
+        return scalecalculator.trackKeys(chords, windowSize, advanced);
+    }
+
+    public List<RankedScale> rankScales(List<String> semitones, Map<String, Double> weights, int limit, boolean advanced) {
+        return scalecalculator.rankScales(semitones, weights, limit, advanced);
+    }
+
+    public List<RankedKey> findKeys(Map<String, Double> durations, int limit, boolean advanced) {
+        return findKeysTimer.record(() -> keyFinder.findKeys(durations, limit, advanced));
+    }
+
+    public List<LocatedProgression> locateProgression(List<String> chords, boolean advanced) {
+        return locateProgressionTimer.record(() -> progressionLocator.locate(chords, advanced));
+    }
+
+    public VoiceLeading leadVoices(List<String> chords, int low, int high, int voices) {
+        return leadVoicesTimer.record(() -> progressionVoicer.lead(chords, low, high, voices));
+    }
+
+    public List<IdentifiedChord> identifyChord(List<String> notes, String bass) {
+        return identifyChordTimer.record(() -> chordIdentifier.identify(notes, bass));
+    }
+
+    public MidiAnalysis analyzeMidi(ByteBuffer file, boolean advanced) {
+        return analyzeMidiTimer.record(() -> midiAnalyzer.analyze(file, advanced));
+    }
+
+    public AudioAnalysis analyzeAudio(ByteBuffer file, boolean advanced) {
+        return analyzeAudioTimer.record(() -> audioAnalyzer.analyze(file, advanced));
+    }
+
+    public Stream<GeneratedProgression> generateProgressions(String tonic, Quality quality, int length, int limit,
+            ProgressionOrder order, boolean cadence, long seed) {
+        // Not timed: the work happens as the stream is consumed, which for NDJSON is paced by the
+        // client, so the endpoint's http.server.requests timer is the measure of it
+        return progressionComposer.generate(tonic, quality, length, limit, order, cadence, seed);
+    }
+
+    /**
+     * Returns a transposer for one chart or chord list, either by semitones or into key (from the
+     * chart's key if given, else from its first chord).
+     *
+     * @throws IllegalArgumentException unless exactly one of semitones and key is given, or if a key is not valid
+     */
+    public ChordTransposer createTransposer(Integer semitones, String key, String from) {
+        boolean hasKey = key != null && !key.isEmpty();
+        if ((semitones == null) == !hasKey) {
+            throw new IllegalArgumentException("Give either semitones or a key");
+        }
+        return hasKey ? ChordTransposer.toKey(key, from) : ChordTransposer.bySemitones(semitones);
+    }
+
+    public List<String> transposeChords(List<String> chords, Integer semitones, String key, String from) {
+        ChordTransposer transposer = createTransposer(semitones, key, from);
+        return chords.stream().map(transposer::transposeChord).toList();
+    }
+
     public ScaleProfile getScaleProfile(String tonic, Quality quality) {
         return scalecalculator.getScaleProfile(tonic, quality);
     }
 
+    public ScaleProfile getCustomScaleProfile(String tonic, String scale) {
+        return scalecalculator.getCustomScaleProfile(tonic, scale);
+    }
+
+    public QualitiesResponse getCustomQualities() {
+        List<QualityEntry> entries = scalecalculator.getCustomScales().stream()
+            .map(definition -> new QualityEntry(definition.getName(), definition.getLabel()))
+            .collect(Collectors.toList());
+        return new QualitiesResponse(entries);
+    }
+
     public QualitiesResponse getQualities(boolean advanced) {
         List<QualityEntry> entries = Quality.allowed(advanced).stream()
             .map(q -> new QualityEntry(q.name(), formatQualityLabel(q.name())))
@@ -0,0 +1,175 @@
+package com.composeit.backend.scaleservice;
+
+import java.util.stream.IntStream;
+
+import com.composeit.backend.scaleservice.models.Note;
+import com.composeit.backend.scaleservice.models.Quality;
+
+/**
+ * Sets of scales packed into a {@code long[]} bitset, one bit per (tonic, quality) pair.
+ *
+ * A scale's id is {@code tonic pitch class * QUALITY_COUNT + quality ordinal}, so walking a set
+ * in bit order lists scales by tonic in chromatic order, then by quality - the order the
+ * calculators have always returned them in. With 12 tonics and 12 qualities a set is 144 bits
+ * (three longs), and intersecting two sets costs three AND instructions.
+ *
+ * The bit operations work on sets of any length, so user-defined scales (see CustomScaleCalculator)
+ * use the same methods with their own ids and a set sized by empty(int).
+ */
+public final class ScaleSet {
+    public static final int QUALITY_COUNT = Quality.values().length;
+    public static final int SCALE_COUNT = PitchClassSet.PITCH_CLASS_COUNT * QUALITY_COUNT;
+
+    private static final Quality[] QUALITIES = Quality.values();
+
+    // Scale names indexed by id
+    private static final String[] NAMES = new String[SCALE_COUNT];
+    static {
+        for (int id = 0; id < SCALE_COUNT; id++) {
+            NAMES[id] = Note.ofPitchClass(tonicOf(id)).getName() + " " + qualityOf(id).name();
+        }
+    }
+
+    // Scales a chord search starts from; the diminished scale has no diatonic chords to match
+    private static final long[] CHORD_SEARCH_SCALES = chordSearch(false);
+    private static final long[] ADVANCED_CHORD_SEARCH_SCALES = chordSearch(true);
+
+    // Scales a ranked search scores, every quality the mode allows
+    private static final long[] RANKED_SCALES = ranked(false);
+    private static final long[] ADVANCED_RANKED_SCALES = ranked(true);
+
+    private ScaleSet() {
+    }
+
+    public static long[] empty() {
+        return empty(SCALE_COUNT);
+    }
+
+    /**
+     * Returns an empty set with room for ids 0 to scaleCount - 1.
+     */
+    public static long[] empty(int scaleCount) {
+        return new long[(scaleCount + Long.SIZE - 1) / Long.SIZE];
+    }
+
+    public static int id(int tonicPitchClass, Quality quality) {
+        return tonicPitchClass * QUALITY_COUNT + quality.ordinal();
+    }
+
+    public static int tonicOf(int id) {
+        return id / QUALITY_COUNT;
+    }
+
+    public static Quality qualityOf(int id) {
+        return QUALITIES[id % QUALITY_COUNT];
+    }
+
+    /**
+     * Returns the scale's name, its tonic's sharp spelling and quality, e.g. "C# MAJOR".
+     */
+    public static String name(int id) {
+        return NAMES[id];
+    }
+
+    /**
+     * Returns the scales a chord search in the mode starts from. The set is shared, so clone it before changing it.
+     */
+    static long[] chordSearchScales(boolean advanced) {
+        return advanced ? ADVANCED_CHORD_SEARCH_SCALES : CHORD_SEARCH_SCALES;
+    }
+
+    /**
+     * Returns the scales a ranked search in the mode scores. The set is shared, so clone it before changing it.
+     */
+    static long[] rankedScales(boolean advanced) {
+        return advanced ? ADVANCED_RANKED_SCALES : RANKED_SCALES;
+    }
+
+    public static void add(long[] set, int id) {
+        set[id >>> 6] |= 1L << id;
+    }
+
+    public static void remove(long[] set, int id) {
+        set[id >>> 6] &= ~(1L << id);
+    }
+
+    public static boolean contains(long[] set, int id) {
+        return (set[id >>> 6] & (1L << id)) != 0;
+    }
+
+    /**
+     * Removes every scale from {@code set} that is not also in {@code other}.
+     */
+    public static void retainAll(long[] set, long[] other) {
+        for (int i = 0; i < set.length; i++) {
+            set[i] &= other[i];
+        }
+    }
+
+    public static boolean isEmpty(long[] set) {
+        for (int i = 0; i < set.length; i++) {
+            if (set[i] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static int size(long[] set) {
+        int size = 0;
+        for (int i = 0; i < set.length; i++) {
+            size += Long.bitCount(set[i]);
+        }
+        return size;
+    }
+
+    /**
+     * Returns the first scale id in the set that is greater than or equal to {@code fromId}, or -1 if there is none.
+     * Iterate with {@code for (int id = nextScale(set, 0); id >= 0; id = nextScale(set, id + 1))}.
+     */
+    public static int nextScale(long[] set, int fromId) {
+        if (fromId >= set.length * Long.SIZE) {
+            return -1;
+        }
+        int word = fromId >>> 6;
+        long bits = set[word] & (-1L << fromId);
+        while (true) {
+            if (bits != 0) {
+                return word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+            }
+            if (++word == set.length) {
+                return -1;
+            }
+            bits = set[word];
+        }
+    }
+
+    /**
+     * Returns the scale ids in the set in ascending order, each found only when the stream asks for it.
+     */
+    public static IntStream stream(long[] set) {
+        return IntStream.iterate(nextScale(set, 0), id -> id >= 0, id -> nextScale(set, id + 1));
+    }
+
+    private static long[] ranked(boolean advanced) {
+        long[] scales = empty();
+        for (int tonic = 0; tonic < PitchClassSet.PITCH_CLASS_COUNT; tonic++) {
+            for (Quality quality : Quality.allowed(advanced)) {
+                add(scales, id(tonic, quality));
+            }
+        }
+        return scales;
+    }
+
+    private static long[] chordSearch(boolean advanced) {
+        long[] scales = empty();
+        for (int tonic = 0; tonic < PitchClassSet.PITCH_CLASS_COUNT; tonic++) {
+            for (Quality quality : Quality.allowed(advanced)) {
+                if (quality != Quality.DIMINISHED) {
+                    add(scales, id(tonic, quality));
+                }
+            }
+        }
+        return scales;
+    }
+}
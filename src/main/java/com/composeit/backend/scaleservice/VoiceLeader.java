@@ -0,0 +1,326 @@
+package com.composeit.backend.scaleservice;
+
+import java.util.Arrays;
+
+import com.composeit.backend.scaleservice.models.Quality;
+
+/**
+ * Chooses a voicing for every chord of a progression so that the total voice movement, the sum of
+ * the semitones each voice moves from one chord to the next, is as small as possible.
+ *
+ * A chord's candidates are every voicing of it in the range with the given number of voices: distinct
+ * MIDI notes, lowest first, each a chord tone, with every chord tone present and adjacent upper voices
+ * at most an octave apart. Any chord tone may be in the bass, so the candidates cover every inversion;
+ * a slash chord puts its bass note there instead. When there are fewer voices than tones, the fifth is
+ * left out. Candidates are built once per (root, quality, bass) and stored in one flat int array, and
+ * they are ordered closest to the middle of the range first, which is where ties are broken.
+ *
+ * The search is a Viterbi pass: for each chord, the cheapest way to reach each of its candidates from
+ * any candidate of the previous chord, then a walk back along the choices. It works on primitive
+ * arrays sized once per progression, so the inner loop does not allocate. Since moving between two
+ * voicings costs at least the difference of their note sums, each candidate looks at the previous ones
+ * outward from the nearest sum and stops once none further out can be cheaper, which skips most of them.
+ */
+public class VoiceLeader {
+    public static final int MIN_VOICES = 3;
+    public static final int MAX_VOICES = 6;
+    public static final int MAX_RANGE = 48;
+    public static final int MAX_MIDI_NOTE = 127;
+
+    private static final int MAX_SPACING = 12;
+
+    private final int low;
+    private final int high;
+    private final int voices;
+
+    // Candidate voicings indexed by (root, quality, bass + 1); built on first use
+    private final Candidates[] candidatesByChord =
+            new Candidates[PitchClassSet.PITCH_CLASS_COUNT * ScaleSet.QUALITY_COUNT * (PitchClassSet.PITCH_CLASS_COUNT + 1)];
+
+    /**
+     * @throws IllegalArgumentException if the range is not within MIDI notes 0-127 and at most MAX_RANGE
+     * semitones wide, or voices is not between MIN_VOICES and MAX_VOICES
+     */
+    public VoiceLeader(int low, int high, int voices) {
+        if (low < 0 || high > MAX_MIDI_NOTE || low > high || high - low > MAX_RANGE) {
+            throw new IllegalArgumentException("Range must be within 0-" + MAX_MIDI_NOTE + " and span at most "
+                    + MAX_RANGE + " semitones");
+        }
+        if (voices < MIN_VOICES || voices > MAX_VOICES) {
+            throw new IllegalArgumentException("Voices must be between " + MIN_VOICES + " and " + MAX_VOICES);
+        }
+        this.low = low;
+        this.high = high;
+        this.voices = voices;
+    }
+
+    public int getVoices() {
+        return voices;
+    }
+
+    /**
+     * Returns the chosen voicing of each chord, lowest note first. Chords are given as root pitch
+     * classes, qualities, and bass pitch classes or -1 for none.
+     *
+     * @throws IllegalArgumentException if a chord has no voicing in the range
+     */
+    public int[][] lead(int[] roots, Quality[] qualities, int[] basses) {
+        int count = roots.length;
+        if (count == 0) {
+            return new int[0][];
+        }
+        Candidates[] index = new Candidates[count];
+        int[][] candidates = new int[count][];
+        int maxCandidates = 0;
+        for (int i = 0; i < count; i++) {
+            index[i] = candidateIndex(roots[i], qualities[i], basses[i]);
+            candidates[i] = index[i].notes;
+            if (candidates[i].length == 0) {
+                throw new IllegalArgumentException("No voicing in range for chord " + (i + 1));
+            }
+            maxCandidates = Math.max(maxCandidates, candidates[i].length / voices);
+        }
+
+        // cost[k] is the least movement reaching candidate k of the current chord; previous[i][k] is where it came from
+        int[] cost = new int[maxCandidates];
+        int[] nextCost = new int[maxCandidates];
+        // The least cost among the previous candidates at or below (at or above) each position in note sum order
+        int[] minBelow = new int[maxCandidates];
+        int[] minAbove = new int[maxCandidates];
+        int[][] previous = new int[count][];
+        for (int i = 1; i < count; i++) {
+            int[] from = candidates[i - 1];
+            int[] to = candidates[i];
+            Candidates fromIndex = index[i - 1];
+            int fromCount = from.length / voices;
+            int toCount = to.length / voices;
+            for (int o = 0; o < fromCount; o++) {
+                int least = cost[fromIndex.bySum[o]];
+                minBelow[o] = o == 0 ? least : Math.min(minBelow[o - 1], least);
+            }
+            for (int o = fromCount - 1; o >= 0; o--) {
+                int least = cost[fromIndex.bySum[o]];
+                minAbove[o] = o == fromCount - 1 ? least : Math.min(minAbove[o + 1], least);
+            }
+
+            int[] choices = new int[toCount];
+            for (int k = 0; k < toCount; k++) {
+                int toOffset = k * voices;
+                int sum = index[i].sums[k];
+                int best = Integer.MAX_VALUE;
+                int bestFrom = 0;
+
+                // Walk outward from the previous candidates with the nearest note sum. Moving costs at least
+                // the difference of the sums, so a side is done once its least cost plus that gap cannot win
+                // or tie; ties go to the earlier candidate, the one closer to the middle of the range.
+                int above = lowerBound(fromIndex.sortedSums, sum);
+                int below = above - 1;
+                while (below >= 0 || above < fromCount) {
+                    int belowBound = below >= 0 ? minBelow[below] + sum - fromIndex.sortedSums[below] : Integer.MAX_VALUE;
+                    int aboveBound = above < fromCount ? minAbove[above] + fromIndex.sortedSums[above] - sum : Integer.MAX_VALUE;
+                    if (Math.min(belowBound, aboveBound) > best) {
+                        break;
+                    }
+                    int j = belowBound <= aboveBound ? fromIndex.bySum[below--] : fromIndex.bySum[above++];
+
+                    int total = cost[j];
+                    int fromOffset = j * voices;
+                    for (int v = 0; v < voices && total <= best; v++) {
+                        total += Math.abs(to[toOffset + v] - from[fromOffset + v]);
+                    }
+                    if (total < best || total == best && j < bestFrom) {
+                        best = total;
+                        bestFrom = j;
+                    }
+                }
+                nextCost[k] = best;
+                choices[k] = bestFrom;
+            }
+            previous[i] = choices;
+            int[] swap = cost;
+            cost = nextCost;
+            nextCost = swap;
+        }
+
+        int last = 0;
+        int lastCount = candidates[count - 1].length / voices;
+        for (int k = 1; k < lastCount; k++) {
+            if (cost[k] < cost[last]) {
+                last = k;
+            }
+        }
+        int[][] voicings = new int[count][];
+        for (int i = count - 1; i >= 0; i--) {
+            voicings[i] = Arrays.copyOfRange(candidates[i], last * voices, (last + 1) * voices);
+            if (i > 0) {
+                last = previous[i][last];
+            }
+        }
+        return voicings;
+    }
+
+    /**
+     * Returns the total semitones moved by all voices across the voicings.
+     */
+    public static int movement(int[][] voicings) {
+        int total = 0;
+        for (int i = 1; i < voicings.length; i++) {
+            for (int v = 0; v < voicings[i].length; v++) {
+                total += Math.abs(voicings[i][v] - voicings[i - 1][v]);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Returns the candidate voicings of a chord as one flat array, voices consecutive notes per voicing.
+     * The array is shared, so callers must not modify it.
+     */
+    public int[] candidates(int root, Quality quality, int bass) {
+        return candidateIndex(root, quality, bass).notes;
+    }
+
+    private Candidates candidateIndex(int root, Quality quality, int bass) {
+        int index = (root * ScaleSet.QUALITY_COUNT + quality.ordinal()) * (PitchClassSet.PITCH_CLASS_COUNT + 1) + bass + 1;
+        Candidates candidates = candidatesByChord[index];
+        if (candidates == null) {
+            candidates = new Candidates(buildCandidates(root, quality, bass));
+            candidatesByChord[index] = candidates;
+        }
+        return candidates;
+    }
+
+    private static int lowerBound(int[] sorted, int value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int[] buildCandidates(int root, Quality quality, int bass) {
+        int third = (root + (quality == Quality.MAJOR ? 4 : 3)) % PitchClassSet.PITCH_CLASS_COUNT;
+        int fifth = (root + (quality == Quality.DIMINISHED ? 6 : 7)) % PitchClassSet.PITCH_CLASS_COUNT;
+        int tones = PitchClassSet.of(root) | PitchClassSet.of(third) | PitchClassSet.of(fifth);
+        if (bass >= 0) {
+            tones = PitchClassSet.with(tones, bass);
+        }
+        int required = PitchClassSet.size(tones) > voices && bass != fifth ? tones & ~PitchClassSet.of(fifth) : tones;
+
+        int[] pitches = new int[high - low + 1];
+        int pitchCount = 0;
+        for (int note = low; note <= high; note++) {
+            if (PitchClassSet.contains(tones, note % PitchClassSet.PITCH_CLASS_COUNT)) {
+                pitches[pitchCount++] = note;
+            }
+        }
+
+        Collector collector = new Collector(bass, required);
+        collector.collect(pitches, pitchCount, 0, 0);
+        return collector.sorted();
+    }
+
+    /**
+     * A chord's flat candidate voicings, with the sum of each voicing's notes and the candidates
+     * ordered by that sum.
+     */
+    private final class Candidates {
+        private final int[] notes;
+        private final int[] sums;
+        private final int[] sortedSums;
+        private final int[] bySum;
+
+        Candidates(int[] notes) {
+            this.notes = notes;
+            int count = notes.length / voices;
+            this.sums = new int[count];
+            long[] keys = new long[count];
+            for (int k = 0; k < count; k++) {
+                for (int v = 0; v < voices; v++) {
+                    sums[k] += notes[k * voices + v];
+                }
+                keys[k] = (long) sums[k] << 32 | k;
+            }
+            Arrays.sort(keys);
+            this.sortedSums = new int[count];
+            this.bySum = new int[count];
+            for (int o = 0; o < count; o++) {
+                sortedSums[o] = (int) (keys[o] >>> 32);
+                bySum[o] = (int) keys[o];
+            }
+        }
+    }
+
+    private final class Collector {
+        private final int bass;
+        private final int required;
+        private final int[] voicing = new int[voices];
+        private int[] found = new int[64 * voices];
+        private int count;
+
+        Collector(int bass, int required) {
+            this.bass = bass;
+            this.required = required;
+        }
+
+        void collect(int[] pitches, int pitchCount, int start, int depth) {
+            if (depth == voices) {
+                int covered = 0;
+                for (int note : voicing) {
+                    covered = PitchClassSet.with(covered, note % PitchClassSet.PITCH_CLASS_COUNT);
+                }
+                if (PitchClassSet.isSubset(required, covered)) {
+                    add();
+                }
+                return;
+            }
+            for (int p = start; p < pitchCount; p++) {
+                int note = pitches[p];
+                if (depth == 0 && bass >= 0 && note % PitchClassSet.PITCH_CLASS_COUNT != bass) {
+                    continue;
+                }
+                if (depth == 0 && bass < 0 && !PitchClassSet.contains(required, note % PitchClassSet.PITCH_CLASS_COUNT)) {
+                    continue;
+                }
+                if (depth > 1 && note - voicing[depth - 1] > MAX_SPACING) {
+                    break;
+                }
+                voicing[depth] = note;
+                collect(pitches, pitchCount, p + 1, depth + 1);
+            }
+        }
+
+        private void add() {
+            if ((count + 1) * voices > found.length) {
+                found = Arrays.copyOf(found, found.length * 2);
+            }
+            System.arraycopy(voicing, 0, found, count * voices, voices);
+            count++;
+        }
+
+        // Orders voicings by distance from the middle of the range, then from lowest
+        int[] sorted() {
+            int center = low + high;
+            long[] keys = new long[count];
+            for (int k = 0; k < count; k++) {
+                int distance = 0;
+                for (int v = 0; v < voices; v++) {
+                    distance += Math.abs(2 * found[k * voices + v] - center);
+                }
+                keys[k] = (long) distance << 32 | k;
+            }
+            Arrays.sort(keys);
+            int[] sorted = new int[count * voices];
+            for (int k = 0; k < count; k++) {
+                System.arraycopy(found, (int) keys[k] * voices, sorted, k * voices, voices);
+            }
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.composeit.backend.scaleservice.models;
+
+import java.util.List;
+
+/**
+ * The key of a recording as a scale name ("A MINOR"), or null if it is silent, and its chords over
+ * time, each span running until the chord changes.
+ */
+public class AudioAnalysis {
+    private final String key;
+    private final List<ChordSpan> chords;
+
+    public AudioAnalysis(String key, List<ChordSpan> chords) {
+        this.key = key;
+        this.chords = List.copyOf(chords);
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public List<ChordSpan> getChords() {
+        return chords;
+    }
+}
@@ -0,0 +1,22 @@
+package com.composeit.backend.scaleservice.models;
+
+/**
+ * The chord that best fits one bar of a MIDI file, numbered from 1, or null for a bar without notes.
+ */
+public class BarChord {
+    private final int bar;
+    private final String chord;
+
+    public BarChord(int bar, String chord) {
+        this.bar = bar;
+        this.chord = chord;
+    }
+
+    public int getBar() {
+        return bar;
+    }
+
+    public String getChord() {
+        return chord;
+    }
+}
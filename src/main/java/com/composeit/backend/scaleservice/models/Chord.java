@@ -0,0 +1,66 @@
+package com.composeit.backend.scaleservice.models;
+
+/**
+ * A triad as it appears in a scale's chord list: a root spelling and a chord quality
+ * (MAJOR, MINOR or DIMINISHED).
+ *
+ * Chords are interned, so there is exactly one instance per (root, quality) pair and they can be
+ * compared with ==. The display symbol ("Bb", "F#m", "B°") is built once per instance.
+ */
+public final class Chord {
+    private static final Quality[] CHORD_QUALITIES = {Quality.MAJOR, Quality.MINOR, Quality.DIMINISHED};
+
+    // Indexed by [root ordinal][chord quality ordinal]
+    private static final Chord[][] CHORDS = new Chord[Note.values().length][Quality.values().length];
+    static {
+        for (Note root : Note.values()) {
+            for (Quality quality : CHORD_QUALITIES) {
+                CHORDS[root.ordinal()][quality.ordinal()] = new Chord(root, quality);
+            }
+        }
+    }
+
+    private final Note root;
+    private final Quality quality;
+    private final String name;
+
+    private Chord(Note root, Quality quality) {
+        this.root = root;
+        this.quality = quality;
+        this.name = root.getName() + switch (quality) {
+            case MAJOR -> "";
+            case MINOR -> "m";
+            default -> "°";
+        };
+    }
+
+    /**
+     * Returns the interned chord for the given root and chord quality.
+     *
+     * @throws IllegalArgumentException if the quality is not MAJOR, MINOR or DIMINISHED
+     */
+    public static Chord of(Note root, Quality quality) {
+        Chord chord = root == null || quality == null ? null : CHORDS[root.ordinal()][quality.ordinal()];
+        if (chord == null) {
+            throw new IllegalArgumentException("Not a chord: " + root + " " + quality);
+        }
+        return chord;
+    }
+
+    public Note getRoot() {
+        return root;
+    }
+
+    public Quality getQuality() {
+        return quality;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,29 @@
+package com.composeit.backend.scaleservice.models;
+
+/**
+ * A stretch of audio heard as one chord, from start to end in seconds, or with a null chord where it
+ * is too quiet to name one.
+ */
+public class ChordSpan {
+    private final double start;
+    private final double end;
+    private final String chord;
+
+    public ChordSpan(double start, double end, String chord) {
+        this.start = start;
+        this.end = end;
+        this.chord = chord;
+    }
+
+    public double getStart() {
+        return start;
+    }
+
+    public double getEnd() {
+        return end;
+    }
+
+    public String getChord() {
+        return chord;
+    }
+}
@@ -0,0 +1,118 @@
+package com.composeit.backend.scaleservice.models;
+
+import java.util.List;
+
+/**
+ * The chord types a chord symbol can name, each with the suffixes that spell it and its tones as a
+ * 12-bit interval mask: bit i is set if the chord has the tone i semitones above its root.
+ *
+ * The triad is the MAJOR, MINOR or DIMINISHED triad the chord is built on, or null for chords
+ * without one (suspended, augmented, power and altered-fifth chords). The extension is the highest
+ * numbered tone in the name, 0 for a plain triad.
+ *
+ * The first suffix of each type is its display form; the rest are accepted spellings.
+ */
+public enum ChordType {
+    // Triads
+    MAJOR(Quality.MAJOR, 0, intervals(0, 4, 7), "", "M", "maj"),
+    MINOR(Quality.MINOR, 0, intervals(0, 3, 7), "m", "min"),
+    DIMINISHED(Quality.DIMINISHED, 0, intervals(0, 3, 6), "°", "dim"),
+    AUGMENTED(null, 0, intervals(0, 4, 8), "+", "aug"),
+    SUSPENDED_SECOND(null, 2, intervals(0, 2, 7), "sus2"),
+    SUSPENDED_FOURTH(null, 4, intervals(0, 5, 7), "sus4", "sus"),
+    POWER(null, 5, intervals(0, 7), "5"),
+
+    // Sixths
+    SIXTH(Quality.MAJOR, 6, intervals(0, 4, 7, 9), "6", "M6", "maj6"),
+    MINOR_SIXTH(Quality.MINOR, 6, intervals(0, 3, 7, 9), "m6", "min6"),
+    SIX_NINE(Quality.MAJOR, 9, intervals(0, 2, 4, 7, 9), "69", "M69"),
+    MINOR_SIX_NINE(Quality.MINOR, 9, intervals(0, 2, 3, 7, 9), "m69", "min69"),
+
+    // Sevenths
+    DOMINANT_SEVENTH(Quality.MAJOR, 7, intervals(0, 4, 7, 10), "7"),
+    MAJOR_SEVENTH(Quality.MAJOR, 7, intervals(0, 4, 7, 11), "maj7", "M7"),
+    MINOR_SEVENTH(Quality.MINOR, 7, intervals(0, 3, 7, 10), "m7", "min7"),
+    MINOR_MAJOR_SEVENTH(Quality.MINOR, 7, intervals(0, 3, 7, 11), "mmaj7", "mM7", "minmaj7"),
+    DIMINISHED_SEVENTH(Quality.DIMINISHED, 7, intervals(0, 3, 6, 9), "°7", "dim7"),
+    HALF_DIMINISHED_SEVENTH(Quality.DIMINISHED, 7, intervals(0, 3, 6, 10), "m7b5", "ø", "ø7", "min7b5"),
+    AUGMENTED_SEVENTH(null, 7, intervals(0, 4, 8, 10), "7#5", "+7", "aug7", "7+5"),
+    AUGMENTED_MAJOR_SEVENTH(null, 7, intervals(0, 4, 8, 11), "maj7#5", "+M7", "augmaj7"),
+    SEVENTH_FLAT_FIVE(null, 7, intervals(0, 4, 6, 10), "7b5"),
+    SEVENTH_SUSPENDED_FOURTH(null, 7, intervals(0, 5, 7, 10), "7sus4", "7sus"),
+
+    // Ninths and added tones
+    DOMINANT_NINTH(Quality.MAJOR, 9, intervals(0, 2, 4, 7, 10), "9"),
+    MAJOR_NINTH(Quality.MAJOR, 9, intervals(0, 2, 4, 7, 11), "maj9", "M9"),
+    MINOR_NINTH(Quality.MINOR, 9, intervals(0, 2, 3, 7, 10), "m9", "min9"),
+    MINOR_MAJOR_NINTH(Quality.MINOR, 9, intervals(0, 2, 3, 7, 11), "mmaj9", "mM9", "minmaj9"),
+    ADDED_NINTH(Quality.MAJOR, 9, intervals(0, 2, 4, 7), "add9", "add2", "2"),
+    MINOR_ADDED_NINTH(Quality.MINOR, 9, intervals(0, 2, 3, 7), "madd9", "madd2", "minadd9"),
+    NINTH_SUSPENDED_FOURTH(null, 9, intervals(0, 2, 5, 7, 10), "9sus4", "9sus"),
+
+    // Elevenths
+    DOMINANT_ELEVENTH(Quality.MAJOR, 11, intervals(0, 2, 4, 5, 7, 10), "11"),
+    MAJOR_ELEVENTH(Quality.MAJOR, 11, intervals(0, 2, 4, 5, 7, 11), "maj11", "M11"),
+    MINOR_ELEVENTH(Quality.MINOR, 11, intervals(0, 2, 3, 5, 7, 10), "m11", "min11"),
+    ADDED_ELEVENTH(Quality.MAJOR, 11, intervals(0, 4, 5, 7), "add11", "add4"),
+
+    // Thirteenths, with the eleventh left out as usual
+    DOMINANT_THIRTEENTH(Quality.MAJOR, 13, intervals(0, 2, 4, 7, 9, 10), "13"),
+    MAJOR_THIRTEENTH(Quality.MAJOR, 13, intervals(0, 2, 4, 7, 9, 11), "maj13", "M13"),
+    MINOR_THIRTEENTH(Quality.MINOR, 13, intervals(0, 2, 3, 7, 9, 10), "m13", "min13"),
+
+    // Altered dominants
+    SEVENTH_FLAT_NINE(Quality.MAJOR, 9, intervals(0, 1, 4, 7, 10), "7b9"),
+    SEVENTH_SHARP_NINE(Quality.MAJOR, 9, intervals(0, 3, 4, 7, 10), "7#9"),
+    SEVENTH_SHARP_ELEVEN(Quality.MAJOR, 11, intervals(0, 4, 6, 7, 10), "7#11"),
+    NINTH_SHARP_ELEVEN(Quality.MAJOR, 11, intervals(0, 2, 4, 6, 7, 10), "9#11"),
+    MAJOR_SEVENTH_SHARP_ELEVEN(Quality.MAJOR, 11, intervals(0, 4, 6, 7, 11), "maj7#11", "M7#11"),
+    SEVENTH_FLAT_THIRTEEN(Quality.MAJOR, 13, intervals(0, 4, 7, 8, 10), "7b13"),
+    SEVENTH_FLAT_NINE_FLAT_THIRTEEN(Quality.MAJOR, 13, intervals(0, 1, 4, 7, 8, 10), "7b9b13"),
+    SEVENTH_FLAT_FIVE_FLAT_NINE(null, 9, intervals(0, 1, 4, 6, 10), "7b5b9"),
+    SEVENTH_SHARP_FIVE_SHARP_NINE(null, 9, intervals(0, 3, 4, 8, 10), "7#5#9"),
+    MINOR_SEVENTH_FLAT_NINE(Quality.MINOR, 9, intervals(0, 1, 3, 7, 10), "m7b9", "min7b9"),
+    ALTERED(null, 13, intervals(0, 1, 3, 4, 6, 8, 10), "7alt", "alt");
+
+    private final Quality triad;
+    private final int extension;
+    private final int intervals;
+    private final List<String> symbols;
+
+    ChordType(Quality triad, int extension, int intervals, String... symbols) {
+        this.triad = triad;
+        this.extension = extension;
+        this.intervals = intervals;
+        this.symbols = List.of(symbols);
+    }
+
+    public Quality getTriad() {
+        return triad;
+    }
+
+    public int getExtension() {
+        return extension;
+    }
+
+    /**
+     * Returns the chord's tones as a mask of intervals above the root, bit 0 being the root itself.
+     */
+    public int getIntervals() {
+        return intervals;
+    }
+
+    public String getSymbol() {
+        return symbols.get(0);
+    }
+
+    public List<String> getSymbols() {
+        return symbols;
+    }
+
+    private static int intervals(int... semitones) {
+        int mask = 0;
+        for (int semitone : semitones) {
+            mask |= 1 << semitone;
+        }
+        return mask;
+    }
+}
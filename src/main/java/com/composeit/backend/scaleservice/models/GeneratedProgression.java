@@ -0,0 +1,37 @@
+package com.composeit.backend.scaleservice.models;
+
+import java.util.List;
+
+/**
+ * A generated chord progression, as chord names and their positions in the scale (e.g. "ii", "V", "I"),
+ * with its score: the log of its weight, so the higher the more idiomatic.
+ */
+public class GeneratedProgression {
+    private final List<String> chords;
+    private final List<String> positions;
+    private final double score;
+    private final boolean cadence;
+
+    public GeneratedProgression(List<String> chords, List<String> positions, double score, boolean cadence) {
+        this.chords = chords;
+        this.positions = positions;
+        this.score = score;
+        this.cadence = cadence;
+    }
+
+    public List<String> getChords() {
+        return chords;
+    }
+
+    public List<String> getPositions() {
+        return positions;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public boolean isCadence() {
+        return cadence;
+    }
+}
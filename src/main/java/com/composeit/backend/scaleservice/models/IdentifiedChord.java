@@ -0,0 +1,49 @@
+package com.composeit.backend.scaleservice.models;
+
+/**
+ * One reading of a set of notes as a chord: its symbol ("C7/E"), root and bass as spelled in it,
+ * its type, and its inversion, the position of the bass among the chord tones stacked in thirds
+ * (0 for root position, 1 for the third in the bass, and so on). A chord read with its fifth left
+ * out has omitsFifth set.
+ */
+public final class IdentifiedChord {
+    private final String name;
+    private final String root;
+    private final ChordType type;
+    private final String bass;
+    private final int inversion;
+    private final boolean omitsFifth;
+
+    public IdentifiedChord(String name, String root, ChordType type, String bass, int inversion, boolean omitsFifth) {
+        this.name = name;
+        this.root = root;
+        this.type = type;
+        this.bass = bass;
+        this.inversion = inversion;
+        this.omitsFifth = omitsFifth;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getRoot() {
+        return root;
+    }
+
+    public ChordType getType() {
+        return type;
+    }
+
+    public String getBass() {
+        return bass;
+    }
+
+    public int getInversion() {
+        return inversion;
+    }
+
+    public boolean isOmitsFifth() {
+        return omitsFifth;
+    }
+}
@@ -0,0 +1,31 @@
+package com.composeit.backend.scaleservice.models;
+
+import java.util.List;
+
+/**
+ * A run of chords over which the candidate keys stay the same: for every chord position from start
+ * (inclusive) to end (exclusive), the window ending at that chord fits exactly these scales.
+ */
+public class KeySegment {
+    private final int start;
+    private final int end;
+    private final List<String> scales;
+
+    public KeySegment(int start, int end, List<String> scales) {
+        this.start = start;
+        this.end = end;
+        this.scales = List.copyOf(scales);
+    }
+
+    public int getStart() {
+        return start;
+    }
+
+    public int getEnd() {
+        return end;
+    }
+
+    public List<String> getScales() {
+        return scales;
+    }
+}
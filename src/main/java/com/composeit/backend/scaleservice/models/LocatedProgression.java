@@ -0,0 +1,25 @@
+package com.composeit.backend.scaleservice.models;
+
+import java.util.List;
+
+/**
+ * A key a chord progression fits, with the roman numeral reading of the progression in that key
+ * (e.g. "C MAJOR" with ii, V, I for Dm G C).
+ */
+public class LocatedProgression {
+    private final String scale;
+    private final List<String> positions;
+
+    public LocatedProgression(String scale, List<String> positions) {
+        this.scale = scale;
+        this.positions = positions;
+    }
+
+    public String getScale() {
+        return scale;
+    }
+
+    public List<String> getPositions() {
+        return positions;
+    }
+}
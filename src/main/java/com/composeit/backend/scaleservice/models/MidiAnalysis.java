@@ -0,0 +1,25 @@
+package com.composeit.backend.scaleservice.models;
+
+import java.util.List;
+
+/**
+ * The key of a MIDI file as a scale name ("A MINOR"), or null if it has no notes, and its chord in
+ * every bar up to the last note.
+ */
+public class MidiAnalysis {
+    private final String key;
+    private final List<BarChord> bars;
+
+    public MidiAnalysis(String key, List<BarChord> bars) {
+        this.key = key;
+        this.bars = List.copyOf(bars);
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public List<BarChord> getBars() {
+        return bars;
+    }
+}
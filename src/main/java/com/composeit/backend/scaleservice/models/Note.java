@@ -0,0 +1,124 @@
+package com.composeit.backend.scaleservice.models;
+
+import static com.composeit.backend.common.Constants.ENHARMONIC_MAP;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.composeit.backend.common.Constants;
+
+/**
+ * The 21 note spellings of Constants.ALL_NOTES as interned values.
+ *
+ * Each note carries its pitch class (C = 0 ... B = 11), its display string and its enharmonic
+ * pair from ENHARMONIC_MAP, so the calculators can compare and respell notes without string
+ * lookups. Notes are declared in ALL_NOTES order: each letter natural, sharp, flat, from C to B.
+ */
+public enum Note {
+    C(Constants.C, 0),
+    C_SHARP(Constants.C_SHARP, 1),
+    C_FLAT(Constants.C_FLAT, 11),      // Theoretical: enharmonically equivalent to B
+    D(Constants.D, 2),
+    D_SHARP(Constants.D_SHARP, 3),
+    D_FLAT(Constants.D_FLAT, 1),
+    E(Constants.E, 4),
+    E_SHARP(Constants.E_SHARP, 5),     // Theoretical: enharmonically equivalent to F
+    E_FLAT(Constants.E_FLAT, 3),
+    F(Constants.F, 5),
+    F_SHARP(Constants.F_SHARP, 6),
+    F_FLAT(Constants.F_FLAT, 4),       // Theoretical: enharmonically equivalent to E
+    G(Constants.G, 7),
+    G_SHARP(Constants.G_SHARP, 8),
+    G_FLAT(Constants.G_FLAT, 6),
+    A(Constants.A, 9),
+    A_SHARP(Constants.A_SHARP, 10),
+    A_FLAT(Constants.A_FLAT, 8),
+    B(Constants.B, 11),
+    B_SHARP(Constants.B_SHARP, 0),     // Theoretical: enharmonically equivalent to C
+    B_FLAT(Constants.B_FLAT, 10);
+
+    private static final Map<String, Note> BY_NAME;
+
+    // The sharp (or natural) spelling of each pitch class, i.e. Constants.SEMITONES
+    private static final Note[] BY_PITCH_CLASS = new Note[12];
+
+    static {
+        Map<String, Note> byName = new HashMap<>();
+        for (Note note : values()) {
+            byName.put(note.name, note);
+        }
+        BY_NAME = Collections.unmodifiableMap(byName);
+
+        for (Note note : values()) {
+            String[] pair = ENHARMONIC_MAP.get(note.name);
+            note.sharpSpelling = pair == null ? note : byName.get(pair[0]);
+            note.flatSpelling = pair == null ? note : byName.get(pair[1]);
+            if ((note.isNatural() || note.name.endsWith("#")) && !note.isTheoretical()) {
+                BY_PITCH_CLASS[note.pitchClass] = note;
+            }
+        }
+    }
+
+    private final String name;
+    private final int pitchClass;
+
+    // The pair from ENHARMONIC_MAP: preferred sharp notation and preferred flat notation
+    private Note sharpSpelling;
+    private Note flatSpelling;
+
+    Note(String name, int pitchClass) {
+        this.name = name;
+        this.pitchClass = pitchClass;
+    }
+
+    /**
+     * Returns the note with the given spelling (e.g. "Bb"), or null if it is not one of ALL_NOTES.
+     */
+    public static Note fromName(String name) {
+        return name == null ? null : BY_NAME.get(name);
+    }
+
+    /**
+     * Returns the sharp (or natural) spelling of a pitch class, as listed in Constants.SEMITONES.
+     */
+    public static Note ofPitchClass(int pitchClass) {
+        return BY_PITCH_CLASS[pitchClass];
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getPitchClass() {
+        return pitchClass;
+    }
+
+    public Note getSharpSpelling() {
+        return sharpSpelling;
+    }
+
+    public Note getFlatSpelling() {
+        return flatSpelling;
+    }
+
+    public boolean hasEnharmonic() {
+        return sharpSpelling != flatSpelling;
+    }
+
+    public boolean isNatural() {
+        return name.length() == 1;
+    }
+
+    /**
+     * B#, E#, Cb and Fb: accidentals whose enharmonic equivalent is a natural note.
+     */
+    public boolean isTheoretical() {
+        return !isNatural() && sharpSpelling != null && sharpSpelling.isNatural();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,13 @@
+package com.composeit.backend.scaleservice.models;
+
+/**
+ * How generated progressions are chosen and ordered.
+ */
+public enum ProgressionOrder {
+    /** The highest scoring progressions, best first */
+    RANKED,
+    /** Every progression, in order of scale degrees */
+    ENUMERATED,
+    /** Random walks over the transition weights */
+    SAMPLED
+}
@@ -0,0 +1,23 @@
+package com.composeit.backend.scaleservice.models;
+
+/**
+ * A key from a key-finding search with the Pearson correlation, between -1 and 1, of its key profile
+ * with the input's pitch-class durations.
+ */
+public class RankedKey {
+    private final String key;
+    private final double correlation;
+
+    public RankedKey(String key, double correlation) {
+        this.key = key;
+        this.correlation = correlation;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public double getCorrelation() {
+        return correlation;
+    }
+}
@@ -0,0 +1,41 @@
+package com.composeit.backend.scaleservice.models;
+
+/**
+ * A scale from a ranked search with its score and the note counts behind it: how many input notes
+ * it covers, how many it misses, and how many of its own notes the input leaves out.
+ */
+public class RankedScale {
+    private final String scale;
+    private final double score;
+    private final int matched;
+    private final int missed;
+    private final int leftOut;
+
+    public RankedScale(String scale, double score, int matched, int missed, int leftOut) {
+        this.scale = scale;
+        this.score = score;
+        this.matched = matched;
+        this.missed = missed;
+        this.leftOut = leftOut;
+    }
+
+    public String getScale() {
+        return scale;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public int getMatched() {
+        return matched;
+    }
+
+    public int getMissed() {
+        return missed;
+    }
+
+    public int getLeftOut() {
+        return leftOut;
+    }
+}
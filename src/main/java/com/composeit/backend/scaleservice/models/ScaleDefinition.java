@@ -0,0 +1,129 @@
+package com.composeit.backend.scaleservice.models;
+
+import java.util.Arrays;
+
+/**
+ * A user-defined scale quality, given by its step pattern in semitones. Unlike Quality, definitions are
+ * loaded at startup (see ScaleDefinitions), and everything the built-in qualities hard-code in Constants is
+ * derived from the steps: the diatonic chord qualities by stacking thirds, and the interval names by
+ * semitone distance from the tonic.
+ */
+public final class ScaleDefinition {
+    private static final int OCTAVE = 12;
+
+    private static final String[] INTERVAL_NAMES = {
+        "Unison", "Minor Second", "Major Second", "Minor Third", "Major Third", "Perfect Fourth",
+        "Augmented Fourth", "Perfect Fifth", "Minor Sixth", "Major Sixth", "Minor Seventh", "Major Seventh"
+    };
+
+    private final String name;
+    private final String label;
+
+    // Semitones above the tonic of each degree, ascending, starting with 0
+    private final int[] intervals;
+
+    // Chord quality of the triad on each degree, or null where stacking thirds gives no major, minor or diminished triad
+    private final Quality[] chordQualities;
+
+    /**
+     * @param steps semitones between consecutive degrees; the step back to the octave may be left out
+     * @throws IllegalArgumentException if a step is not positive, the steps pass the octave, or there
+     * are fewer than three degrees
+     */
+    public ScaleDefinition(String name, String label, int[] steps) {
+        int[] intervals = new int[steps.length + 1];
+        for (int i = 0; i < steps.length; i++) {
+            if (steps[i] < 1) {
+                throw new IllegalArgumentException(name + ": steps must be positive");
+            }
+            intervals[i + 1] = intervals[i] + steps[i];
+        }
+        int degrees = intervals[steps.length] == OCTAVE ? steps.length : steps.length + 1;
+        if (intervals[degrees - 1] >= OCTAVE) {
+            throw new IllegalArgumentException(name + ": steps must not pass the octave");
+        }
+        if (degrees < 3) {
+            throw new IllegalArgumentException(name + ": a scale needs at least three degrees");
+        }
+
+        this.name = name;
+        this.label = label;
+        this.intervals = Arrays.copyOf(intervals, degrees);
+        this.chordQualities = new Quality[degrees];
+        for (int degree = 0; degree < degrees; degree++) {
+            chordQualities[degree] = stackThirds(degree);
+        }
+    }
+
+    /**
+     * Builds the triad on a degree from the degrees two and four above it and names its quality.
+     */
+    private Quality stackThirds(int degree) {
+        int third = Math.floorMod(intervals[(degree + 2) % intervals.length] - intervals[degree], OCTAVE);
+        int fifth = Math.floorMod(intervals[(degree + 4) % intervals.length] - intervals[degree], OCTAVE);
+        if (third == 4 && fifth == 7) {
+            return Quality.MAJOR;
+        }
+        if (third == 3 && fifth == 7) {
+            return Quality.MINOR;
+        }
+        if (third == 3 && fifth == 6) {
+            return Quality.DIMINISHED;
+        }
+        return null;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public int getDegreeCount() {
+        return intervals.length;
+    }
+
+    /**
+     * Returns the semitones above the tonic of the given degree (0-based).
+     */
+    public int getInterval(int degree) {
+        return intervals[degree];
+    }
+
+    /**
+     * Returns the chord quality of the triad on the given degree (0-based), or null if it has none.
+     */
+    public Quality getChordQuality(int degree) {
+        return chordQualities[degree];
+    }
+
+    /**
+     * Returns the interval name of the given degree (0-based). A tritone is an augmented fourth,
+     * unless the scale has no perfect fifth, in which case it stands in for one as a diminished fifth.
+     */
+    public String getIntervalName(int degree) {
+        int interval = intervals[degree];
+        if (interval == 6 && Arrays.binarySearch(intervals, 7) < 0) {
+            return "Diminished Fifth";
+        }
+        return INTERVAL_NAMES[interval];
+    }
+
+    /**
+     * Returns the degrees as a pitch-class set on C, in the same bit layout as PitchClassSet.
+     */
+    public int getPattern() {
+        int pattern = 0;
+        for (int interval : intervals) {
+            pattern |= 1 << interval;
+        }
+        return pattern;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -1,11 +1,18 @@
 package com.composeit.backend.scaleservice.models;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * A deeply immutable description of one scale. The constructor takes unmodifiable copies of every
+ * collection it is given (keeping their iteration order), so instances can be cached and shared.
+ */
 public class ScaleProfile {
     private final String tonic;
-    private final Quality quality;
+    private final Quality quality;  // null for a user-defined scale, whose label is the mode
     private final List<String> semitones;
     private final Map<String, String> chords;
     
@@ -38,16 +45,35 @@ public class ScaleProfile {
             String mode) {
         this.tonic = tonic;
         this.quality = quality;
-        this.semitones = semitones;
-        this.chords = chords;
-        this.scaleDegrees = scaleDegrees;
-        this.intervals = intervals;
+        this.semitones = immutableCopy(semitones);
+        this.chords = immutableCopy(chords);
+        this.scaleDegrees = immutableCopy(scaleDegrees);
+        this.intervals = immutableCopy(intervals);
         this.relativeScale = relativeScale;
         this.parallelScale = parallelScale;
-        this.commonProgressions = commonProgressions;
+        this.commonProgressions = immutableProgressions(commonProgressions);
         this.mode = mode;
     }
 
+    private static <T> List<T> immutableCopy(List<T> list) {
+        return list == null ? null : Collections.unmodifiableList(new ArrayList<>(list));
+    }
+
+    private static <K, V> Map<K, V> immutableCopy(Map<K, V> map) {
+        return map == null ? null : Collections.unmodifiableMap(new LinkedHashMap<>(map));
+    }
+
+    private static List<List<String>> immutableProgressions(List<List<String>> progressions) {
+        if (progressions == null) {
+            return null;
+        }
+        List<List<String>> copy = new ArrayList<>(progressions.size());
+        for (List<String> progression : progressions) {
+            copy.add(immutableCopy(progression));
+        }
+        return Collections.unmodifiableList(copy);
+    }
+
     public String getTonic() {
         return tonic;
     }
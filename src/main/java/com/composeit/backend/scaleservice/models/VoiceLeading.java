@@ -0,0 +1,24 @@
+package com.composeit.backend.scaleservice.models;
+
+import java.util.List;
+
+/**
+ * A voicing for each chord of a progression, and the total semitones all voices move across it.
+ */
+public class VoiceLeading {
+    private final List<Voicing> voicings;
+    private final int movement;
+
+    public VoiceLeading(List<Voicing> voicings, int movement) {
+        this.voicings = voicings;
+        this.movement = movement;
+    }
+
+    public List<Voicing> getVoicings() {
+        return voicings;
+    }
+
+    public int getMovement() {
+        return movement;
+    }
+}
@@ -0,0 +1,31 @@
+package com.composeit.backend.scaleservice.models;
+
+import java.util.List;
+
+/**
+ * One chord of a voice-led progression: its symbol as given, and its notes lowest first, as MIDI
+ * note numbers and as names with octaves spelled like the chord's root (middle C is "C4").
+ */
+public class Voicing {
+    private final String chord;
+    private final int[] notes;
+    private final List<String> names;
+
+    public Voicing(String chord, int[] notes, List<String> names) {
+        this.chord = chord;
+        this.notes = notes;
+        this.names = names;
+    }
+
+    public String getChord() {
+        return chord;
+    }
+
+    public int[] getNotes() {
+        return notes;
+    }
+
+    public List<String> getNames() {
+        return names;
+    }
+}
@@ -1,28 +1,44 @@
 package com.composeit.backend.controller;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import com.composeit.backend.dto.*;
+import com.composeit.backend.dto.QualitiesResponse.QualityEntry;
 import com.composeit.backend.common.Constants;
 import com.composeit.backend.scaleservice.ScaleService;
+import com.composeit.backend.scaleservice.models.Note;
 import com.composeit.backend.scaleservice.models.Quality;
 import com.composeit.backend.scaleservice.models.ScaleProfile;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 
 @WebMvcTest(ScaleController.class)
 public class ScaleControllerTest {
@@ -245,4 +261,214 @@ public class ScaleControllerTest {
                 .andExpect(jsonPath("$.commonProgressions", hasSize(3)))
                 .andExpect(jsonPath("$.mode").value("Ionian"));
     }
+
+    @Test
+    public void shouldServeCachedChordsWithETag() throws Exception {
+        String tonic = Constants.G;
+        Quality quality = Quality.MAJOR;
+        when(scaleService.getChords(tonic, quality)).thenReturn(List.of("G", "Am", "Bm", "C", "D", "Em", "F#°"));
+
+        SemitonesRequest request = new SemitonesRequest();
+        request.setTonic(tonic);
+        request.setQuality(quality);
+        String jsonPayload = objectMapper.writeValueAsString(request);
+
+        MvcResult first = mockMvc.perform(post("/api/chords")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(jsonPayload))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.chords", hasSize(7)))
+                .andReturn();
+        String eTag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(post("/api/chords")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(jsonPayload)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+
+        mockMvc.perform(post("/api/chords")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(jsonPayload)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.chords", contains("G", "Am", "Bm", "C", "D", "Em", "F#°")));
+
+        // The body was serialized once and reused for every later request
+        verify(scaleService, times(1)).getChords(tonic, quality);
+    }
+
+    @Test
+    public void shouldAnswerNotModifiedForQualities() throws Exception {
+        when(scaleService.getQualities(true)).thenReturn(new QualitiesResponse(List.of(
+                new QualityEntry("MAJOR", "Major"), new QualityEntry("MINOR", "Minor"))));
+
+        MvcResult first = mockMvc.perform(get("/api/qualities").param("advanced", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.qualities", hasSize(2)))
+                .andReturn();
+
+        mockMvc.perform(get("/api/qualities").param("advanced", "true")
+                .header(HttpHeaders.IF_NONE_MATCH, first.getResponse().getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    public void shouldNotFailOnMalformedAcceptHeader() throws Exception {
+        when(scaleService.getQualities(false)).thenReturn(new QualitiesResponse(List.of(
+                new QualityEntry("MAJOR", "Major"))));
+
+        // Spring's own negotiation turns the header down; the endpoint must not throw first
+        mockMvc.perform(get("/api/qualities").header(HttpHeaders.ACCEPT, "not a media type"))
+                .andExpect(status().is4xxClientError());
+    }
+
+    @Test
+    public void shouldStreamBatchProfilesWithPerItemErrors() throws Exception {
+        ScaleProfile profile = new ScaleProfile(Constants.G, Quality.MAJOR,
+                List.of(Constants.G, Constants.A, Constants.B, Constants.C, Constants.D, Constants.E, Constants.F_SHARP),
+                Map.of(), Map.of(), Map.of(), "E MINOR", "G MINOR", List.of(), "Ionian");
+        when(scaleService.getScaleProfile(Constants.G, Quality.MAJOR)).thenReturn(profile);
+
+        String jsonPayload = """
+                [
+                    {"tonic": "G", "quality": "MAJOR"},
+                    {"tonic": "H", "quality": "MAJOR"},
+                    {"tonic": "C", "quality": "DIMINISHED"},
+                    {"tonic": "G", "quality": "MAJOR"},
+                    {"tonic": "C", "quality": "BEBOP"},
+                    {"tonic": {"name": "C"}, "quality": "MAJOR"}
+                ]
+                """;
+
+        MvcResult result = mockMvc.perform(post("/api/batch/profile")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(jsonPayload))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(6)))
+                .andExpect(jsonPath("$[0].profile.tonic").value(Constants.G))
+                .andExpect(jsonPath("$[0].profile.relativeScale").value("E MINOR"))
+                .andExpect(jsonPath("$[1].tonic").value("H"))
+                .andExpect(jsonPath("$[1].error").value("Tonic must be a valid note"))
+                .andExpect(jsonPath("$[2].error").value("No profile for C DIMINISHED"))
+                .andExpect(jsonPath("$[3].profile.semitones", hasSize(7)))
+                .andExpect(jsonPath("$[4].error").value("Item must have a string tonic and a known quality"))
+                .andExpect(jsonPath("$[5].error").value("Item must have a string tonic and a known quality"));
+
+        // Repeated keys reuse the serialized profile
+        verify(scaleService, times(1)).getScaleProfile(Constants.G, Quality.MAJOR);
+    }
+
+    @Test
+    public void shouldRejectOversizedBatchWithItsLimit() throws Exception {
+        String jsonPayload = "[" + String.join(",", Collections.nCopies(145,
+                "{\"tonic\": \"C\", \"quality\": \"MAJOR\"}")) + "]";
+
+        MvcResult result = mockMvc.perform(post("/api/batch/profile")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(jsonPayload))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("A batch can have at most 144 items"));
+    }
+
+    @Test
+    public void shouldStreamScalesFromChordsAsNdjson() throws Exception {
+        List<String> chords = List.of("C", "F", "G");
+        when(scaleService.streamScalesFromChords(chords, true))
+                .thenReturn(Stream.of("C MAJOR", "D DORIAN", "E PHRYGIAN", "F LYDIAN"));
+
+        ChordsRequest request = new ChordsRequest();
+        request.setChords(chords);
+        request.setAdvanced(true);
+
+        MvcResult result = mockMvc.perform(post("/api/scales-from-chords")
+                .param("limit", "2")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE))
+                .andExpect(content().string("{\"scale\":\"C MAJOR\"}\n{\"scale\":\"D DORIAN\"}\n"));
+    }
+
+    @Test
+    public void shouldRejectNonPositiveNdjsonLimit() throws Exception {
+        ScalesRequest request = new ScalesRequest();
+        request.setSemitones(List.of(Constants.C));
+
+        mockMvc.perform(post("/api/scales-from-semitones")
+                .param("limit", "0")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void shouldEncodeSemitonesAsNoteIdsInCbor() throws Exception {
+        when(scaleService.getSemitones(Constants.F, Quality.MAJOR)).thenReturn(List.of(Constants.F, Constants.G, Constants.A,
+                Constants.B_FLAT, Constants.C, Constants.D, Constants.E));
+
+        SemitonesRequest request = new SemitonesRequest();
+        request.setTonic(Constants.F);
+        request.setQuality(Quality.MAJOR);
+
+        MvcResult result = mockMvc.perform(post("/api/semitones")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_CBOR)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_CBOR_VALUE))
+                .andReturn();
+
+        JsonNode body = new CBORMapper().readTree(result.getResponse().getContentAsByteArray());
+        assertThat(body.get("semitones").get(0).asInt()).isEqualTo(Note.F.ordinal());
+        assertThat(body.get("semitones").get(3).asInt()).isEqualTo(Note.B_FLAT.ordinal());
+
+        // JSON clients get the same body as before
+        mockMvc.perform(post("/api/semitones")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(jsonPath("$.semitones[3]").value(Constants.B_FLAT));
+    }
+
+    @Test
+    public void shouldEncodeScalesAsScaleIdsInCbor() throws Exception {
+        List<String> chords = List.of("C", "D");
+        when(scaleService.getScalesFromChords(chords, true)).thenReturn(List.of("G MAJOR", "Db MAJOR", "C LYDIAN_DOMINANT"));
+
+        ChordsRequest request = new ChordsRequest();
+        request.setChords(chords);
+        request.setAdvanced(true);
+
+        MvcResult result = mockMvc.perform(post("/api/scales-from-chords")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_CBOR)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        JsonNode body = new CBORMapper().readTree(result.getResponse().getContentAsByteArray());
+        assertThat(body.get("scales").get(0).asInt()).isEqualTo(WireIds.scaleId("G MAJOR"));
+        assertThat(body.get("scales").get(1).asInt())
+                .isEqualTo(Note.D_FLAT.ordinal() * WireIds.QUALITY_COUNT + Quality.MAJOR.ordinal());
+        assertThat(body.get("customScales").get(0).asText()).isEqualTo("C LYDIAN_DOMINANT");
+    }
 }
@@ -0,0 +1,172 @@
+package com.composeit.backend.scaleservice;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.composeit.backend.scaleservice.models.AudioAnalysis;
+import com.composeit.backend.scaleservice.models.ChordSpan;
+
+class AudioAnalyzerTest {
+    private static final int SAMPLE_RATE = 22050;
+    private static final int PCM = 1;
+    private static final int FLOAT = 3;
+
+    @ParameterizedTest(name = "shouldFindPitchClassesOfChord - {0}-bit format {1}, {2} channels")
+    @MethodSource("provideFormatArgs")
+    void shouldFindPitchClassesOfChord(int bits, int format, int channels) {
+        // A minor: A3 C4 E4
+        ByteBuffer file = wav(SAMPLE_RATE, channels, bits, format, 1, new int[][] {{57, 60, 64}});
+
+        AudioAnalyzer.Chromagram chromagram = AudioAnalyzer.chromagram(file);
+
+        assertThat(chromagram.getDuration()).isCloseTo(1.0, offset(1e-9));
+        assertThat(chromagram.getBlocks()).isNotEmpty();
+        double[] block = chromagram.getBlocks()[0];
+        double weakestChordTone = Math.min(block[9], Math.min(block[0], block[4]));
+        for (int pitchClass : new int[] {1, 2, 3, 5, 6, 7, 8, 10, 11}) {
+            assertThat(block[pitchClass]).as("pitch class " + pitchClass).isLessThan(weakestChordTone);
+        }
+    }
+
+    private static Stream<Arguments> provideFormatArgs() {
+        return Stream.of(
+            Arguments.of(8, PCM, 1),
+            Arguments.of(16, PCM, 1),
+            Arguments.of(16, PCM, 2),
+            Arguments.of(24, PCM, 1),
+            Arguments.of(32, PCM, 2),
+            Arguments.of(32, FLOAT, 1)
+        );
+    }
+
+    @Test
+    void shouldFollowChordChangesBlockByBlock() {
+        ByteBuffer file = wav(SAMPLE_RATE, 1, 16, PCM, 1, new int[][] {{60, 64, 67}, {55, 59, 62}});
+
+        AudioAnalyzer.Chromagram chromagram = AudioAnalyzer.chromagram(file);
+        double[][] blocks = chromagram.getBlocks();
+
+        assertThat(blocks.length * chromagram.getBlockSeconds()).isGreaterThanOrEqualTo(chromagram.getDuration());
+        assertThat(blocks[0][0]).isGreaterThan(blocks[0][11]);          // C, not B, in the first second
+        assertThat(blocks[blocks.length - 1][11]).isGreaterThan(blocks[blocks.length - 1][0]);
+    }
+
+    @Test
+    void shouldReturnNoBlocksForEmptyData() {
+        AudioAnalyzer.Chromagram chromagram = AudioAnalyzer.chromagram(wav(SAMPLE_RATE, 1, 16, PCM, 0, new int[][] {{60}}));
+
+        assertThat(chromagram.getBlocks()).isEmpty();
+        assertThat(chromagram.getDuration()).isZero();
+    }
+
+    @ParameterizedTest(name = "shouldRejectInvalidFile - {0}")
+    @MethodSource("provideInvalidFileArgs")
+    void shouldRejectInvalidFile(String description, ByteBuffer file) {
+        assertThatThrownBy(() -> AudioAnalyzer.chromagram(file)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Stream<Arguments> provideInvalidFileArgs() {
+        ByteBuffer valid = wav(SAMPLE_RATE, 1, 16, PCM, 1, new int[][] {{60}});
+        ByteBuffer compressed = wav(SAMPLE_RATE, 1, 16, PCM, 1, new int[][] {{60}});
+        compressed.putShort(20, (short) 2);     // ADPCM
+        ByteBuffer twelveBit = wav(SAMPLE_RATE, 1, 16, PCM, 1, new int[][] {{60}});
+        twelveBit.putShort(34, (short) 12);
+        ByteBuffer hugeRate = wav(SAMPLE_RATE, 1, 16, PCM, 1, new int[][] {{60}});
+        hugeRate.putInt(24, Integer.MAX_VALUE);
+        ByteBuffer tinyRate = wav(SAMPLE_RATE, 1, 16, PCM, 1, new int[][] {{60}});
+        tinyRate.putInt(24, 1);
+        return Stream.of(
+            Arguments.of("not WAV", ByteBuffer.wrap("RIFX not a wave file".getBytes(StandardCharsets.US_ASCII))),
+            Arguments.of("no data chunk", ByteBuffer.wrap(Arrays.copyOf(valid.array(), 36))),
+            Arguments.of("compressed", compressed),
+            Arguments.of("12-bit samples", twelveBit),
+            Arguments.of("sample rate too high", hugeRate),
+            Arguments.of("sample rate too low", tinyRate)
+        );
+    }
+
+    @Test
+    void shouldAnalyzeKeyAndChordTimeline() {
+        // C F G7 C, a second each
+        ByteBuffer file = wav(SAMPLE_RATE, 1, 16, PCM, 1, new int[][] {
+                {48, 60, 64, 67}, {41, 57, 60, 65}, {43, 55, 59, 62, 65}, {48, 60, 64, 67}});
+
+        AudioAnalysis analysis = analyzer().analyze(file, false);
+        List<ChordSpan> chords = analysis.getChords();
+
+        assertThat(analysis.getKey()).isEqualTo("C MAJOR");
+        assertThat(chords.get(0).getChord()).isEqualTo("C");
+        assertThat(chords.get(0).getStart()).isZero();
+        assertThat(chords).extracting(ChordSpan::getChord).contains("F");
+        assertThat(chords.get(chords.size() - 1).getChord()).isEqualTo("C");
+        assertThat(chords.get(chords.size() - 1).getEnd()).isEqualTo(4.0);
+    }
+
+    @Test
+    void shouldAnalyzeSilenceAsKeyless() {
+        AudioAnalysis analysis = analyzer().analyze(wav(SAMPLE_RATE, 1, 16, PCM, 1, new int[][] {{}}), false);
+
+        assertThat(analysis.getKey()).isNull();
+        assertThat(analysis.getChords()).isEmpty();
+    }
+
+    private static AudioAnalyzer analyzer() {
+        ScalePatternCalculator patternCalculator = new ScalePatternCalculator();
+        return new AudioAnalyzer(patternCalculator, new KeyFinder(patternCalculator));
+    }
+
+    /**
+     * Returns a WAV file holding each chord for one second per entry of chords, given as MIDI notes,
+     * each note a sine wave with a quieter second harmonic.
+     */
+    static ByteBuffer wav(int sampleRate, int channels, int bits, int format, int secondsPerChord, int[][] chords) {
+        int bytes = bits / 8;
+        int count = sampleRate * secondsPerChord * chords.length;
+        ByteBuffer buffer = ByteBuffer.allocate(44 + count * channels * bytes).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put("RIFF".getBytes(StandardCharsets.US_ASCII)).putInt(36 + count * channels * bytes)
+                .put("WAVE".getBytes(StandardCharsets.US_ASCII));
+        buffer.put("fmt ".getBytes(StandardCharsets.US_ASCII)).putInt(16).putShort((short) format)
+                .putShort((short) channels).putInt(sampleRate).putInt(sampleRate * channels * bytes)
+                .putShort((short) (channels * bytes)).putShort((short) bits);
+        buffer.put("data".getBytes(StandardCharsets.US_ASCII)).putInt(count * channels * bytes);
+        for (int i = 0; i < count; i++) {
+            double time = (double) i / sampleRate;
+            double value = 0;
+            for (int note : chords[i / (sampleRate * secondsPerChord)]) {
+                double frequency = 440 * Math.pow(2, (note - 69) / 12.0);
+                value += 0.2 * Math.sin(2 * Math.PI * frequency * time) + 0.05 * Math.sin(4 * Math.PI * frequency * time);
+            }
+            for (int channel = 0; channel < channels; channel++) {
+                switch (bits) {
+                    case 8 -> buffer.put((byte) (128 + (int) (value * 127)));
+                    case 16 -> buffer.putShort((short) (value * Short.MAX_VALUE));
+                    case 24 -> {
+                        int sample = (int) (value * 8388607);
+                        buffer.put((byte) sample).put((byte) (sample >> 8)).put((byte) (sample >> 16));
+                    }
+                    default -> {
+                        if (format == FLOAT) {
+                            buffer.putFloat((float) value);
+                        } else {
+                            buffer.putInt((int) (value * Integer.MAX_VALUE));
+                        }
+                    }
+                }
+            }
+        }
+        return buffer.flip();
+    }
+}
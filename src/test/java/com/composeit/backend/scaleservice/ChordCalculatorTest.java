@@ -43,7 +43,9 @@ class ChordCalculatorTest {
             Arguments.of(C, Quality.PENTATONIC_MAJOR,
                 List.of("C", "Dm", "Em", "G", "Am")),  // C pentatonic major uses natural notes
             Arguments.of(A, Quality.PENTATONIC_MINOR,
-                List.of("Am", "C", "Dm", "Em", "G"))   // A pentatonic minor uses natural notes
+                List.of("Am", "C", "Dm", "Em", "G")),  // A pentatonic minor uses natural notes
+            Arguments.of(C, Quality.MELODIC_MINOR,
+                List.of("Cm", "Dm", "D#", "F", "G", "A°", "B°"))  // Stacked in thirds; the augmented III counts as major
         );
     }
 
@@ -111,7 +113,9 @@ class ChordCalculatorTest {
             Arguments.of("B°", "B", Quality.DIMINISHED),
             Arguments.of("F#m", "F#", Quality.MINOR),
             Arguments.of("Bb", "Bb", Quality.MAJOR),
-            Arguments.of("G#m", "G#", Quality.MINOR)
+            Arguments.of("G#m", "G#", Quality.MINOR),
+            Arguments.of("Cmin", "C", Quality.MINOR),
+            Arguments.of("Bdim", "B", Quality.DIMINISHED)
         );
     }
 
@@ -141,6 +145,52 @@ class ChordCalculatorTest {
         assertThat(actual.getValue()).isEqualTo(Quality.MINOR);
     }
 
+    @Test
+    void shouldReturnNullForChordsWithoutTriad() {
+        assertThat(calculator.parseChord("Csus4")).isNull();
+    }
+
+    @ParameterizedTest(name = "shouldMatchChordTonesAgainstScale - {0} in {1} {2}")
+    @MethodSource("provideChordInScaleArgs")
+    void shouldMatchChordTonesAgainstScale(String chord, String tonic, Quality quality, boolean expected) {
+        long[] scales = calculator.scalesWithChord(ChordCode.parse(chord));
+        int id = ScaleSet.id(PitchClassSet.pitchClassOf(tonic), quality);
+        assertThat(ScaleSet.contains(scales, id)).isEqualTo(expected);
+    }
+
+    private static Stream<Arguments> provideChordInScaleArgs() {
+        return Stream.of(
+            Arguments.of("G7", C, Quality.MAJOR, true),
+            Arguments.of("Cmaj7", C, Quality.MAJOR, true),
+            Arguments.of("C7", C, Quality.MAJOR, false),             // Bb is not in C major
+            Arguments.of("Cmaj7", F, Quality.MAJOR, false),          // C is a diatonic triad, but B is not in F major
+            Arguments.of("E7b9", A, Quality.HARMONIC_MINOR, true),
+            Arguments.of("E7b9", A, Quality.MINOR, false),           // E minor is the natural minor's v
+            Arguments.of("Bm7b5", A, Quality.MINOR, true),
+            Arguments.of("Cmaj7", A, Quality.HARMONIC_MINOR, false), // C is a diatonic triad, but G is not in A harmonic minor
+            Arguments.of("Cmaj7", A, Quality.MELODIC_MINOR, false),
+            Arguments.of("CmM7", C, Quality.MELODIC_MINOR, true),
+            Arguments.of("CmM7", C, Quality.MINOR, false),           // Bb instead of B
+            Arguments.of("Gsus4", C, Quality.MAJOR, true),           // No triad, so only the tones count
+            Arguments.of("Gsus4", G, Quality.LYDIAN, false),         // C# instead of C
+            Arguments.of("Caug", A, Quality.HARMONIC_MINOR, true),
+            Arguments.of("C", C, Quality.DIMINISHED, false)          // The diminished scale has no diatonic chords
+        );
+    }
+
+    @Test
+    void shouldMatchPlainTriadsLikeTheDiatonicChords() {
+        for (Quality quality : Quality.values()) {
+            if (quality == Quality.DIMINISHED) {
+                continue;
+            }
+            for (String chord : calculator.getChordsFromScale(C, quality)) {
+                long[] scales = calculator.scalesWithChord(ChordCode.parse(chord));
+                assertThat(ScaleSet.contains(scales, ScaleSet.id(0, quality))).as(chord + " " + quality).isTrue();
+            }
+        }
+    }
+
     @Test
     void shouldHandleNullInput() {
         List<String> actual = calculator.getChordsFromScale(null, Quality.MAJOR);
@@ -0,0 +1,117 @@
+package com.composeit.backend.scaleservice;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.composeit.backend.scaleservice.models.ChordType;
+import com.composeit.backend.scaleservice.models.Quality;
+
+class ChordCodeTest {
+
+    @ParameterizedTest(name = "shouldParseChord - {0}")
+    @MethodSource("provideChordArgs")
+    void shouldParseChord(String chord, String root, int rootPitchClass, Quality quality, int extension, String bass) {
+        int code = ChordCode.parse(chord);
+        assertThat(ChordCode.isValid(code)).isTrue();
+        assertThat(ChordCode.rootName(code)).isEqualTo(root);
+        assertThat(ChordCode.rootPitchClass(code)).isEqualTo(rootPitchClass);
+        assertThat(ChordCode.quality(code)).isEqualTo(quality);
+        assertThat(ChordCode.extension(code)).isEqualTo(extension);
+        assertThat(ChordCode.hasBass(code)).isEqualTo(bass != null);
+        if (bass != null) {
+            assertThat(ChordCode.bassName(code)).isEqualTo(bass);
+            assertThat(ChordCode.bassPitchClass(code)).isEqualTo(PitchClassSet.pitchClassOf(bass));
+        }
+    }
+
+    private static Stream<Arguments> provideChordArgs() {
+        return Stream.of(
+            Arguments.of("C", "C", 0, Quality.MAJOR, 0, null),
+            Arguments.of("Am", "A", 9, Quality.MINOR, 0, null),
+            Arguments.of("F#m", "F#", 6, Quality.MINOR, 0, null),
+            Arguments.of("Gb", "Gb", 6, Quality.MAJOR, 0, null),
+            Arguments.of("B°", "B", 11, Quality.DIMINISHED, 0, null),
+            Arguments.of("Cmaj7", "C", 0, Quality.MAJOR, 7, null),
+            Arguments.of("Dm7", "D", 2, Quality.MINOR, 7, null),
+            Arguments.of("Cmin", "C", 0, Quality.MINOR, 0, null),        // Long-form minor
+            Arguments.of("Bdim7", "B", 11, Quality.DIMINISHED, 7, null), // Long-form diminished
+            Arguments.of("Cmmaj7", "C", 0, Quality.MINOR, 7, null),      // Short symbol wins over long form
+            Arguments.of("Am/C", "A", 9, Quality.MINOR, 0, "C"),
+            Arguments.of("Bb13/Ab", "Bb", 10, Quality.MAJOR, 13, "Ab"),
+            Arguments.of("Cb", "Cb", 11, Quality.MAJOR, 0, null),        // Theoretical spelling
+            Arguments.of("Gsus4", "G", 7, null, 4, null),                // No triad
+            Arguments.of("E7#9", "E", 4, Quality.MAJOR, 9, null),
+            Arguments.of("F#m7b5/E", "F#", 6, Quality.DIMINISHED, 7, "E")
+        );
+    }
+
+    @ParameterizedTest(name = "shouldParseChordType - {0}")
+    @MethodSource("provideChordTypeArgs")
+    void shouldParseChordType(String chord, ChordType type, int pitchClasses) {
+        int code = ChordCode.parse(chord);
+        assertThat(ChordCode.type(code)).isEqualTo(type);
+        assertThat(ChordCode.pitchClasses(code)).isEqualTo(pitchClasses);
+    }
+
+    private static Stream<Arguments> provideChordTypeArgs() {
+        return Stream.of(
+            Arguments.of("C", ChordType.MAJOR, 0b000010010001),
+            Arguments.of("Am/C", ChordType.MINOR, 0b001000010001),
+            Arguments.of("Gsus4", ChordType.SUSPENDED_FOURTH, 0b000010000101),
+            Arguments.of("G7", ChordType.DOMINANT_SEVENTH, 0b100010100100),
+            Arguments.of("Bø", ChordType.HALF_DIMINISHED_SEVENTH, 0b101000100100),
+            Arguments.of("Caug", ChordType.AUGMENTED, 0b000100010001),
+            Arguments.of("E7alt", ChordType.ALTERED, 0b010110110101),
+            // Not a chord type suffix, so read as the plain triad it names
+            Arguments.of("C4", ChordType.MAJOR, 0b000010010001),
+            Arguments.of("Cm2", ChordType.MINOR, 0b000010001001),
+            Arguments.of("Cdim9", ChordType.DIMINISHED, 0b000001001001),
+            Arguments.of("C°9", ChordType.DIMINISHED, 0b000001001001),
+            Arguments.of("Cmaj69", ChordType.MAJOR, 0b000010010001),
+            Arguments.of("CMmaj7/E", ChordType.MAJOR, 0b000010010001)
+        );
+    }
+
+    @Test
+    void shouldParseEverySuffixOfEveryChordType() {
+        for (ChordType type : ChordType.values()) {
+            for (String symbol : type.getSymbols()) {
+                int code = ChordCode.parse("Bb" + symbol + "/D");
+                assertThat(ChordCode.type(code)).as(symbol).isEqualTo(type);
+                assertThat(ChordCode.bassName(code)).as(symbol).isEqualTo("D");
+            }
+        }
+    }
+
+    @ParameterizedTest(name = "shouldRejectChord - {0}")
+    @MethodSource("provideInvalidChordArgs")
+    void shouldRejectChord(String chord, int expected) {
+        assertThat(ChordCode.parse(chord)).isEqualTo(expected);
+    }
+
+    private static Stream<Arguments> provideInvalidChordArgs() {
+        return Stream.of(
+            Arguments.of(null, ChordCode.EMPTY),
+            Arguments.of("", ChordCode.EMPTY),
+            Arguments.of("Hmaj", ChordCode.INVALID_ROOT),
+            Arguments.of("cm", ChordCode.INVALID_ROOT),
+            Arguments.of("Cmi", ChordCode.INVALID_SUFFIX),
+            Arguments.of("Csus3", ChordCode.INVALID_SUFFIX),
+            Arguments.of("C/", ChordCode.INVALID_BASS),
+            Arguments.of("C/H", ChordCode.INVALID_BASS),
+            Arguments.of("C/E7", ChordCode.INVALID_BASS)
+        );
+    }
+
+    @Test
+    void shouldParseAnyCharSequence() {
+        StringBuilder chord = new StringBuilder("F#m7");
+        assertThat(ChordCode.parse(chord)).isEqualTo(ChordCode.parse("F#m7"));
+    }
+}
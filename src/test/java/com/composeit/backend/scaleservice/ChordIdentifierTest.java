@@ -0,0 +1,117 @@
+package com.composeit.backend.scaleservice;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.composeit.backend.scaleservice.models.ChordType;
+import com.composeit.backend.scaleservice.models.IdentifiedChord;
+
+class ChordIdentifierTest {
+    private static ChordIdentifier identifier;
+
+    @BeforeAll
+    static void setUp() {
+        identifier = new ChordIdentifier();
+    }
+
+    @ParameterizedTest(name = "shouldRankReadings - {0} over {1}")
+    @MethodSource("provideReadingArgs")
+    void shouldRankReadings(List<String> notes, String bass, List<String> expected) {
+        assertThat(identify(notes, bass)).extracting(IdentifiedChord::getName).isEqualTo(expected);
+    }
+
+    private static Stream<Arguments> provideReadingArgs() {
+        return Stream.of(
+            Arguments.of(List.of("C", "E", "G", "Bb"), "C", List.of("C7")),
+            Arguments.of(List.of("C", "E", "G", "A"), "C", List.of("C6", "Am7/C")),   // Root position first
+            Arguments.of(List.of("C", "E", "G", "A"), "A", List.of("Am7", "C6/A")),
+            Arguments.of(List.of("C", "D", "G"), "C", List.of("Csus2", "Gsus4/C", "D7sus4/C")),
+            Arguments.of(List.of("C", "E", "Bb"), "C", List.of("C7")),                // Fifth left out
+            Arguments.of(List.of("Bb", "D", "F"), "Bb", List.of("Bb")),               // Flat key spelling
+            Arguments.of(List.of("C#", "E", "G#"), "C#", List.of("C#m", "E6/C#")),    // Relative major E is a sharp key
+            Arguments.of(List.of("C", "D"), "C", List.of())
+        );
+    }
+
+    @Test
+    void shouldNumberInversionsByTheBassTone() {
+        List<String> dominantSeventh = List.of("G", "B", "D", "F");
+        assertThat(identify(dominantSeventh, "G").get(0).getInversion()).isZero();
+        assertThat(identify(dominantSeventh, "B").get(0).getInversion()).isEqualTo(1);
+        assertThat(identify(dominantSeventh, "D").get(0).getInversion()).isEqualTo(2);
+        assertThat(identify(dominantSeventh, "F").get(0).getInversion()).isEqualTo(3);
+        assertThat(identify(dominantSeventh, "F").get(0).getName()).isEqualTo("G7/F");
+    }
+
+    @Test
+    void shouldDescribeTheReading() {
+        IdentifiedChord chord = identify(List.of("E", "G", "C", "Bb"), "E").get(0);
+
+        assertThat(chord.getName()).isEqualTo("C7/E");
+        assertThat(chord.getRoot()).isEqualTo("C");
+        assertThat(chord.getType()).isEqualTo(ChordType.DOMINANT_SEVENTH);
+        assertThat(chord.getBass()).isEqualTo("E");
+        assertThat(chord.isOmitsFifth()).isFalse();
+    }
+
+    @Test
+    void shouldFindEveryChordTypeInRootPosition() {
+        for (ChordType type : ChordType.values()) {
+            for (int root = 0; root < PitchClassSet.PITCH_CLASS_COUNT; root++) {
+                List<IdentifiedChord> chords = identifier.identify(PitchClassSet.transpose(type.getIntervals(), root), root);
+                assertThat(chords).as(type + " on " + root)
+                        .anyMatch(chord -> chord.getType() == type && chord.getInversion() == 0 && !chord.isOmitsFifth());
+            }
+        }
+    }
+
+    @Test
+    void shouldReadNoteNamesOverTheFirstNoteByDefault() {
+        assertThat(identifier.identify(List.of("E", "G", "Bb", "C"), null).get(0).getName()).isEqualTo("C7/E");
+        assertThat(identifier.identify(List.of("C", "E", "G"), "Bb").get(0).getName()).isEqualTo("C7/Bb");
+        assertThat(identifier.identify(List.of("C", "H"), null)).isEmpty();
+        assertThat(identifier.identify(List.of(), null)).isEmpty();
+    }
+
+    @Test
+    void shouldReturnNothingWhenTheBassIsNotAmongTheNotes() {
+        int cMajor = PitchClassSet.of(0) | PitchClassSet.of(4) | PitchClassSet.of(7);
+        assertThat(identifier.identify(cMajor, 2)).isEmpty();
+    }
+
+    @Test
+    void shouldMatchWeightsToTheBestFittingChord() {
+        double[] g7 = new double[PitchClassSet.PITCH_CLASS_COUNT];
+        g7[7] = 2;
+        g7[11] = 1;
+        g7[2] = 1;
+        g7[5] = 1;
+        assertThat(ChordIdentifier.bestMatch(g7)).isEqualTo(7 * ChordType.values().length + ChordType.DOMINANT_SEVENTH.ordinal());
+
+        // C6 and Am7 fit equally; the root that sounds more wins
+        double[] am7 = new double[PitchClassSet.PITCH_CLASS_COUNT];
+        am7[9] = 2;
+        am7[0] = 1;
+        am7[4] = 1;
+        am7[7] = 1;
+        assertThat(ChordIdentifier.bestMatch(am7)).isEqualTo(9 * ChordType.values().length + ChordType.MINOR_SEVENTH.ordinal());
+
+        assertThat(ChordIdentifier.bestMatch(new double[PitchClassSet.PITCH_CLASS_COUNT])).isEqualTo(-1);
+    }
+
+    private static List<IdentifiedChord> identify(List<String> notes, String bass) {
+        int pitchClasses = PitchClassSet.EMPTY;
+        for (String note : notes) {
+            pitchClasses = PitchClassSet.with(pitchClasses, PitchClassSet.pitchClassOf(note));
+        }
+        return identifier.identify(pitchClasses, PitchClassSet.pitchClassOf(bass));
+    }
+}
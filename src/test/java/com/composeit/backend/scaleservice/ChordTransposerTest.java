@@ -0,0 +1,89 @@
+package com.composeit.backend.scaleservice;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class ChordTransposerTest {
+
+    private static String transpose(ChordTransposer transposer, String chart) throws IOException {
+        StringWriter out = new StringWriter();
+        transposer.transpose(new StringReader(chart), out);
+        return out.toString();
+    }
+
+    @ParameterizedTest(name = "shouldTransposeChord - {0} to {2}")
+    @MethodSource("provideChordArgs")
+    void shouldTransposeChord(String chord, ChordTransposer transposer, String expected) {
+        assertThat(transposer.transposeChord(chord)).isEqualTo(expected);
+    }
+
+    private static Stream<Arguments> provideChordArgs() {
+        return Stream.of(
+            Arguments.of("C", ChordTransposer.bySemitones(2), "D"),
+            Arguments.of("Am7/G", ChordTransposer.toKey("Bb", "C"), "Gm7/F"),
+            Arguments.of("F#m", ChordTransposer.toKey("F", "D"), "Am"),
+            Arguments.of("B°", ChordTransposer.toKey("Eb", "C"), "D°"),
+            Arguments.of("E", ChordTransposer.toKey("Dm", "Am"), "A"),
+            Arguments.of("Cmaj7", ChordTransposer.bySemitones(-1), "Bmaj7"),
+            Arguments.of("Csus4", ChordTransposer.bySemitones(2), "Dsus4"),
+            Arguments.of("Cxyz", ChordTransposer.bySemitones(2), "Cxyz"),
+            Arguments.of("la", ChordTransposer.bySemitones(2), "la")
+        );
+    }
+
+    @Test
+    void shouldSpellByTargetKeyConvention() throws IOException {
+        assertThat(transpose(ChordTransposer.bySemitones(3), "G D Em C")).isEqualTo("Bb F Gm Eb");
+        assertThat(transpose(ChordTransposer.bySemitones(2), "Em C G D")).isEqualTo("F#m D A E");
+        // D minor spells like F major
+        assertThat(transpose(ChordTransposer.toKey("Dm", null), "Am G F E")).isEqualTo("Dm C Bb A");
+    }
+
+    @Test
+    void shouldTakeFirstChordAsKey() throws IOException {
+        // C/E is a column shorter than D/F#, so a space keeps Dm where Em was
+        assertThat(transpose(ChordTransposer.toKey("F", null), "G D/F# Em C")).isEqualTo("F C/E  Dm Bb");
+    }
+
+    @Test
+    void shouldKeepChordsAlignedWithLyrics() throws IOException {
+        String chart = "G        D/F#     Em7   C\n"
+                + "Amazing grace how sweet the sound\n";
+
+        assertThat(transpose(ChordTransposer.bySemitones(3), chart)).isEqualTo(
+                "Bb       F/A      Gm7   Eb\n"
+                + "Amazing grace how sweet the sound\n");
+    }
+
+    @Test
+    void shouldOnlyTransposeBracketedChordsInLyrics() throws IOException {
+        String chart = "A man [Am]once was [F]lost\n| G | N.C. | C |\nChorus: x2\n";
+
+        assertThat(transpose(ChordTransposer.bySemitones(2), chart))
+                .isEqualTo("A man [Bm]once was [G]lost\n| A | N.C. | D |\nChorus: x2\n");
+    }
+
+    @Test
+    void shouldPassLongLinesThrough() throws IOException {
+        String longLine = "C ".repeat(ChordTransposer.MAX_LINE_LENGTH);
+
+        assertThat(transpose(ChordTransposer.bySemitones(2), longLine + "\nC\n")).isEqualTo(longLine + "\nD\n");
+    }
+
+    @Test
+    void shouldRejectInvalidKeys() {
+        assertThatThrownBy(() -> ChordTransposer.toKey("H", null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ChordTransposer.toKey("C7", null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ChordTransposer.toKey("C", "B°")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,178 @@
+package com.composeit.backend.scaleservice;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.assertj.core.data.Offset;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.composeit.backend.common.Constants;
+import com.composeit.backend.scaleservice.models.Quality;
+import com.composeit.backend.scaleservice.models.RankedKey;
+
+class KeyFinderTest {
+    private KeyFinder finder;
+    private long[] majorAndMinor;
+    private long[] allScales;
+
+    @BeforeEach
+    void setUp() {
+        finder = new KeyFinder(new ScalePatternCalculator());
+        majorAndMinor = ScaleSet.empty();
+        allScales = ScaleSet.empty();
+        for (int tonic = 0; tonic < PitchClassSet.PITCH_CLASS_COUNT; tonic++) {
+            for (Quality quality : Quality.values()) {
+                ScaleSet.add(allScales, ScaleSet.id(tonic, quality));
+            }
+            ScaleSet.add(majorAndMinor, ScaleSet.id(tonic, Quality.MAJOR));
+            ScaleSet.add(majorAndMinor, ScaleSet.id(tonic, Quality.MINOR));
+        }
+    }
+
+    @Test
+    void shouldCorrelateLikePearson() {
+        Random random = new Random(7);
+        double[] profile = new double[PitchClassSet.PITCH_CLASS_COUNT];
+        for (int i = 0; i < profile.length; i++) {
+            profile[i] = random.nextDouble();
+        }
+        double[] correlations = new double[ScaleSet.SCALE_COUNT];
+
+        assertThat(finder.correlate(profile, 0, correlations)).isTrue();
+
+        for (int tonic = 0; tonic < PitchClassSet.PITCH_CLASS_COUNT; tonic++) {
+            assertThat(correlations[ScaleSet.id(tonic, Quality.MAJOR)])
+                    .isCloseTo(pearson(profile, rotate(KeyFinder.MAJOR_PROFILE, tonic)), Offset.offset(1e-12));
+            assertThat(correlations[ScaleSet.id(tonic, Quality.MINOR)])
+                    .isCloseTo(pearson(profile, rotate(KeyFinder.MINOR_PROFILE, tonic)), Offset.offset(1e-12));
+        }
+    }
+
+    @ParameterizedTest(name = "shouldRankKeys - {0}")
+    @MethodSource("provideRankArgs")
+    void shouldRankKeys(String name, double[] profile, boolean advanced, int expected) {
+        double[] correlations = new double[ScaleSet.SCALE_COUNT];
+        int[] ids = finder.rank(profile, advanced ? allScales : majorAndMinor, 3, correlations);
+
+        assertThat(ids).hasSize(3);
+        assertThat(ids[0]).isEqualTo(expected);
+        assertThat(correlations[ids[0]]).isGreaterThanOrEqualTo(correlations[ids[1]]);
+        assertThat(correlations[ids[1]]).isGreaterThanOrEqualTo(correlations[ids[2]]);
+    }
+
+    private static Stream<Arguments> provideRankArgs() {
+        //                      C  C# D  D# E  F  F# G  G# A  A# B
+        double[] cMajor =      {4, 0, 1, 0, 2, 1, 0, 3, 0, 1, 0, 1};
+        double[] aMinor =      {2, 0, 1, 0, 3, 1, 0, 0, 1, 4, 0, 1};
+        double[] dDorian =     {1, 0, 4, 0, 1, 2, 0, 1, 0, 3, 0, 1.5};
+        return Stream.of(
+            Arguments.of("C major", cMajor, false, ScaleSet.id(0, Quality.MAJOR)),
+            Arguments.of("A minor", aMinor, false, ScaleSet.id(9, Quality.MINOR)),
+            Arguments.of("A harmonic minor", aMinor, true, ScaleSet.id(9, Quality.HARMONIC_MINOR)),
+            Arguments.of("D dorian", dDorian, true, ScaleSet.id(2, Quality.DORIAN))
+        );
+    }
+
+    @Test
+    void shouldFindNoKeyForFlatProfile() {
+        double[] correlations = new double[ScaleSet.SCALE_COUNT];
+        double[] flat = {1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1};
+
+        assertThat(finder.correlate(flat, 0, correlations)).isFalse();
+        assertThat(finder.rank(new double[PitchClassSet.PITCH_CLASS_COUNT], allScales, 3, correlations)).isEmpty();
+    }
+
+    @Test
+    void shouldFindBestKeyOfEachWindowLikeRank() {
+        Random random = new Random(11);
+        int count = 500;
+        double[] windows = new double[count * PitchClassSet.PITCH_CLASS_COUNT];
+        for (int i = 0; i < windows.length; i++) {
+            windows[i] = random.nextDouble() * 4;
+        }
+        // A flat window in the middle has no key
+        Arrays.fill(windows, 7 * PitchClassSet.PITCH_CLASS_COUNT, 8 * PitchClassSet.PITCH_CLASS_COUNT, 2);
+        int[] best = new int[count];
+
+        finder.bestKeys(windows, count, allScales, best);
+
+        double[] correlations = new double[ScaleSet.SCALE_COUNT];
+        for (int window = 0; window < count; window++) {
+            double[] profile = Arrays.copyOfRange(windows, window * PitchClassSet.PITCH_CLASS_COUNT,
+                    (window + 1) * PitchClassSet.PITCH_CLASS_COUNT);
+            int[] ids = finder.rank(profile, allScales, 1, correlations);
+            assertThat(best[window]).as("window " + window).isEqualTo(ids.length == 0 ? -1 : ids[0]);
+        }
+        assertThat(best[7]).isEqualTo(-1);
+    }
+
+    @Test
+    void shouldFindKeysFromNoteDurations() {
+        Map<String, Double> durations = Map.of(Constants.A, 4.0, Constants.C, 2.0, Constants.E, 3.0, Constants.B, 1.0,
+                Constants.D, 1.0, Constants.F, 1.0, Constants.G_SHARP, 1.0);
+
+        List<RankedKey> keys = finder.findKeys(durations, 2, false);
+
+        assertThat(keys).extracting(RankedKey::getKey).containsExactly("A MINOR", "A MAJOR");
+        assertThat(keys.get(0).getCorrelation()).isGreaterThan(keys.get(1).getCorrelation());
+        assertThat(finder.findKeys(durations, 1, true).get(0).getKey()).isEqualTo("A HARMONIC_MINOR");
+    }
+
+    @Test
+    void shouldAddUpDurationsOfEnharmonicSpellings() {
+        List<RankedKey> split = finder.findKeys(Map.of(Constants.C, 3.0, Constants.E, 1.0, Constants.G, 2.0,
+                Constants.F_SHARP, 1.0, Constants.G_FLAT, 1.0), 1, false);
+        List<RankedKey> joined = finder.findKeys(Map.of(Constants.C, 3.0, Constants.E, 1.0, Constants.G, 2.0,
+                Constants.F_SHARP, 2.0), 1, false);
+
+        assertThat(split.get(0).getKey()).isEqualTo(joined.get(0).getKey());
+        assertThat(split.get(0).getCorrelation()).isCloseTo(joined.get(0).getCorrelation(), Offset.offset(1e-12));
+    }
+
+    @Test
+    void shouldRejectInvalidDurations() {
+        assertThat(finder.findKeys(Map.of(Constants.C, 0.0), 5, false)).isEmpty();
+        assertThatThrownBy(() -> finder.findKeys(Map.of(Constants.C, 1.0), 0, false))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> finder.findKeys(Map.of("H", 1.0), 5, false))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> finder.findKeys(Map.of(Constants.C, -1.0), 5, false))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static double[] rotate(double[] profile, int tonic) {
+        double[] rotated = new double[profile.length];
+        for (int interval = 0; interval < profile.length; interval++) {
+            rotated[(tonic + interval) % profile.length] = profile[interval];
+        }
+        return rotated;
+    }
+
+    private static double pearson(double[] x, double[] y) {
+        double meanX = 0;
+        double meanY = 0;
+        for (int i = 0; i < x.length; i++) {
+            meanX += x[i] / x.length;
+            meanY += y[i] / y.length;
+        }
+        double xy = 0;
+        double xx = 0;
+        double yy = 0;
+        for (int i = 0; i < x.length; i++) {
+            xy += (x[i] - meanX) * (y[i] - meanY);
+            xx += (x[i] - meanX) * (x[i] - meanX);
+            yy += (y[i] - meanY) * (y[i] - meanY);
+        }
+        return xy / Math.sqrt(xx * yy);
+    }
+}
@@ -0,0 +1,83 @@
+package com.composeit.backend.scaleservice;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.composeit.backend.scaleservice.models.KeySegment;
+import com.composeit.backend.scaleservice.models.Quality;
+
+class KeyTrackerTest {
+    private ChordCalculator chordCalculator;
+    private long[] basicScales;
+
+    @BeforeEach
+    void setUp() {
+        chordCalculator = new ChordCalculator(new ScalePatternCalculator());
+        basicScales = ScaleSet.empty();
+        for (int tonic = 0; tonic < PitchClassSet.PITCH_CLASS_COUNT; tonic++) {
+            ScaleSet.add(basicScales, ScaleSet.id(tonic, Quality.MAJOR));
+            ScaleSet.add(basicScales, ScaleSet.id(tonic, Quality.MINOR));
+        }
+    }
+
+    @Test
+    void shouldNarrowCandidatesWhileTheWindowFills() {
+        KeyTracker tracker = new KeyTracker(chordCalculator, 3, basicScales);
+
+        tracker.append("C");
+        tracker.append("F");
+        tracker.append("G");
+
+        assertThat(tracker.getWindowLength()).isEqualTo(3);
+        assertThat(ScaleSet.size(tracker.getCandidates())).isEqualTo(2);
+        assertThat(ScaleSet.contains(tracker.getCandidates(), ScaleSet.id(0, Quality.MAJOR))).isTrue();  // C major
+        assertThat(ScaleSet.contains(tracker.getCandidates(), ScaleSet.id(9, Quality.MINOR))).isTrue();  // A minor
+    }
+
+    @Test
+    void shouldRestoreCandidatesWhenChordsLeaveTheWindow() {
+        KeyTracker tracker = new KeyTracker(chordCalculator, 2, basicScales);
+
+        tracker.append("C");
+        tracker.append("D");      // No major or minor scale has both C and D major
+        assertThat(ScaleSet.isEmpty(tracker.getCandidates())).isTrue();
+
+        tracker.append("G");      // C drops out: D and G share G major and E minor
+        assertThat(ScaleSet.size(tracker.getCandidates())).isEqualTo(2);
+        assertThat(ScaleSet.contains(tracker.getCandidates(), ScaleSet.id(7, Quality.MAJOR))).isTrue();
+    }
+
+    @Test
+    void shouldIgnoreUnparseableChords() {
+        KeyTracker tracker = new KeyTracker(chordCalculator, 2, basicScales);
+
+        assertThat(tracker.append("H7")).isFalse();
+        assertThat(tracker.getWindowLength()).isZero();
+    }
+
+    @Test
+    void shouldRejectEmptyWindow() {
+        assertThatThrownBy(() -> new KeyTracker(chordCalculator, 0, basicScales))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldSplitSequenceWhereCandidateKeysChange() {
+        ScaleCalculator calculator = new ScaleCalculator();
+        List<String> song = List.of("C", "F", "G", "C", "Am", "Dm", "G", "C", "D", "G", "Em", "C", "D", "G");
+
+        List<KeySegment> segments = calculator.trackKeys(song, 4, false);
+
+        assertThat(segments).extracting(KeySegment::getStart).containsExactly(0, 1, 2, 8, 9);
+        assertThat(segments.get(2).getEnd()).isEqualTo(8);
+        assertThat(segments.get(2).getScales()).containsExactly("C MAJOR", "A MINOR");
+        assertThat(segments.get(3).getScales()).isEmpty();
+        assertThat(segments.get(4).getScales()).containsExactly("E MINOR", "G MAJOR");
+        assertThat(segments.get(4).getEnd()).isEqualTo(song.size());
+    }
+}
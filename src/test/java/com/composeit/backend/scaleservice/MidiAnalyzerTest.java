@@ -0,0 +1,180 @@
+package com.composeit.backend.scaleservice;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.composeit.backend.scaleservice.models.BarChord;
+import com.composeit.backend.scaleservice.models.MidiAnalysis;
+
+class MidiAnalyzerTest {
+    private static final int DIVISION = 480;
+    private static final int WHOLE_NOTE = 4 * DIVISION;
+    private static final int[] FOUR_FOUR = {0, 0xFF, 0x58, 4, 4, 2, 24, 8};
+    private static final int[] THREE_FOUR = {0, 0xFF, 0x58, 4, 3, 2, 24, 8};
+
+    @Test
+    void shouldFoldEachBarIntoPitchClassHistogram() {
+        byte[] file = smf(DIVISION, track(FOUR_FOUR), track(chords(0, new int[][] {{60, 64, 67}, {57, 60, 64, 69}})));
+
+        double[][] bars = MidiAnalyzer.barHistograms(ByteBuffer.wrap(file));
+
+        assertThat(bars).hasDimensions(2, 12);
+        assertThat(bars[0]).containsExactly(1, 0, 0, 0, 1, 0, 0, 1, 0, 0, 0, 0);
+        assertThat(bars[1]).containsExactly(1, 0, 0, 0, 1, 0, 0, 0, 0, 2, 0, 0);
+    }
+
+    @Test
+    void shouldSplitNotesAtBarLinesOfTimeSignature() {
+        // Whole notes in 3/4: the second one starts a third of the way into bar 2
+        byte[] file = smf(DIVISION, track(THREE_FOUR), track(chords(0, new int[][] {{60}, {62}})));
+
+        double[][] bars = MidiAnalyzer.barHistograms(ByteBuffer.wrap(file));
+
+        assertThat(bars).hasNumberOfRows(3);
+        assertThat(bars[0][0]).isEqualTo(1.0);
+        assertThat(bars[1][0]).isCloseTo(1.0 / 3, offset(1e-9));
+        assertThat(bars[1][2]).isCloseTo(2.0 / 3, offset(1e-9));
+        assertThat(bars[2][2]).isCloseTo(2.0 / 3, offset(1e-9));
+    }
+
+    @Test
+    void shouldReadRunningStatusAndZeroVelocityNoteOff() {
+        byte[] file = smf(DIVISION, track(
+                new int[] {0, 0x90, 60, 100}, new int[] {0, 64, 100}, new int[] {0, 67, 100},
+                new int[] {WHOLE_NOTE, 60, 0}, new int[] {0, 64, 0}, new int[] {0, 67, 0}));
+
+        double[][] bars = MidiAnalyzer.barHistograms(ByteBuffer.wrap(file));
+
+        assertThat(bars).hasNumberOfRows(1);
+        assertThat(bars[0]).containsExactly(1, 0, 0, 0, 1, 0, 0, 1, 0, 0, 0, 0);
+    }
+
+    @Test
+    void shouldSumTracksAndLeaveOutDrums() {
+        byte[] file = smf(DIVISION, track(FOUR_FOUR), track(chords(0, new int[][] {{60}})),
+                track(chords(1, new int[][] {{72}})), track(chords(9, new int[][] {{37}})));
+
+        double[][] bars = MidiAnalyzer.barHistograms(ByteBuffer.wrap(file));
+
+        assertThat(bars).hasNumberOfRows(1);
+        assertThat(bars[0]).containsExactly(2, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+    }
+
+    @Test
+    void shouldReturnNoBarsForFileWithoutNotes() {
+        assertThat(MidiAnalyzer.barHistograms(ByteBuffer.wrap(smf(DIVISION, track(FOUR_FOUR))))).isEmpty();
+    }
+
+    @Test
+    void shouldAnalyzeKeyAndChordPerBar() {
+        byte[] file = smf(DIVISION, track(chords(0, new int[][] {
+                {62, 65, 69, 72}, {55, 59, 62, 65}, {60, 64, 67, 71}, {57, 60, 64}})));
+
+        MidiAnalysis analysis = analyzer().analyze(ByteBuffer.wrap(file), false);
+
+        assertThat(analysis.getKey()).isEqualTo("C MAJOR");
+        assertThat(analysis.getBars()).extracting(BarChord::getChord).containsExactly("Dm7", "G7", "Cmaj7", "Am");
+        assertThat(analysis.getBars()).extracting(BarChord::getBar).containsExactly(1, 2, 3, 4);
+    }
+
+    @Test
+    void shouldAnalyzeFileWithoutNotesAsKeyless() {
+        MidiAnalysis analysis = analyzer().analyze(ByteBuffer.wrap(smf(DIVISION, track(FOUR_FOUR))), false);
+
+        assertThat(analysis.getKey()).isNull();
+        assertThat(analysis.getBars()).isEmpty();
+    }
+
+    @ParameterizedTest(name = "shouldRejectInvalidFile - {0}")
+    @MethodSource("provideInvalidFileArgs")
+    void shouldRejectInvalidFile(String description, byte[] file) {
+        assertThatThrownBy(() -> MidiAnalyzer.barHistograms(ByteBuffer.wrap(file)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Stream<Arguments> provideInvalidFileArgs() {
+        byte[] valid = smf(DIVISION, track(chords(0, new int[][] {{60}})));
+        return Stream.of(
+            Arguments.of("not MIDI", "MThx not a MIDI file".getBytes()),
+            Arguments.of("truncated", Arrays.copyOf(valid, valid.length - 3)),
+            Arguments.of("SMPTE division", smf(0xE728, track(chords(0, new int[][] {{60}})))),
+            Arguments.of("data before status", smf(DIVISION, track(new int[] {0, 60, 100}))),
+            // Four ticks to a bar, so this note runs one tick past the last bar allowed
+            Arguments.of("too many bars", smf(1, track(new int[] {0, 0x90, 60, 100},
+                    new int[] {MidiAnalyzer.MAX_BARS * 4 + 1, 0x80, 60, 0})))
+        );
+    }
+
+    private static MidiAnalyzer analyzer() {
+        ScalePatternCalculator patternCalculator = new ScalePatternCalculator();
+        return new MidiAnalyzer(patternCalculator, new KeyFinder(patternCalculator));
+    }
+
+    /**
+     * Note-on and note-off events holding each group of notes for a whole note, one group per bar in 4/4.
+     */
+    static int[][] chords(int channel, int[][] bars) {
+        List<int[]> events = new ArrayList<>();
+        for (int[] notes : bars) {
+            for (int note : notes) {
+                events.add(new int[] {0, 0x90 | channel, note, 90});
+            }
+            for (int i = 0; i < notes.length; i++) {
+                events.add(new int[] {i == 0 ? WHOLE_NOTE : 0, 0x80 | channel, notes[i], 0});
+            }
+        }
+        return events.toArray(new int[0][]);
+    }
+
+    /**
+     * Returns an MTrk chunk body from events written as {delta time, bytes...}, with an end-of-track
+     * event appended. Delta times are written as variable-length quantities.
+     */
+    static byte[] track(int[]... events) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int[] event : events) {
+            writeVariableLength(out, event[0]);
+            for (int i = 1; i < event.length; i++) {
+                out.write(event[i]);
+            }
+        }
+        out.write(0);
+        out.write(0xFF);
+        out.write(0x2F);
+        out.write(0);
+        return out.toByteArray();
+    }
+
+    static byte[] smf(int division, byte[]... tracks) {
+        ByteBuffer buffer = ByteBuffer.allocate(14 + Arrays.stream(tracks).mapToInt(track -> 8 + track.length).sum());
+        buffer.putInt(0x4D546864).putInt(6).putShort((short) 1).putShort((short) tracks.length).putShort((short) division);
+        for (byte[] track : tracks) {
+            buffer.putInt(0x4D54726B).putInt(track.length).put(track);
+        }
+        return buffer.array();
+    }
+
+    private static void writeVariableLength(ByteArrayOutputStream out, int value) {
+        int shift = 21;
+        while (shift > 0 && value >> shift == 0) {
+            shift -= 7;
+        }
+        for (; shift > 0; shift -= 7) {
+            out.write(0x80 | value >> shift & 0x7F);
+        }
+        out.write(value & 0x7F);
+    }
+}
@@ -0,0 +1,52 @@
+package com.composeit.backend.scaleservice;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.composeit.backend.common.Constants;
+
+class PitchClassSetTest {
+    private static final int C_MAJOR = 0xAB5;   // C D E F G A B
+    private static final int C_TRIAD = 0x091;   // C E G
+
+    @ParameterizedTest(name = "shouldGetCorrectPitchClass - {0}")
+    @MethodSource("providePitchClassArgs")
+    void shouldGetCorrectPitchClass(String note, int expected) {
+        assertThat(PitchClassSet.pitchClassOf(note)).isEqualTo(expected);
+    }
+
+    private static Stream<Arguments> providePitchClassArgs() {
+        return Stream.of(
+            Arguments.of(Constants.C, 0),
+            Arguments.of(Constants.F_SHARP, 6),
+            Arguments.of(Constants.G_FLAT, 6),
+            Arguments.of(Constants.B_SHARP, 0),   // Theoretical: same pitch class as C
+            Arguments.of(Constants.C_FLAT, 11),   // Theoretical: same pitch class as B
+            Arguments.of("H", -1),
+            Arguments.of(null, -1)
+        );
+    }
+
+    @Test
+    void shouldTestMembershipAndSubsets() {
+        assertThat(PitchClassSet.contains(C_MAJOR, 4)).isTrue();
+        assertThat(PitchClassSet.contains(C_MAJOR, 6)).isFalse();
+        assertThat(PitchClassSet.isSubset(C_TRIAD, C_MAJOR)).isTrue();
+        assertThat(PitchClassSet.isSubset(C_MAJOR, C_TRIAD)).isFalse();
+        assertThat(PitchClassSet.intersection(C_MAJOR, PitchClassSet.of(6))).isEqualTo(PitchClassSet.EMPTY);
+        assertThat(PitchClassSet.size(C_MAJOR)).isEqualTo(7);
+    }
+
+    @Test
+    void shouldTransposeWithinTwelveBits() {
+        assertThat(PitchClassSet.transpose(C_MAJOR, 7)).isEqualTo(0xAD5);   // G major
+        assertThat(PitchClassSet.transpose(C_MAJOR, -5)).isEqualTo(0xAD5);  // Down a fourth is also G
+        assertThat(PitchClassSet.transpose(C_MAJOR, 12)).isEqualTo(C_MAJOR);
+    }
+}
@@ -0,0 +1,85 @@
+package com.composeit.backend.scaleservice;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.composeit.backend.common.Constants;
+import com.composeit.backend.scaleservice.models.GeneratedProgression;
+import com.composeit.backend.scaleservice.models.ProgressionOrder;
+import com.composeit.backend.scaleservice.models.Quality;
+
+class ProgressionComposerTest {
+    private static ProgressionComposer composer;
+
+    @BeforeAll
+    static void setUp() {
+        ScalePatternCalculator patternCalculator = new ScalePatternCalculator();
+        composer = new ProgressionComposer(patternCalculator, new ChordCalculator(patternCalculator));
+    }
+
+    @Test
+    void shouldNameRankedChordsAndPositions() {
+        List<GeneratedProgression> progressions = composer.generate(Constants.C, Quality.MAJOR, 4, 2,
+                ProgressionOrder.RANKED, false, 0).toList();
+
+        assertThat(progressions).extracting(GeneratedProgression::getChords)
+                .containsExactly(List.of("C", "Dm", "G", "C"), List.of("C", "F", "G", "C"));
+        assertThat(progressions.get(0).getPositions()).containsExactly("I", "ii", "V", "I");
+        assertThat(progressions.get(0).isCadence()).isTrue();
+    }
+
+    @Test
+    void shouldRequireCadenceInMinor() {
+        List<GeneratedProgression> progressions = composer.generate(Constants.A, Quality.MINOR, 3, 2,
+                ProgressionOrder.RANKED, true, 0).toList();
+
+        assertThat(progressions).extracting(GeneratedProgression::getChords)
+                .containsExactly(List.of("Am", "Em", "Am"), List.of("Am", "G", "Am"));
+    }
+
+    @Test
+    void shouldNumberModalChordsByTheirOwnQuality() {
+        List<GeneratedProgression> progressions = composer.generate(Constants.D, Quality.DORIAN, 4, 3,
+                ProgressionOrder.RANKED, false, 0).toList();
+
+        assertThat(progressions).extracting(GeneratedProgression::getChords)
+                .containsExactly(List.of("Dm", "Em", "Am", "Dm"), List.of("Dm", "G", "Am", "Dm"),
+                        List.of("Dm", "G", "C", "Dm"));
+        assertThat(progressions).extracting(GeneratedProgression::getPositions)
+                .containsExactly(List.of("i", "ii", "v", "i"), List.of("i", "IV", "v", "i"),
+                        List.of("i", "IV", "VII", "i"));
+    }
+
+    @Test
+    void shouldUseDiatonicChordsOfMelodicMinor() {
+        List<GeneratedProgression> progressions = composer.generate(Constants.C, Quality.MELODIC_MINOR, 4, 2,
+                ProgressionOrder.RANKED, false, 0).toList();
+
+        assertThat(progressions).extracting(GeneratedProgression::getChords)
+                .containsExactly(List.of("Cm", "Dm", "G", "Cm"), List.of("Cm", "F", "G", "Cm"));
+        assertThat(progressions.get(1).getPositions()).containsExactly("i", "IV", "V", "i");
+    }
+
+    @Test
+    void shouldStopEnumeratingAndSamplingAtLimit() {
+        assertThat(composer.generate(Constants.D, Quality.DORIAN, 8, 25,
+                ProgressionOrder.ENUMERATED, false, 0).count()).isEqualTo(25);
+        assertThat(composer.generate(Constants.G, Quality.PENTATONIC_MAJOR, 4, 10,
+                ProgressionOrder.SAMPLED, false, 3).count()).isEqualTo(10);
+    }
+
+    @Test
+    void shouldRejectInvalidInput() {
+        assertThat(composer.generate("H", Quality.MAJOR, 4, 5, ProgressionOrder.RANKED, false, 0)).isEmpty();
+        assertThat(composer.generate(Constants.C, Quality.DIMINISHED, 4, 5, ProgressionOrder.RANKED, false, 0)).isEmpty();
+        assertThatThrownBy(() -> composer.generate(Constants.C, Quality.MAJOR, 13, 5, ProgressionOrder.RANKED, false, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> composer.generate(Constants.C, Quality.MAJOR, 4, 0, ProgressionOrder.RANKED, false, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,115 @@
+package com.composeit.backend.scaleservice;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class ProgressionGeneratorTest {
+    // Root intervals of the major scale's chords: I ii iii IV V vi vii°
+    private static final int[] MAJOR_ROOTS = {0, 2, 4, 5, 7, 9, 11};
+
+    private ProgressionGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        generator = new ProgressionGenerator(MAJOR_ROOTS);
+    }
+
+    private static long pack(int... degrees) {
+        long progression = 0;
+        for (int i = 0; i < degrees.length; i++) {
+            progression |= (long) degrees[i] << (4 * i);
+        }
+        return progression;
+    }
+
+    @ParameterizedTest(name = "shouldEnumerateWithoutRepeats - length {0}")
+    @MethodSource("provideEnumerationArgs")
+    void shouldEnumerateWithoutRepeats(int length, long expected) {
+        assertThat(generator.enumerate(length, false).count()).isEqualTo(expected);
+    }
+
+    private static Stream<Arguments> provideEnumerationArgs() {
+        return Stream.of(
+            Arguments.of(1, 7L),
+            Arguments.of(2, 42L),
+            Arguments.of(4, 7L * 6 * 6 * 6),
+            Arguments.of(8, 7L * 6 * 6 * 6 * 6 * 6 * 6 * 6)
+        );
+    }
+
+    @Test
+    void shouldEnumerateLazilyInDegreeOrder() {
+        assertThat(generator.enumerate(3, false).limit(3).toArray())
+                .containsExactly(pack(0, 1, 0), pack(0, 1, 2), pack(0, 1, 3));
+    }
+
+    @Test
+    void shouldOnlyEnumerateCadencesWhenRequired() {
+        assertThat(generator.enumerate(4, true).allMatch(p -> generator.endsInCadence(p, 4))).isTrue();
+        assertThat(generator.endsInCadence(pack(1, 4, 0), 3)).isTrue();   // ii-V-I
+        assertThat(generator.endsInCadence(pack(0, 3, 0), 3)).isTrue();   // I-IV-I
+        assertThat(generator.endsInCadence(pack(0, 5, 0), 3)).isFalse();  // I-vi-I
+        assertThat(generator.endsInCadence(pack(0), 1)).isFalse();
+    }
+
+    @Test
+    void shouldRankIdiomaticProgressionsFirst() {
+        long[] ranked = generator.rank(4, 3, false);
+
+        assertThat(ranked).containsExactly(pack(0, 1, 4, 0), pack(0, 3, 4, 0), pack(0, 3, 6, 0));
+        assertThat(generator.score(ranked[0], 4)).isGreaterThanOrEqualTo(generator.score(ranked[1], 4));
+    }
+
+    @Test
+    void shouldRankTheSameAsSortingEveryProgression() {
+        long[] ranked = generator.rank(5, 50, true);
+        long[] sorted = generator.enumerate(5, true)
+                .boxed()
+                .sorted((a, b) -> Double.compare(generator.score(b, 5), generator.score(a, 5)))
+                .mapToLong(Long::longValue)
+                .limit(50)
+                .toArray();
+
+        assertThat(ranked).hasSize(50);
+        for (int i = 0; i < ranked.length; i++) {
+            assertThat(generator.score(ranked[i], 5)).isEqualTo(generator.score(sorted[i], 5));
+        }
+    }
+
+    @Test
+    void shouldNeverScoreRepeatedChords() {
+        assertThat(generator.score(pack(0, 0, 4, 0), 4)).isEqualTo(Double.NEGATIVE_INFINITY);
+    }
+
+    @Test
+    void shouldSampleReproducibly() {
+        long[] samples = generator.sample(6, true, 42).limit(20).toArray();
+
+        assertThat(generator.sample(6, true, 42).limit(20).toArray()).containsExactly(samples);
+        for (long sample : samples) {
+            assertThat(generator.endsInCadence(sample, 6)).isTrue();
+            assertThat(generator.score(sample, 6)).isFinite();
+        }
+    }
+
+    @Test
+    void shouldSampleNothingWhenNoCadenceIsPossible() {
+        assertThat(generator.sample(1, true, 42).limit(5).toArray()).isEmpty();
+        assertThat(generator.sample(1, false, 42).limit(5).toArray()).hasSize(5);
+    }
+
+    @Test
+    void shouldRejectLengthsOutOfRange() {
+        assertThatThrownBy(() -> generator.rank(0, 5, false)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> generator.enumerate(ProgressionGenerator.MAX_LENGTH + 1, false))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,76 @@
+package com.composeit.backend.scaleservice;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.composeit.backend.scaleservice.models.LocatedProgression;
+
+class ProgressionLocatorTest {
+    private static ScaleCalculator calculator;
+    private static ProgressionLocator locator;
+
+    @BeforeAll
+    static void setUp() {
+        calculator = new ScaleCalculator();
+        locator = new ProgressionLocator(calculator.getPatternCalculator(), calculator.getChordCalculator());
+    }
+
+    @ParameterizedTest(name = "shouldLocateProgression - {0} in {1}")
+    @MethodSource("provideLocateArgs")
+    void shouldLocateProgression(List<String> chords, String scale, List<String> positions) {
+        assertThat(locator.locate(chords, true))
+                .anySatisfy(key -> {
+                    assertThat(key.getScale()).isEqualTo(scale);
+                    assertThat(key.getPositions()).isEqualTo(positions);
+                });
+    }
+
+    private static Stream<Arguments> provideLocateArgs() {
+        List<String> twoFiveOne = List.of("Dm", "G", "C");
+        return Stream.of(
+            Arguments.of(twoFiveOne, "C MAJOR", List.of("ii", "V", "I")),
+            Arguments.of(twoFiveOne, "A MINOR", List.of("iv", "VII", "III")),
+            Arguments.of(twoFiveOne, "F LYDIAN", List.of("vi", "II", "V")),
+            Arguments.of(twoFiveOne, "D DORIAN", List.of("i", "IV", "VII")),
+            Arguments.of(List.of("Am", "F", "C", "G"), "C MAJOR", List.of("vi", "IV", "I", "V")),
+            Arguments.of(List.of("E", "Am"), "A HARMONIC_MINOR", List.of("V", "i")),
+            Arguments.of(List.of("Bb", "F", "Gm"), "F MAJOR", List.of("IV", "I", "ii")),
+            Arguments.of(List.of("Dm7", "G7", "Cmaj7"), "A MINOR", List.of("iv", "VII", "III")),
+            Arguments.of(List.of("Cm", "F", "G"), "C MELODIC_MINOR", List.of("i", "IV", "V")),
+            Arguments.of(List.of("Cm", "Dm", "B°"), "C MELODIC_MINOR", List.of("i", "ii", "vii°"))
+        );
+    }
+
+    @Test
+    void shouldFindTheSameKeysAsChordSearch() {
+        List<List<String>> inputs = List.of(
+                List.of("Dm", "G", "C"),
+                List.of("C#m", "F#", "B"),
+                List.of("Bb", "F", "Gm", "Eb"),
+                List.of("B°", "C"),
+                List.of("Cmaj7"),
+                List.of("Dm7", "G7", "Cmaj7"),
+                List.of("Cm", "F", "G"));
+        for (List<String> chords : inputs) {
+            for (boolean advanced : new boolean[] {false, true}) {
+                assertThat(locator.locate(chords, advanced)).extracting(LocatedProgression::getScale)
+                        .isEqualTo(calculator.getScaleFromChords(chords, advanced));
+            }
+        }
+    }
+
+    @Test
+    void shouldLocateNothingForInvalidInput() {
+        assertThat(locator.locate(List.of("C", "H"), true)).isEmpty();
+        assertThat(locator.locate(List.of(), true)).isEmpty();
+        assertThat(locator.locate(null, true)).isEmpty();
+    }
+}
@@ -0,0 +1,32 @@
+package com.composeit.backend.scaleservice;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.composeit.backend.scaleservice.models.VoiceLeading;
+import com.composeit.backend.scaleservice.models.Voicing;
+
+class ProgressionVoicerTest {
+    private final ProgressionVoicer voicer = new ProgressionVoicer();
+
+    @Test
+    void shouldNameVoicedNotesWithOctaves() {
+        VoiceLeading leading = voicer.lead(List.of("Dm", "G", "C"), 40, 80, 3);
+
+        assertThat(leading.getVoicings()).extracting(Voicing::getNames).containsExactly(
+                List.of("F3", "A3", "D4"), List.of("G3", "B3", "D4"), List.of("G3", "C4", "E4"));
+        assertThat(leading.getMovement()).isEqualTo(7);
+    }
+
+    @Test
+    void shouldVoiceNothingForChordsWithoutATriad() {
+        assertThat(voicer.lead(List.of("C", "H"), 40, 80, 4).getVoicings()).isEmpty();
+        assertThat(voicer.lead(List.of("Csus4", "G"), 40, 80, 4).getVoicings()).isEmpty();
+        assertThat(voicer.lead(null, 40, 80, 4).getVoicings()).isEmpty();
+        assertThatThrownBy(() -> voicer.lead(List.of("C"), 60, 80, 2)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -3,6 +3,7 @@ package com.composeit.backend.scaleservice;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -16,6 +17,8 @@ import org.junit.jupiter.params.provider.MethodSource;
 
 import com.composeit.backend.common.Constants;
 import com.composeit.backend.scaleservice.models.Quality;
+import com.composeit.backend.scaleservice.models.RankedScale;
+import com.composeit.backend.scaleservice.models.ScaleDefinition;
 import com.composeit.backend.scaleservice.models.ScaleProfile;
 
 class ScaleCalculatorTest {
@@ -186,6 +189,26 @@ class ScaleCalculatorTest {
 			"Scales with theoretical equivalents should be excluded");
 	}
 
+	@Test
+	void testGetScaleFromSemitones_EnharmonicSpellingsMatchAlike() {
+		List<String> sharps = calculator.getScaleFromSemitones(List.of(Constants.F_SHARP, Constants.C_SHARP), true);
+		List<String> flats = calculator.getScaleFromSemitones(List.of(Constants.G_FLAT, Constants.D_FLAT), true);
+		List<String> mixed = calculator.getScaleFromSemitones(
+				List.of(Constants.G_FLAT, Constants.C_SHARP, Constants.F_SHARP), true);
+		assertFalse(sharps.isEmpty());
+		assertEquals(sharps, flats);
+		assertEquals(sharps, mixed);
+	}
+
+	@Test
+	void testGetScaleFromSemitones_AdvancedFlag() {
+		List<String> basic = calculator.getScaleFromSemitones(List.of(Constants.C, Constants.E, Constants.G), false);
+		List<String> advanced = calculator.getScaleFromSemitones(List.of(Constants.C, Constants.E, Constants.G), true);
+		assertTrue(basic.stream().allMatch(scale -> scale.endsWith(" MAJOR") || scale.endsWith(" MINOR")));
+		assertTrue(advanced.containsAll(basic));
+		assertTrue(advanced.contains("C LYDIAN"));
+	}
+
 	@ParameterizedTest(name = "shouldGetCorrectChords - {0} {1}")
 	@MethodSource("provideChordArgs")
 	void shouldGetCorrectChords(String tonic, Quality quality, List<String> expected) {
@@ -259,6 +282,63 @@ class ScaleCalculatorTest {
 		assertTrue(result.isEmpty());
 	}
 
+	@Test
+	void testGetScaleFromChords_MatchesAnySpellingOfTheRoot() {
+		// Bb major displays its chords with flats, but the scale is listed under its sharp tonic
+		List<String> flats = calculator.getScaleFromChords(Arrays.asList("Eb", "Cm", "Bb", "Fm"), false);
+		List<String> sharps = calculator.getScaleFromChords(Arrays.asList("D#", "Cm", "A#", "Fm"), false);
+		assertEquals(List.of("C MINOR", "D# MAJOR"), flats);
+		assertEquals(flats, sharps);
+	}
+
+	@Test
+	void testGetScaleFromChords_MatchesExtendedChords() {
+		assertEquals(List.of("C MAJOR", "A MINOR"),
+				calculator.getScaleFromChords(Arrays.asList("Dm7", "G7", "Cmaj7"), false));
+		assertEquals(List.of("A HARMONIC_MINOR"),
+				calculator.getScaleFromChords(Arrays.asList("Bm7b5", "E7b9", "Am"), true));
+		assertTrue(calculator.getScaleFromChords(Arrays.asList("C7", "F"), false).contains("F MAJOR"));
+		assertTrue(calculator.getScaleFromChords(Arrays.asList("C7", "F"), false).stream()
+				.noneMatch(scale -> scale.startsWith("C ")));
+		assertEquals(List.of("C MAJOR", "D DORIAN", "E PHRYGIAN", "F LYDIAN", "G MIXOLYDIAN", "A MINOR", "B LOCRIAN"),
+				calculator.getScaleFromChords(Arrays.asList("Cmaj7", "Dm7"), true));
+		assertEquals(List.of("C HARMONIC_MINOR"),
+				calculator.getScaleFromChords(Arrays.asList("CmM7", "Fm"), true));
+		assertEquals(List.of("C MELODIC_MINOR"),
+				calculator.getScaleFromChords(Arrays.asList("CmM7", "F"), true));
+	}
+
+	@Test
+	void testGetScaleFromChords_AdvancedFlag() {
+		List<String> inputChords = Arrays.asList("Am", "C", "Dm", "Em", "G");
+		assertEquals(List.of("C MAJOR", "A MINOR"), calculator.getScaleFromChords(inputChords, false));
+		List<String> advanced = calculator.getScaleFromChords(inputChords, true);
+		assertTrue(advanced.containsAll(List.of("C MAJOR", "A MINOR", "D DORIAN", "A PENTATONIC_MINOR")));
+		assertTrue(advanced.stream().noneMatch(scale -> scale.endsWith("DIMINISHED")));
+	}
+
+	@Test
+	void testStreamScaleFromChords_MatchesList() {
+		List<String> inputChords = Arrays.asList("C", "G");
+		assertEquals(calculator.getScaleFromChords(inputChords, true),
+				calculator.streamScaleFromChords(inputChords, true).toList());
+		assertEquals(List.of("C MAJOR", "C LYDIAN"),
+				calculator.streamScaleFromChords(inputChords, true).limit(2).toList());
+		assertEquals(0, calculator.streamScaleFromChords(Arrays.asList("C", "H7"), true).count());
+	}
+
+	@Test
+	void testGetScaleFromChords_LooseSuffixMatchesTriad() {
+		assertEquals(calculator.getScaleFromChords(Arrays.asList("C", "Dm", "G"), true),
+				calculator.getScaleFromChords(Arrays.asList("C4", "Dm2", "Gmaj69"), true));
+	}
+
+	@Test
+	void testGetScaleFromChords_UnparseableChord() {
+		List<String> result = calculator.getScaleFromChords(Arrays.asList("C", "H7"), true);
+		assertTrue(result.isEmpty());
+	}
+
 	@Test
 	void testGetScaleFromSemitones_InvalidSemitones() {
 		List<String> invalidNotes = Arrays.asList("H", "I", "J");
@@ -266,6 +346,95 @@ class ScaleCalculatorTest {
 		assertTrue(result.isEmpty());
 	}
 
+	@Test
+	void testRankScales_RanksInputThatFitsNoScale() {
+		// C E G B F# Bb fits no single scale, so the exact search finds nothing
+		List<String> input = Arrays.asList(Constants.C, Constants.E, Constants.G, Constants.B, Constants.F_SHARP, Constants.B_FLAT);
+		assertTrue(calculator.getScaleFromSemitones(input, false).isEmpty());
+
+		List<RankedScale> ranked = calculator.rankScales(input, null, 3, false);
+		assertEquals(List.of("E MINOR", "G MAJOR", "C MAJOR"), ranked.stream().map(RankedScale::getScale).toList());
+		assertEquals(5, ranked.get(0).getMatched());
+		assertEquals(1, ranked.get(0).getMissed());
+		assertEquals(2, ranked.get(0).getLeftOut());
+	}
+
+	@Test
+	void testRankScales_WeightsApplyToEnharmonicSpellings() {
+		List<String> input = Arrays.asList(Constants.C, Constants.E, Constants.G, Constants.B, Constants.F_SHARP, Constants.B_FLAT);
+		List<RankedScale> ranked = calculator.rankScales(input, Map.of(Constants.A_SHARP, 3.0), 2, false);
+		assertEquals(List.of("D MINOR", "F MAJOR"), ranked.stream().map(RankedScale::getScale).toList());
+	}
+
+	@Test
+	void testRankScales_InvalidInput() {
+		assertTrue(calculator.rankScales(Arrays.asList(Constants.C, "H"), null, 5, false).isEmpty());
+		assertThrows(IllegalArgumentException.class, () -> calculator.rankScales(List.of(Constants.C), null, 0, false));
+		assertThrows(IllegalArgumentException.class, () -> calculator.rankScales(List.of(Constants.C), Map.of("H", 2.0), 5, false));
+		assertThrows(IllegalArgumentException.class, () -> calculator.rankScales(List.of(Constants.C), Map.of(Constants.C, -1.0), 5, false));
+	}
+
+	@Test
+	void testCustomScales_IncludedInAdvancedSearches() {
+		List<ScaleDefinition> definitions = ScaleDefinitions.parse(List.of(
+				"WHOLE_TONE = 2 2 2 2 2 2",
+				"LYDIAN_DOMINANT = 2 2 2 1 2 1 2"));
+		ScaleCalculator custom = new ScaleCalculator(ScaleMetrics.NOOP, definitions);
+
+		List<String> semitones = Arrays.asList(Constants.C, Constants.D, Constants.E, Constants.F_SHARP, Constants.G_SHARP);
+		assertEquals(List.of("C WHOLE_TONE", "D WHOLE_TONE", "D LYDIAN_DOMINANT", "E WHOLE_TONE", "F# WHOLE_TONE",
+				"Gb WHOLE_TONE", "G# WHOLE_TONE", "Ab WHOLE_TONE", "A MELODIC_MINOR", "A# WHOLE_TONE", "Bb WHOLE_TONE"),
+				custom.getScaleFromSemitones(semitones, true));
+		assertEquals(calculator.getScaleFromSemitones(semitones, false), custom.getScaleFromSemitones(semitones, false));
+
+		// Custom matches follow the built-in ones
+		List<String> chords = Arrays.asList("C", "D");
+		List<String> expected = new ArrayList<>(calculator.getScaleFromChords(chords, true));
+		expected.add("C LYDIAN_DOMINANT");
+		assertEquals(expected, custom.getScaleFromChords(chords, true));
+		assertEquals(expected, custom.streamScaleFromChords(chords, true).toList());
+		assertEquals(calculator.getScaleFromChords(chords, false), custom.getScaleFromChords(chords, false));
+	}
+
+	@Test
+	void testGetCustomScaleProfile() {
+		ScaleCalculator custom = new ScaleCalculator(ScaleMetrics.NOOP,
+				ScaleDefinitions.parse(List.of("LYDIAN_DOMINANT = 2 2 2 1 2 1 2")));
+
+		ScaleProfile profile = custom.getCustomScaleProfile(Constants.C, "LYDIAN_DOMINANT");
+		assertEquals(List.of(Constants.C, Constants.D, Constants.E, Constants.F_SHARP, Constants.G, Constants.A, Constants.B_FLAT),
+				profile.getSemitones());
+		assertEquals(Map.of("I", "C", "II", "D", "iii°", "E°", "iv°", "F#°", "v", "Gm", "vi", "Am"), profile.getChords());
+		assertEquals(Constants.F_SHARP, profile.getIntervals().get("Augmented Fourth"));
+		assertEquals("Lydian Dominant", profile.getMode());
+		assertNull(profile.getQuality());
+		assertSame(profile, custom.getCustomScaleProfile("B#", "LYDIAN_DOMINANT"));
+		assertNull(custom.getCustomScaleProfile(Constants.C, "MAJOR"));
+		assertNull(calculator.getCustomScaleProfile(Constants.C, "LYDIAN_DOMINANT"));
+	}
+
+	@Test
+	void testGetScaleProfile_SharedAcrossCallsAndSpellings() {
+		ScaleProfile profile = calculator.getScaleProfile(Constants.F_SHARP, Quality.MAJOR);
+		assertSame(profile, calculator.getScaleProfile(Constants.F_SHARP, Quality.MAJOR));
+		assertSame(profile, calculator.getScaleProfile(Constants.G_FLAT, Quality.MAJOR));
+		assertEquals(Constants.F_SHARP, profile.getTonic());
+	}
+
+	@Test
+	void testGetScaleProfile_Immutable() {
+		ScaleProfile profile = calculator.getScaleProfile(Constants.C, Quality.MAJOR);
+		assertThrows(UnsupportedOperationException.class, () -> profile.getSemitones().add(Constants.C));
+		assertThrows(UnsupportedOperationException.class, () -> profile.getChords().clear());
+		assertThrows(UnsupportedOperationException.class, () -> profile.getCommonProgressions().get(0).set(0, "V"));
+	}
+
+	@Test
+	void testGetScaleProfile_InvalidInput() {
+		assertNull(calculator.getScaleProfile("H", Quality.MAJOR));
+		assertNull(calculator.getScaleProfile(Constants.C, Quality.DIMINISHED));
+	}
+
 	@ParameterizedTest(name = "shouldGetCorrectScaleProfile - {0} {1}")
 	@MethodSource("provideScaleProfileArgs")
 	void shouldGetCorrectScaleProfile(String tonic, Quality quality, ScaleProfile expected) {
@@ -0,0 +1,94 @@
+package com.composeit.backend.scaleservice;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.composeit.backend.scaleservice.models.Quality;
+import com.composeit.backend.scaleservice.models.ScaleDefinition;
+
+class ScaleDefinitionsTest {
+
+    @Test
+    void shouldParseDefinitionsInFileOrder() {
+        List<ScaleDefinition> definitions = ScaleDefinitions.parse(List.of(
+                "# Melodic minor modes",
+                "",
+                "LYDIAN_DOMINANT = 2 2 2 1 2 1 2",
+                "  WHOLE_TONE=2 2 2 2 2 2  "));
+
+        assertThat(definitions).extracting(ScaleDefinition::getName).containsExactly("LYDIAN_DOMINANT", "WHOLE_TONE");
+        assertThat(definitions).extracting(ScaleDefinition::getLabel).containsExactly("Lydian Dominant", "Whole Tone");
+        assertThat(definitions.get(1).getDegreeCount()).isEqualTo(6);
+    }
+
+    @Test
+    void shouldAcceptStepsWithOrWithoutTheOctave() {
+        ScaleDefinition closed = ScaleDefinitions.parse(List.of("HUNGARIAN_MINOR = 2 1 3 1 1 3 1")).get(0);
+        ScaleDefinition open = ScaleDefinitions.parse(List.of("HUNGARIAN_MINOR = 2 1 3 1 1 3")).get(0);
+
+        assertThat(closed.getPattern()).isEqualTo(open.getPattern());
+        assertThat(closed.getDegreeCount()).isEqualTo(7);
+    }
+
+    @ParameterizedTest(name = "shouldDeriveChordQualitiesByStackingThirds - {0}")
+    @MethodSource("provideChordQualityArgs")
+    void shouldDeriveChordQualitiesByStackingThirds(String line, Quality[] expected) {
+        ScaleDefinition definition = ScaleDefinitions.parse(List.of(line)).get(0);
+
+        assertThat(IntStream.range(0, definition.getDegreeCount()).mapToObj(definition::getChordQuality))
+                .containsExactly(expected);
+    }
+
+    private static Stream<Arguments> provideChordQualityArgs() {
+        Quality M = Quality.MAJOR;
+        Quality m = Quality.MINOR;
+        Quality d = Quality.DIMINISHED;
+        return Stream.of(
+            // Same steps as the built-in major scale, so the same chords as MAJOR_CHORD_PATTERN
+            Arguments.of("IONIAN_COPY = 2 2 1 2 2 2", new Quality[] {M, m, m, M, M, m, d}),
+            Arguments.of("LYDIAN_DOMINANT = 2 2 2 1 2 1", new Quality[] {M, M, d, d, m, m, null}),
+            Arguments.of("HUNGARIAN_MINOR = 2 1 3 1 1 3", new Quality[] {m, null, null, null, M, M, m}),
+            Arguments.of("WHOLE_TONE = 2 2 2 2 2", new Quality[] {null, null, null, null, null, null})
+        );
+    }
+
+    @Test
+    void shouldNameTritoneByWhetherThereIsAPerfectFifth() {
+        ScaleDefinition lydian = ScaleDefinitions.parse(List.of("LYDIAN_COPY = 2 2 2 1 2 2")).get(0);
+        ScaleDefinition wholeTone = ScaleDefinitions.parse(List.of("WHOLE_TONE = 2 2 2 2 2")).get(0);
+
+        assertThat(lydian.getIntervalName(3)).isEqualTo("Augmented Fourth");
+        assertThat(wholeTone.getIntervalName(3)).isEqualTo("Diminished Fifth");
+    }
+
+    @ParameterizedTest(name = "shouldRejectInvalidDefinitions - {0}")
+    @MethodSource("provideInvalidArgs")
+    void shouldRejectInvalidDefinitions(String name, List<String> lines, String message) {
+        assertThatThrownBy(() -> ScaleDefinitions.parse(lines))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(message);
+    }
+
+    private static Stream<Arguments> provideInvalidArgs() {
+        return Stream.of(
+            Arguments.of("built-in name", List.of("MAJOR = 2 2 1 2 2 2"), "MAJOR is already defined"),
+            Arguments.of("duplicate", Arrays.asList("BLUES = 3 2 1 1 3", "BLUES = 3 2 1 1 3"), "line 2"),
+            Arguments.of("lower case", List.of("blues = 3 2 1 1 3"), "invalid name"),
+            Arguments.of("no steps", List.of("BLUES"), "expected NAME = steps"),
+            Arguments.of("not a number", List.of("BLUES = 3 2 x"), "invalid step 'x'"),
+            Arguments.of("past the octave", List.of("BLUES = 3 2 1 1 3 3"), "must not pass the octave"),
+            Arguments.of("zero step", List.of("BLUES = 3 0 1 1 3"), "steps must be positive"),
+            Arguments.of("too few degrees", List.of("FIFTHS = 7"), "at least three degrees")
+        );
+    }
+}
@@ -0,0 +1,107 @@
+package com.composeit.backend.scaleservice;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.composeit.backend.common.Constants;
+import com.composeit.backend.scaleservice.models.Quality;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ScaleMetricsTest {
+    private SimpleMeterRegistry registry;
+    private ScaleCalculator calculator;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        calculator = new ScaleCalculator(new ScaleMetrics(registry));
+    }
+
+    @Test
+    void shouldTimeCalculatorMethods() {
+        calculator.getSemitonesFromScale(Constants.C, Quality.MAJOR);
+        calculator.getSemitonesFromScale(Constants.D, Quality.MAJOR);
+
+        assertThat(registry.get("composeit.calculator")
+                .tag("class", "ScaleCalculator")
+                .tag("method", "getSemitonesFromScale")
+                .timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldCountParseFailuresByAdvancedFlag() {
+        calculator.getScaleFromChords(List.of("C", "H"), true);
+        calculator.getScaleFromSemitones(List.of("X"), false);
+
+        assertThat(registry.get("composeit.parse.failures")
+                .tag("input", "chord").tag("advanced", "true")
+                .counter().count()).isEqualTo(1.0);
+        assertThat(registry.get("composeit.parse.failures")
+                .tag("input", "note").tag("advanced", "false")
+                .counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldRecordResultSizesAndEmptyResults() {
+        calculator.getScaleFromSemitones(List.of(Constants.C, Constants.E, Constants.G), false);
+        calculator.getScaleFromSemitones(List.of(Constants.C, Constants.C_SHARP, Constants.D), false);
+
+        assertThat(registry.get("composeit.results.size")
+                .tag("method", "getScaleFromSemitones").tag("advanced", "false")
+                .summary().count()).isEqualTo(2);
+        assertThat(registry.get("composeit.results.empty")
+                .tag("method", "getScaleFromSemitones").tag("advanced", "false")
+                .counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldNotCountProfileTableConstructionAsTraffic() {
+        assertThat(registry.get("composeit.calculator")
+                .tag("class", "ScaleCalculator")
+                .tag("method", "getSemitonesFromScale")
+                .timer().count()).isZero();
+        assertThat(registry.get("composeit.calculator")
+                .tag("class", "ChordCalculator")
+                .tag("method", "getChordsFromScale")
+                .timer().count()).isZero();
+        assertThat(registry.get("composeit.calculator")
+                .tag("class", "ProgressionCalculator")
+                .tag("method", "createCommonProgressions")
+                .timer().count()).isZero();
+    }
+
+    @Test
+    void shouldTimeOnlyTheOuterMethod() {
+        calculator.getChordsFromScale(Constants.C, Quality.MAJOR);
+
+        assertThat(registry.get("composeit.calculator")
+                .tag("class", "ScaleCalculator")
+                .tag("method", "getChordsFromScale")
+                .timer().count()).isEqualTo(1);
+        assertThat(registry.get("composeit.calculator")
+                .tag("class", "ChordCalculator")
+                .tag("method", "getChordsFromScale")
+                .timer().count()).isZero();
+    }
+
+    @Test
+    void shouldTimeServiceFeaturesOnceByTheirOwnClass() {
+        ScaleService service = new ScaleService(registry, "");
+        service.analyzeAudio(AudioAnalyzerTest.wav(22050, 1, 16, 1, 1, new int[][] {{}}), false);
+        service.identifyChord(List.of(Constants.C, Constants.E, Constants.G), null);
+
+        assertThat(registry.get("composeit.calculator")
+                .tag("class", "AudioAnalyzer")
+                .tag("method", "analyze")
+                .timer().count()).isEqualTo(1);
+        assertThat(registry.get("composeit.calculator")
+                .tag("class", "ChordIdentifier")
+                .tag("method", "identify")
+                .timer().count()).isEqualTo(1);
+    }
+}
@@ -98,6 +98,30 @@ class ScalePatternCalculatorTest {
         );
     }
 
+    @ParameterizedTest(name = "shouldGetCorrectScaleMask - {0} {1}")
+    @MethodSource("provideScaleMaskArgs")
+    void shouldGetCorrectScaleMask(String tonic, Quality quality, int expected) {
+        int actual = calculator.getScaleMask(tonic, quality);
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    private static Stream<Arguments> provideScaleMaskArgs() {
+        return Stream.of(
+            Arguments.of(C, Quality.MAJOR, 0xAB5),              // C D E F G A B
+            Arguments.of(A, Quality.MINOR, 0xAB5),              // Same notes as C major
+            Arguments.of(G, Quality.MAJOR, 0xAD5),              // G A B C D E F#
+            Arguments.of(C, Quality.PENTATONIC_MAJOR, 0x295),   // C D E G A
+            Arguments.of(F_SHARP, Quality.MAJOR, 0xD6A),        // F# G# A# B C# D# E#
+            Arguments.of("Gb", Quality.MAJOR, 0xD6A)            // Enharmonic tonic, same set
+        );
+    }
+
+    @Test
+    void shouldReturnEmptyMaskForInvalidTonic() {
+        int actual = calculator.getScaleMask("H", Quality.MAJOR);
+        assertThat(actual).isEqualTo(PitchClassSet.EMPTY);
+    }
+
     @Test
     void shouldHandleInvalidTonic() {
         List<String> actual = calculator.getSemitonesFromScale("H", Quality.MAJOR);
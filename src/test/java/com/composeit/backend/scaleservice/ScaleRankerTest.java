@@ -0,0 +1,73 @@
+package com.composeit.backend.scaleservice;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.stream.Stream;
+
+import org.assertj.core.data.Offset;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.composeit.backend.scaleservice.models.Quality;
+
+class ScaleRankerTest {
+    private static final int C_MAJOR_TRIAD = 0b000010010001;  // C E G
+    private static final int C_MAJOR = 0xAB5;
+
+    private ScaleRanker ranker;
+    private long[] allScales;
+
+    @BeforeEach
+    void setUp() {
+        ranker = new ScaleRanker(new ScalePatternCalculator());
+        allScales = ScaleSet.empty();
+        for (int id = 0; id < ScaleSet.SCALE_COUNT; id++) {
+            ScaleSet.add(allScales, id);
+        }
+    }
+
+    @ParameterizedTest(name = "shouldScoreByCoverage - {0}")
+    @MethodSource("provideScoreArgs")
+    void shouldScoreByCoverage(String name, int input, double[] weights, double expected) {
+        assertThat(ScaleRanker.score(input, weights, C_MAJOR)).isCloseTo(expected, Offset.offset(1e-9));
+    }
+
+    private static Stream<Arguments> provideScoreArgs() {
+        double[] heavyCSharp = {1, 4, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1};
+        return Stream.of(
+            Arguments.of("triad", C_MAJOR_TRIAD, null, 3 - 4 * ScaleRanker.LEFT_OUT_PENALTY),
+            Arguments.of("whole scale", C_MAJOR, null, 7.0),
+            Arguments.of("one note outside", C_MAJOR_TRIAD | 0b10, null, 3 - 1 - 4 * ScaleRanker.LEFT_OUT_PENALTY),
+            Arguments.of("weighted note outside", C_MAJOR_TRIAD | 0b10, heavyCSharp, 3 - 4 - 4 * ScaleRanker.LEFT_OUT_PENALTY)
+        );
+    }
+
+    @Test
+    void shouldReturnBestFirstWithTiesByLowerId() {
+        double[] scores = new double[ScaleSet.SCALE_COUNT];
+
+        int[] ranked = ranker.rank(C_MAJOR, null, allScales, 3, scores);
+
+        // Every mode of the C major collection scores 7; C MAJOR has the lowest id among them
+        assertThat(ranked).hasSize(3);
+        assertThat(ranked[0]).isEqualTo(ScaleSet.id(0, Quality.MAJOR));
+        assertThat(scores[ranked[2]]).isEqualTo(7.0);
+        assertThat(ranked[1]).isGreaterThan(ranked[0]);
+        assertThat(ranked[2]).isGreaterThan(ranked[1]);
+    }
+
+    @Test
+    void shouldKeepEveryAllowedScaleWhenLimitExceedsThem() {
+        long[] twoScales = ScaleSet.empty();
+        ScaleSet.add(twoScales, ScaleSet.id(0, Quality.MINOR));
+        ScaleSet.add(twoScales, ScaleSet.id(7, Quality.MAJOR));
+
+        int[] ranked = ranker.rank(C_MAJOR_TRIAD, null, twoScales, 10, new double[ScaleSet.SCALE_COUNT]);
+
+        // G major holds all of C E G; C minor lacks E
+        assertThat(ranked).containsExactly(ScaleSet.id(7, Quality.MAJOR), ScaleSet.id(0, Quality.MINOR));
+    }
+}
@@ -0,0 +1,169 @@
+package com.composeit.backend.scaleservice;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.composeit.backend.scaleservice.models.Quality;
+
+class VoiceLeaderTest {
+    private static final int C = 0;
+    private static final int D = 2;
+    private static final int E = 4;
+    private static final int F = 5;
+    private static final int G = 7;
+    private static final int A = 9;
+
+    @Test
+    void shouldVoiceEveryChordToneWithinRange() {
+        VoiceLeader leader = new VoiceLeader(48, 72, 4);
+        int[] candidates = leader.candidates(C, Quality.MAJOR, -1);
+
+        assertThat(candidates.length % 4).isZero();
+        for (int k = 0; k < candidates.length; k += 4) {
+            int covered = 0;
+            for (int v = 0; v < 4; v++) {
+                assertThat(candidates[k + v]).isBetween(48, 72);
+                if (v > 0) {
+                    assertThat(candidates[k + v]).isGreaterThan(candidates[k + v - 1]);
+                }
+                covered = PitchClassSet.with(covered, candidates[k + v] % 12);
+            }
+            assertThat(covered).isEqualTo(PitchClassSet.of(C) | PitchClassSet.of(E) | PitchClassSet.of(G));
+        }
+    }
+
+    @Test
+    void shouldPutSlashBassLowest() {
+        int[] candidates = new VoiceLeader(40, 76, 4).candidates(C, Quality.MAJOR, E);
+
+        assertThat(candidates).isNotEmpty();
+        for (int k = 0; k < candidates.length; k += 4) {
+            assertThat(candidates[k] % 12).isEqualTo(E);
+        }
+    }
+
+    @Test
+    void shouldKeepCommonTonesAndMoveByStep() {
+        VoiceLeader leader = new VoiceLeader(48, 79, 4);
+        int[][] voicings = leader.lead(new int[] {C, A, F, G}, new Quality[] {Quality.MAJOR, Quality.MINOR,
+                Quality.MAJOR, Quality.MAJOR}, new int[] {-1, -1, -1, -1});
+
+        // Between triads a third apart two common tones hold, so only one voice moves, by a step
+        assertThat(voicings).hasNumberOfRows(4);
+        assertThat(VoiceLeader.movement(new int[][] {voicings[0], voicings[1]})).isEqualTo(2);
+        assertThat(VoiceLeader.movement(new int[][] {voicings[1], voicings[2]})).isEqualTo(1);
+    }
+
+    @Test
+    void shouldFindTheLeastMovement() {
+        VoiceLeader leader = new VoiceLeader(48, 72, 4);
+        Random random = new Random(7);
+        int[] pool = {C, D, E, F, G, A};
+        for (int trial = 0; trial < 20; trial++) {
+            int count = 2 + random.nextInt(3);
+            int[] roots = new int[count];
+            Quality[] qualities = new Quality[count];
+            int[] basses = new int[count];
+            int[][] candidates = new int[count][];
+            for (int i = 0; i < count; i++) {
+                roots[i] = pool[random.nextInt(pool.length)];
+                qualities[i] = random.nextBoolean() ? Quality.MAJOR : Quality.MINOR;
+                basses[i] = -1;
+                candidates[i] = leader.candidates(roots[i], qualities[i], basses[i]);
+            }
+
+            int movement = VoiceLeader.movement(leader.lead(roots, qualities, basses));
+            assertThat(movement).isEqualTo(leastMovement(candidates, 0, -1, 4));
+        }
+    }
+
+    // Tries every combination of candidates
+    private static int leastMovement(int[][] candidates, int chord, int previous, int voices) {
+        if (chord == candidates.length) {
+            return 0;
+        }
+        int least = Integer.MAX_VALUE;
+        for (int k = 0; k < candidates[chord].length / voices; k++) {
+            int moved = 0;
+            for (int v = 0; previous >= 0 && v < voices; v++) {
+                moved += Math.abs(candidates[chord][k * voices + v] - candidates[chord - 1][previous * voices + v]);
+            }
+            least = Math.min(least, moved + leastMovement(candidates, chord + 1, k, voices));
+        }
+        return least;
+    }
+
+    @Test
+    void shouldBreakTiesTowardEarlierCandidates() {
+        VoiceLeader leader = new VoiceLeader(43, 79, 4);
+        Random random = new Random(11);
+        for (int trial = 0; trial < 50; trial++) {
+            int count = 2 + random.nextInt(5);
+            int[] roots = new int[count];
+            Quality[] qualities = new Quality[count];
+            int[] basses = new int[count];
+            int[][] candidates = new int[count][];
+            for (int i = 0; i < count; i++) {
+                roots[i] = random.nextInt(12);
+                qualities[i] = random.nextBoolean() ? Quality.MAJOR : Quality.MINOR;
+                basses[i] = -1;
+                candidates[i] = leader.candidates(roots[i], qualities[i], basses[i]);
+            }
+
+            assertThat(leader.lead(roots, qualities, basses)).isDeepEqualTo(fullSearch(candidates, 4));
+        }
+    }
+
+    // Viterbi over every pair of candidates, keeping the first of equally cheap choices
+    private static int[][] fullSearch(int[][] candidates, int voices) {
+        int count = candidates.length;
+        int[] cost = new int[candidates[0].length / voices];
+        int[][] previous = new int[count][];
+        for (int i = 1; i < count; i++) {
+            int[] next = new int[candidates[i].length / voices];
+            previous[i] = new int[next.length];
+            for (int k = 0; k < next.length; k++) {
+                next[k] = Integer.MAX_VALUE;
+                for (int j = 0; j < cost.length; j++) {
+                    int total = cost[j];
+                    for (int v = 0; v < voices; v++) {
+                        total += Math.abs(candidates[i][k * voices + v] - candidates[i - 1][j * voices + v]);
+                    }
+                    if (total < next[k]) {
+                        next[k] = total;
+                        previous[i][k] = j;
+                    }
+                }
+            }
+            cost = next;
+        }
+        int last = 0;
+        for (int k = 1; k < cost.length; k++) {
+            if (cost[k] < cost[last]) {
+                last = k;
+            }
+        }
+        int[][] voicings = new int[count][];
+        for (int i = count - 1; i >= 0; i--) {
+            voicings[i] = Arrays.copyOfRange(candidates[i], last * voices, (last + 1) * voices);
+            if (i > 0) {
+                last = previous[i][last];
+            }
+        }
+        return voicings;
+    }
+
+    @Test
+    void shouldRejectInvalidSettings() {
+        assertThatThrownBy(() -> new VoiceLeader(48, 72, 2)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new VoiceLeader(20, 100, 4)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new VoiceLeader(72, 48, 4)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new VoiceLeader(60, 64, 4).lead(new int[] {C}, new Quality[] {Quality.MAJOR},
+                new int[] {-1})).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,66 @@
+package com.composeit.backend.scaleservice.models;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.composeit.backend.common.Constants;
+
+class NoteTest {
+
+    @Test
+    void shouldCoverAllNotesInOrder() {
+        assertThat(Note.values()).extracting(Note::getName).containsExactlyElementsOf(Constants.ALL_NOTES);
+    }
+
+    @Test
+    void shouldMapPitchClassesToSemitones() {
+        for (int pitchClass = 0; pitchClass < 12; pitchClass++) {
+            assertThat(Note.ofPitchClass(pitchClass).getName()).isEqualTo(Constants.SEMITONES.get(pitchClass));
+        }
+    }
+
+    @ParameterizedTest(name = "shouldResolveEnharmonicPair - {0}")
+    @MethodSource("provideEnharmonicArgs")
+    void shouldResolveEnharmonicPair(String name, Note sharp, Note flat, boolean theoretical) {
+        Note note = Note.fromName(name);
+
+        assertThat(note.getSharpSpelling()).isEqualTo(sharp);
+        assertThat(note.getFlatSpelling()).isEqualTo(flat);
+        assertThat(note.isTheoretical()).isEqualTo(theoretical);
+    }
+
+    private static Stream<Arguments> provideEnharmonicArgs() {
+        return Stream.of(
+            Arguments.of(Constants.C, Note.C, Note.C, false),
+            Arguments.of(Constants.F_SHARP, Note.F_SHARP, Note.G_FLAT, false),
+            Arguments.of(Constants.G_FLAT, Note.F_SHARP, Note.G_FLAT, false),
+            Arguments.of(Constants.B_SHARP, Note.C, Note.B_SHARP, true),
+            Arguments.of(Constants.C_FLAT, Note.B, Note.C_FLAT, true)
+        );
+    }
+
+    @Test
+    void shouldReturnNullForUnknownNames() {
+        assertThat(Note.fromName("H")).isNull();
+        assertThat(Note.fromName("")).isNull();
+        assertThat(Note.fromName(null)).isNull();
+    }
+
+    @Test
+    void shouldInternChords() {
+        Chord chord = Chord.of(Note.F_SHARP, Quality.MINOR);
+
+        assertThat(chord).isSameAs(Chord.of(Note.F_SHARP, Quality.MINOR));
+        assertThat(chord.getName()).isEqualTo("F#m");
+        assertThat(Chord.of(Note.B, Quality.DIMINISHED).getName()).isEqualTo("B°");
+        assertThat(Chord.of(Note.B_FLAT, Quality.MAJOR).getName()).isEqualTo("Bb");
+        assertThatThrownBy(() -> Chord.of(Note.C, Quality.DORIAN)).isInstanceOf(IllegalArgumentException.class);
+    }
+}